@@ -0,0 +1,72 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public final class BenchmarkData {
+
+    public static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private BenchmarkData() {
+    }
+
+    public static List<Movie> movies(SplittableRandom random, int count) {
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Instant inserted = START.plusSeconds(random.nextInt(86_400));
+            movies.add(Movie.builder()
+                    .id(new ObjectId().toHexString())
+                    .title("Movie " + i)
+                    .releaseDate(String.format("%d-%02d-%02d", 1950 + random.nextInt(75), 1 + random.nextInt(12),
+                            1 + random.nextInt(28)))
+                    .insertDate(inserted)
+                    .updateDate(inserted)
+                    .stats(ratingStats(random, inserted))
+                    .build());
+        }
+        return movies;
+    }
+
+    public static List<Review> reviews(SplittableRandom random, List<Movie> movies, int count) {
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Instant inserted = START.plusSeconds(random.nextInt(86_400));
+            reviews.add(Review.builder()
+                    .id(new ObjectId().toHexString())
+                    .movieId(movies.get(random.nextInt(movies.size())).getId())
+                    .rating(1 + random.nextInt(5))
+                    .comment("Review number " + i + " of a benchmark run")
+                    .insertDate(inserted)
+                    .updateDate(inserted)
+                    .build());
+        }
+        return reviews;
+    }
+
+    private static RatingStats ratingStats(SplittableRandom random, Instant updated) {
+        Map<String, Long> histogram = new HashMap<>();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            long count = random.nextInt(50);
+            histogram.put(String.valueOf(rating), count);
+            reviewCount += count;
+            ratingSum += count * rating;
+        }
+        return RatingStats.builder()
+                .reviewCount(reviewCount)
+                .ratingSum(ratingSum)
+                .histogram(histogram)
+                .updateDate(updated)
+                .build();
+    }
+}
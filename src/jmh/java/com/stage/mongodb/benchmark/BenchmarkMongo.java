@@ -0,0 +1,53 @@
+package com.stage.mongodb.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+
+public final class BenchmarkMongo implements AutoCloseable {
+
+    public static final String URI_PROPERTY = "benchmark.mongodb.uri";
+
+    private final MongoDBContainer container;
+    private final String uri;
+    private final MongoClient mongoClient;
+    private final MongoTemplate mongoTemplate;
+
+    private BenchmarkMongo(MongoDBContainer container, String uri) {
+        this.container = container;
+        this.uri = uri;
+        this.mongoClient = MongoClients.create(uri);
+        this.mongoTemplate = new MongoTemplate(mongoClient, "benchmark");
+    }
+
+    public static BenchmarkMongo start() {
+        String uri = System.getProperty(URI_PROPERTY);
+        if (uri != null) {
+            return new BenchmarkMongo(null, uri);
+        }
+        MongoDBContainer container = new MongoDBContainer("mongo:latest");
+        container.start();
+        return new BenchmarkMongo(container, container.getReplicaSetUrl());
+    }
+
+    public String uri() {
+        return uri;
+    }
+
+    public MongoTemplate mongoTemplate() {
+        return mongoTemplate;
+    }
+
+    @Override
+    public void close() {
+        // A server given by URI_PROPERTY is not ours, its benchmark database is left as it is.
+        if (container != null) {
+            mongoTemplate.getDb().drop();
+        }
+        mongoClient.close();
+        if (container != null) {
+            container.stop();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.stage.mongodb.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+import org.bson.types.ObjectId;
+import org.jeasy.random.EasyRandom;
+import org.jeasy.random.EasyRandomParameters;
+import org.jeasy.random.FieldPredicates;
+import org.jeasy.random.api.Randomizer;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fills the Movie and Review collections with referentially consistent documents: review counts follow a
+// Zipf law over a shuffled popularity ranking, ratings lean positive like real review sites, reviews are
+// written after their movie, and every movie carries the RatingStats of its reviews. Reviews are generated
+// and bulk-inserted in fixed chunks, each from its own seed, so a given seed yields the same data whatever
+// the parallelism.
+public final class DatasetGenerator {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int SAMPLED_REVIEW_IDS = 100_000;
+    private static final double[] RATING_WEIGHTS = {0.10, 0.08, 0.15, 0.30, 0.37};
+    private static final String[] WORDS = {"night", "day", "love", "war", "city", "dream", "river", "ghost",
+            "last", "first", "dark", "light", "king", "queen", "road", "home", "star", "storm", "silent", "broken",
+            "golden", "hidden", "lost", "wild", "secret", "summer", "winter", "iron", "glass", "blood", "shadow",
+            "heart", "fire", "sea", "sky", "machine", "garden", "house", "stranger", "promise"};
+    private static final String[] OPINIONS = {"great", "boring", "moving", "too long", "beautifully shot",
+            "predictable", "surprising", "well acted", "forgettable", "a masterpiece", "overrated", "fun"};
+    private static final long MOVIE_SEQUENCE = 1L << 62;
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final Duration CATALOGUE_AGE = Duration.ofDays(3 * 365);
+
+    private final MongoTemplate mongoTemplate;
+    private final long seed;
+    private final int parallelism;
+    private final double zipfExponent;
+    private final ThreadLocal<ReviewFactory> reviewFactories = ThreadLocal.withInitial(ReviewFactory::new);
+
+    public DatasetGenerator(MongoTemplate mongoTemplate, long seed, int parallelism, double zipfExponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.seed = seed;
+        this.parallelism = parallelism;
+        this.zipfExponent = zipfExponent;
+    }
+
+    // Generates into the mongod given with benchmark.mongodb.uri and leaves the data there, unlike
+    // BenchmarkMongo which drops its database on close.
+    public static void main(String[] args) throws Exception {
+        String uri = System.getProperty(BenchmarkMongo.URI_PROPERTY);
+        if (uri == null) {
+            throw new IllegalArgumentException("Set -D" + BenchmarkMongo.URI_PROPERTY + " to the target mongod");
+        }
+        String database = System.getProperty("dataset.database", "benchmark");
+        int movies = Integer.getInteger("dataset.movies", 100_000);
+        long reviews = Long.getLong("dataset.reviews", 10_000_000L);
+        int parallelism = Integer.getInteger("dataset.parallelism", Runtime.getRuntime().availableProcessors());
+        double zipfExponent = Double.parseDouble(System.getProperty("dataset.zipf-exponent", "1.0"));
+
+        try (MongoClient mongoClient = MongoClients.create(uri)) {
+            long start = System.nanoTime();
+            new DatasetGenerator(new MongoTemplate(mongoClient, database), 42, parallelism, zipfExponent)
+                    .generate(movies, reviews);
+            System.out.printf("Generated %d movies and %d reviews in %d s%n", movies, reviews,
+                    Duration.ofNanos(System.nanoTime() - start).toSeconds());
+        }
+    }
+
+    // Review ids are sampled evenly, at most SAMPLED_REVIEW_IDS of them, to keep 10M+ datasets out of the heap.
+    public LoadDriver.Dataset generate(int movieCount, long reviewCount)
+            throws InterruptedException, ExecutionException {
+        List<Movie> movies = movies(movieCount);
+        double[] popularity = popularity(movieCount);
+        AtomicLongArray ratings = new AtomicLongArray(movieCount * 5);
+        long stride = Math.max(1, reviewCount / SAMPLED_REVIEW_IDS);
+        ConcurrentLinkedQueue<String> sampledReviewIds = new ConcurrentLinkedQueue<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (long first = 0; first < reviewCount; first += CHUNK_SIZE) {
+                long chunkStart = first;
+                int size = (int) Math.min(CHUNK_SIZE, reviewCount - first);
+                chunks.add(executor.submit(() -> {
+                    List<Review> reviews = reviews(chunkStart, size, movies, popularity, ratings);
+                    for (int i = 0; i < size; i++) {
+                        if ((chunkStart + i) % stride == 0) {
+                            sampledReviewIds.add(reviews.get(i).getId());
+                        }
+                    }
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class).insert(reviews).execute();
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : chunks) {
+                chunk.get();
+            }
+
+            // Movies go in last, once their stats are known.
+            List<Future<?>> movieChunks = new ArrayList<>();
+            for (int first = 0; first < movieCount; first += CHUNK_SIZE) {
+                List<Movie> chunk = movies.subList(first, Math.min(movieCount, first + CHUNK_SIZE));
+                int offset = first;
+                movieChunks.add(executor.submit(() -> {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        chunk.get(i).setStats(ratingStats(ratings, offset + i, chunk.get(i).getUpdateDate()));
+                    }
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class).insert(chunk).execute();
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : movieChunks) {
+                chunk.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<String> movieIds = movies.stream().map(Movie::getId).toList();
+        return new LoadDriver.Dataset(movieIds, new ArrayList<>(sampledReviewIds));
+    }
+
+    private List<Movie> movies(int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        EasyRandom easyRandom = new EasyRandom(new EasyRandomParameters()
+                .seed(seed)
+                .randomize(FieldPredicates.named("title"), (Randomizer<String>) () -> title(random))
+                .randomize(FieldPredicates.named("releaseDate"), (Randomizer<String>) () -> releaseDate(random))
+                .randomize(FieldPredicates.named("insertDate"),
+                        (Randomizer<Instant>) () -> NOW.minus(CATALOGUE_AGE).plusSeconds(random.nextLong(CATALOGUE_AGE.getSeconds() / 2)))
+                .excludeField(FieldPredicates.named("id")
+                        .or(FieldPredicates.named("updateDate"))
+                        .or(FieldPredicates.named("stats"))
+                        .or(FieldPredicates.named("score"))));
+
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Movie movie = easyRandom.nextObject(Movie.class);
+            movie.setId(objectId(movie.getInsertDate(), MOVIE_SEQUENCE | i));
+            movie.setUpdateDate(movie.getInsertDate());
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private List<Review> reviews(long first, int size, List<Movie> movies, double[] popularity,
+                                 AtomicLongArray ratings) {
+        ReviewFactory factory = reviewFactories.get();
+        SplittableRandom random = new SplittableRandom(seed + 1 + first / CHUNK_SIZE);
+        factory.random = random;
+
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int movieIndex = pick(popularity, random.nextDouble());
+            Movie movie = movies.get(movieIndex);
+            Instant inserted = movie.getInsertDate()
+                    .plusSeconds(random.nextLong(Duration.between(movie.getInsertDate(), NOW).getSeconds()));
+
+            Review review = factory.easyRandom.nextObject(Review.class);
+            review.setId(objectId(inserted, first + i));
+            review.setMovieId(movie.getId());
+            review.setInsertDate(inserted);
+            review.setUpdateDate(random.nextInt(10) == 0
+                    ? inserted.plusSeconds(random.nextLong(Duration.between(inserted, NOW).getSeconds() + 1))
+                    : inserted);
+            ratings.incrementAndGet(movieIndex * 5 + review.getRating() - 1);
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    // Cumulative Zipf weights indexed by movie: the popularity ranks are shuffled so the most reviewed movies
+    // are spread over the catalogue instead of being the oldest ones.
+    private double[] popularity(int movieCount) {
+        int[] ranks = new int[movieCount];
+        Arrays.setAll(ranks, i -> i + 1);
+        SplittableRandom random = new SplittableRandom(seed - 1);
+        for (int i = movieCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int rank = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = rank;
+        }
+
+        double[] cumulative = new double[movieCount];
+        double total = 0;
+        for (int i = 0; i < movieCount; i++) {
+            total += 1 / Math.pow(ranks[i], zipfExponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < movieCount; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    // Timestamp then sequence, instead of the per-process random bytes of new ObjectId(), so that ids are
+    // unique and reproducible across runs.
+    private static String objectId(Instant timestamp, long sequence) {
+        return new ObjectId(ByteBuffer.allocate(12).putInt((int) timestamp.getEpochSecond()).putLong(sequence)
+                .flip()).toHexString();
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static RatingStats ratingStats(AtomicLongArray ratings, int movieIndex, Instant updateDate) {
+        Map<String, Long> histogram = new HashMap<>();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        for (int rating = 1; rating <= 5; rating++) {
+            long count = ratings.get(movieIndex * 5 + rating - 1);
+            if (count > 0) {
+                histogram.put(String.valueOf(rating), count);
+            }
+            reviewCount += count;
+            ratingSum += count * rating;
+        }
+        return RatingStats.builder()
+                .reviewCount(reviewCount)
+                .ratingSum(ratingSum)
+                .histogram(histogram)
+                .updateDate(updateDate)
+                .build();
+    }
+
+    private static int rating(SplittableRandom random) {
+        double value = random.nextDouble();
+        for (int rating = 1; rating < RATING_WEIGHTS.length; rating++) {
+            value -= RATING_WEIGHTS[rating - 1];
+            if (value < 0) {
+                return rating;
+            }
+        }
+        return RATING_WEIGHTS.length;
+    }
+
+    private static String title(SplittableRandom random) {
+        StringBuilder title = new StringBuilder(random.nextBoolean() ? "The" : "");
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (!title.isEmpty()) {
+                title.append(' ');
+            }
+            title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+        }
+        return title.toString();
+    }
+
+    private static String releaseDate(SplittableRandom random) {
+        return LocalDate.of(1920, 1, 1).plusDays(random.nextInt(105 * 365)).toString();
+    }
+
+    private static String comment(SplittableRandom random) {
+        StringBuilder comment = new StringBuilder("The ")
+                .append(WORDS[random.nextInt(WORDS.length)]).append(" scenes were ")
+                .append(OPINIONS[random.nextInt(OPINIONS.length)]);
+        int clauses = random.nextInt(3);
+        for (int i = 0; i < clauses; i++) {
+            comment.append(", ").append(OPINIONS[random.nextInt(OPINIONS.length)]);
+        }
+        return comment.append('.').toString();
+    }
+
+    // Building an EasyRandom takes long enough to matter at 10M+ reviews, so each worker keeps one. Its
+    // randomizers read the random of the chunk being generated, which keeps chunks independent of threads.
+    private static final class ReviewFactory {
+
+        private SplittableRandom random;
+        private final EasyRandom easyRandom = new EasyRandom(new EasyRandomParameters()
+                .randomize(FieldPredicates.named("rating"), (Randomizer<Integer>) () -> rating(random))
+                .randomize(FieldPredicates.named("comment"), (Randomizer<String>) () -> comment(random))
+                .excludeField(FieldPredicates.named("id")
+                        .or(FieldPredicates.named("movieId"))
+                        .or(FieldPredicates.named("insertDate"))
+                        .or(FieldPredicates.named("updateDate"))
+                        .or(FieldPredicates.named("score"))));
+    }
+}
@@ -0,0 +1,64 @@
+package com.stage.mongodb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Writes the DTO lists returned by /api/movie/all and /api/review/all with the mapper Spring MVC builds.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectWriter movieWriter;
+    private ObjectWriter reviewWriter;
+    private List<MovieDto> movieDtos;
+    private List<ReviewDto> reviewDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        movieWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, MovieDto.class));
+        reviewWriter = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, ReviewDto.class));
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Movie> movies = BenchmarkData.movies(random, Math.max(1, size / 10));
+        MovieMapper movieMapper = new MovieMapper();
+        movieDtos = BenchmarkData.movies(random, size).stream().map(movieMapper::toMovieDto).toList();
+        reviewDtos = new ReviewMapper(movieMapper).listOfReviewsDto(BenchmarkData.reviews(random, movies, size), movies);
+    }
+
+    @Benchmark
+    public byte[] writeMovies() throws IOException {
+        return movieWriter.writeValueAsBytes(movieDtos);
+    }
+
+    @Benchmark
+    public byte[] writeReviews() throws IOException {
+        return reviewWriter.writeValueAsBytes(reviewDtos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JsonSerializationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.MongodbApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+final class LoadDriver {
+
+    record Dataset(List<String> movieIds, List<String> reviewIds) {
+    }
+
+    private LoadDriver() {
+    }
+
+    static Dataset seed(MongoTemplate mongoTemplate, int movieCount, int reviewCount)
+            throws InterruptedException, ExecutionException {
+        return new DatasetGenerator(mongoTemplate, 42, Runtime.getRuntime().availableProcessors(), 1.0)
+                .generate(movieCount, reviewCount);
+    }
+
+    // Passed as command line arguments so they take precedence over application.properties.
+    static ConfigurableApplicationContext start(String uri, String profile) {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(MongodbApplication.class);
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        return builder.run("--spring.data.mongodb.uri=" + uri,
+                "--spring.data.mongodb.database=benchmark",
+                "--server.port=0",
+                "--scheduling.enabled=false",
+                "--movie.suggest.enabled=false",
+                "--logging.level.com.stage.mongodb=WARN");
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    static void resetPeaks() {
+        ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+    // The load generator shares the JVM with the application, so the thread and heap figures include it:
+    // they are only meaningful when comparing runs against each other.
+    static String summary(LoadHarness.OperationReport report) {
+        long peakHeap = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+        return String.format("throughput=%.0f req/s p50=%.2f ms p99=%.2f ms p99.9=%.2f ms errors=%d dropped=%d "
+                        + "peakThreads=%d peakHeap=%d MB", report.throughput(), report.latencyMs().get("p50"),
+                report.latencyMs().get("p99"), report.latencyMs().get("p99.9"), report.errors(), report.dropped(),
+                ManagementFactory.getThreadMXBean().getPeakThreadCount(), peakHeap / (1024 * 1024));
+    }
+}
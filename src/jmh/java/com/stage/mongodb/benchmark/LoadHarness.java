@@ -0,0 +1,276 @@
+package com.stage.mongodb.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load test of the REST API: requests leave at a constant arrival rate whatever the response
+// times, and latency is measured from the scheduled send time so queueing in a saturated server is not
+// hidden (coordinated omission). Configured with system properties, see main().
+public final class LoadHarness {
+
+    static final List<String> OPERATIONS = List.of("movie-get", "movie-page", "movie-create", "movie-patch",
+            "review-get", "review-page", "review-all", "review-create", "review-patch", "review-delete");
+    static final String DEFAULT_MIX = "movie-get:30,movie-page:10,review-get:30,review-page:10,"
+            + "review-create:10,review-patch:5,review-delete:5";
+
+    private static final int MAX_IN_FLIGHT = 10_000;
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build()
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Report(Instant startedAt, String profile, int movies, int reviews, double targetRate,
+                  double durationSeconds, OperationReport total, List<OperationReport> operations) {
+    }
+
+    record OperationReport(String name, int weight, long requests, long errors, long dropped,
+                           double throughput, Map<String, Double> latencyMs) {
+    }
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int movies = Integer.getInteger("load.movies", 1_000);
+        int reviews = Integer.getInteger("load.reviews", 20_000);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "500"));
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT60S"));
+        String mix = System.getProperty("load.mix", DEFAULT_MIX);
+        String profile = System.getProperty("load.profile");
+        Path reportFile = Path.of(System.getProperty("load.report", "target/load-report.json"));
+
+        try (BenchmarkMongo mongo = BenchmarkMongo.start()) {
+            LoadDriver.Dataset dataset = LoadDriver.seed(mongo.mongoTemplate(), movies, reviews);
+            try (ConfigurableApplicationContext context = LoadDriver.start(mongo.uri(), profile)) {
+                String baseUrl = "http://localhost:" + LoadDriver.port(context);
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+                run(client, new Operations(baseUrl, dataset, mix), rate, warmup);
+                System.gc();
+                Instant startedAt = Instant.now();
+                Operations operations = new Operations(baseUrl, dataset, mix);
+                List<OperationReport> results = run(client, operations, rate, duration);
+
+                Report report = new Report(startedAt, profile == null ? "default" : profile, movies, reviews, rate,
+                        duration.toMillis() / 1000.0, results.get(0), results.subList(1, results.size()));
+                write(report, reportFile);
+            }
+        }
+    }
+
+    // Returns the total first, then one entry per operation of the mix.
+    static List<OperationReport> run(HttpClient client, Operations operations, double rate, Duration duration)
+            throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(7);
+        AtomicInteger inFlight = new AtomicInteger();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        for (long scheduled = start; scheduled < deadline; scheduled += interval) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = operations.pick(random);
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                operation.dropped.incrementAndGet();
+                continue;
+            }
+            HttpRequest request = operation.request(operations, random);
+            long intended = scheduled;
+            inFlight.incrementAndGet();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, exception) -> {
+                operation.latencies.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+                if (exception != null || response.statusCode() >= 400) {
+                    operation.errors.incrementAndGet();
+                } else {
+                    operation.completed(operations, response.body());
+                }
+                inFlight.decrementAndGet();
+            });
+        }
+        while (inFlight.get() > 0) {
+            Thread.sleep(10);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        long dropped = 0;
+        List<OperationReport> reports = new ArrayList<>();
+        reports.add(null);
+        for (Operation operation : operations.mix) {
+            total.add(operation.latencies);
+            errors += operation.errors.get();
+            dropped += operation.dropped.get();
+            reports.add(report(operation.name, operation.weight, operation.latencies, operation.errors.get(),
+                    operation.dropped.get(), elapsedSeconds));
+        }
+        reports.set(0, report("total", operations.totalWeight, total, errors, dropped, elapsedSeconds));
+        return reports;
+    }
+
+    private static OperationReport report(String name, int weight, Histogram latencies, long errors, long dropped,
+                                          double elapsedSeconds) {
+        Map<String, Double> latencyMs = new LinkedHashMap<>();
+        latencyMs.put("p50", latencies.getValueAtPercentile(50) / 1000.0);
+        latencyMs.put("p90", latencies.getValueAtPercentile(90) / 1000.0);
+        latencyMs.put("p99", latencies.getValueAtPercentile(99) / 1000.0);
+        latencyMs.put("p99.9", latencies.getValueAtPercentile(99.9) / 1000.0);
+        latencyMs.put("max", latencies.getMaxValue() / 1000.0);
+        latencyMs.put("mean", latencies.getMean() / 1000.0);
+        return new OperationReport(name, weight, latencies.getTotalCount(), errors, dropped,
+                latencies.getTotalCount() / elapsedSeconds, latencyMs);
+    }
+
+    private static void write(Report report, Path reportFile) throws IOException {
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        OBJECT_MAPPER.writeValue(reportFile.toFile(), report);
+        System.out.printf("%-14s %9s %7s %9s %9s %9s %9s%n", "operation", "requests", "errors", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms");
+        List<OperationReport> rows = new ArrayList<>(report.operations());
+        rows.add(report.total());
+        for (OperationReport row : rows) {
+            System.out.printf("%-14s %9d %7d %9.2f %9.2f %9.2f %9.2f%n", row.name(), row.requests(),
+                    row.errors() + row.dropped(), row.latencyMs().get("p50"), row.latencyMs().get("p90"),
+                    row.latencyMs().get("p99"), row.latencyMs().get("p99.9"));
+        }
+        System.out.println("Report written to " + reportFile.toAbsolutePath());
+    }
+
+    static final class Operations {
+
+        private final String baseUrl;
+        private final LoadDriver.Dataset dataset;
+        private final List<Operation> mix = new ArrayList<>();
+        private final int totalWeight;
+        private final ConcurrentLinkedQueue<String> createdReviews = new ConcurrentLinkedQueue<>();
+
+        Operations(String baseUrl, LoadDriver.Dataset dataset, String mix) {
+            this.baseUrl = baseUrl;
+            this.dataset = dataset;
+            int weights = 0;
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight > 0) {
+                    this.mix.add(new Operation(parts[0].trim(), weight));
+                    weights += weight;
+                }
+            }
+            if (weights == 0) {
+                throw new IllegalArgumentException("The load mix has no operation: " + mix);
+            }
+            this.totalWeight = weights;
+        }
+
+        private Operation pick(SplittableRandom random) {
+            int ticket = random.nextInt(totalWeight);
+            for (Operation operation : mix) {
+                ticket -= operation.weight;
+                if (ticket < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+
+        private String movieId(SplittableRandom random) {
+            return dataset.movieIds().get(random.nextInt(dataset.movieIds().size()));
+        }
+
+        private String reviewId(SplittableRandom random) {
+            return dataset.reviewIds().get(random.nextInt(dataset.reviewIds().size()));
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Accept", "application/json");
+        }
+
+        private HttpRequest json(String path, String method, String body) {
+            return request(path).header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body)).build();
+        }
+    }
+
+    private static final class Operation {
+
+        private final String name;
+        private final int weight;
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private Operation(String name, int weight) {
+            if (!OPERATIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown load operation " + name + ", expected one of " + OPERATIONS);
+            }
+            this.name = name;
+            this.weight = weight;
+        }
+
+        private HttpRequest request(Operations operations, SplittableRandom random) {
+            return switch (name) {
+                case "movie-get" -> operations.request("/api/movie?id=" + operations.movieId(random)).GET().build();
+                case "movie-page" -> operations.request("/api/movie/page?limit=20").GET().build();
+                case "movie-create" -> operations.json("/api/movie", "POST",
+                        "{\"title\":\"Load test movie\",\"releaseDate\":\"2001-09-11\"}");
+                case "movie-patch" -> operations.json("/api/movie?id=" + operations.movieId(random), "PATCH",
+                        "{\"title\":\"Patched by the load test\"}");
+                case "review-get" -> operations.request("/api/review?id=" + operations.reviewId(random)).GET().build();
+                case "review-page" -> operations.request("/api/review/page?limit=20").GET().build();
+                case "review-all" -> operations.request("/api/review/all").GET().build();
+                case "review-create" -> operations.json("/api/review", "POST", "{\"movieId\":\""
+                        + operations.movieId(random) + "\",\"rating\":" + (1 + random.nextInt(5))
+                        + ",\"comment\":\"Written by the load test\"}");
+                case "review-patch" -> operations.json("/api/review?id=" + operations.reviewId(random), "PATCH",
+                        "{\"rating\":" + (1 + random.nextInt(5)) + "}");
+                case "review-delete" -> {
+                    // Only reviews created by the run are deleted, so the seeded ids stay readable. Until one
+                    // exists, the slot reads a seeded review instead.
+                    String id = operations.createdReviews.poll();
+                    yield id == null
+                            ? operations.request("/api/review?id=" + operations.reviewId(random)).GET().build()
+                            : operations.request("/api/review?id=" + id).DELETE().build();
+                }
+                default -> throw new IllegalStateException(name);
+            };
+        }
+
+        private void completed(Operations operations, String body) {
+            if (name.equals("review-create")) {
+                try {
+                    operations.createdReviews.add(OBJECT_MAPPER.readTree(body).path("id").asText());
+                } catch (IOException exception) {
+                    errors.incrementAndGet();
+                }
+            }
+        }
+    }
+}
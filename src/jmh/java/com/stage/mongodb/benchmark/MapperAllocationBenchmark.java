@@ -0,0 +1,139 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Run through main(): it attaches the GC profiler and fails when the bytes allocated per mapped DTO exceed
+// the budget of the benchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MapperAllocationBenchmark {
+
+    // Keyed by benchmark and distinctMinutes; before the mappers were reworked they allocated 1852, 4096 and 2280 bytes.
+    private static final Map<String, Double> BYTES_PER_DTO_BUDGETS = Map.of(
+            "listOfReviewsDto/60", 64.0,
+            "listOfReviewsDto/100000", 480.0,
+            "toReviewDto/60", 512.0,
+            "toReviewDto/100000", 896.0,
+            "toMovieDto/60", 448.0,
+            "toMovieDto/100000", 448.0);
+
+    @Param({"1000"})
+    private int movies;
+
+    @Param({"100000"})
+    private int reviews;
+
+    // Reviews are written in bursts (bulk imports), so their timestamps spread over fewer minutes than reviews.
+    @Param({"60", "100000"})
+    private int distinctMinutes;
+
+    private ReviewMapper reviewMapper;
+    private MovieMapper movieMapper;
+    private List<Movie> movieList;
+    private List<Review> reviewList;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        movieMapper = new MovieMapper();
+        reviewMapper = new ReviewMapper(movieMapper);
+        random = new SplittableRandom(42);
+        Instant start = Instant.parse("2025-01-01T00:00:00Z");
+
+        movieList = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            movieList.add(Movie.builder().id(new ObjectId().toHexString()).title("Movie " + i)
+                    .releaseDate("2000-01-01").insertDate(start).updateDate(start)
+                    .stats(RatingStats.builder().reviewCount(200).ratingSum(700)
+                            .histogram(Map.of("1", 10L, "2", 20L, "3", 40L, "4", 60L, "5", 70L))
+                            .updateDate(start).build())
+                    .build());
+        }
+
+        reviewList = new ArrayList<>(reviews);
+        for (int i = 0; i < reviews; i++) {
+            Instant written = start.plusSeconds(60L * random.nextInt(distinctMinutes) + random.nextInt(60));
+            reviewList.add(Review.builder().id(new ObjectId().toHexString())
+                    .movieId(movieList.get(random.nextInt(movies)).getId())
+                    .rating(1 + random.nextInt(5)).comment("Review " + i)
+                    .insertDate(written).updateDate(written).build());
+        }
+    }
+
+    @Benchmark
+    public List<ReviewDto> listOfReviewsDto() {
+        return reviewMapper.listOfReviewsDto(reviewList, movieList);
+    }
+
+    @Benchmark
+    public ReviewDto toReviewDto() {
+        Review review = reviewList.get(random.nextInt(reviews));
+        return reviewMapper.toReviewDto(review, movieList.get(random.nextInt(movies)));
+    }
+
+    @Benchmark
+    public MovieDto toMovieDto() {
+        return movieMapper.toMovieDto(movieList.get(random.nextInt(movies)));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(MapperAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+
+        List<String> violations = new ArrayList<>();
+        for (RunResult result : results) {
+            String label = result.getParams().getBenchmark();
+            String benchmark = label.substring(label.lastIndexOf('.') + 1);
+            double bytesPerDto = allocatedBytesPerOperation(result);
+            if (benchmark.equals("listOfReviewsDto")) {
+                bytesPerDto /= Integer.parseInt(result.getParams().getParam("reviews"));
+            }
+            String key = benchmark + "/" + result.getParams().getParam("distinctMinutes");
+            double budget = BYTES_PER_DTO_BUDGETS.get(key);
+            System.out.printf("%s: %.1f bytes per DTO (budget %.0f)%n", key, bytesPerDto, budget);
+            if (bytesPerDto > budget) {
+                violations.add(key + " allocates " + Math.round(bytesPerDto) + " bytes per DTO");
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException("Allocation budget exceeded: " + violations);
+        }
+    }
+
+    private static double allocatedBytesPerOperation(RunResult result) {
+        return result.getSecondaryResults().entrySet().stream()
+                .filter(entry -> entry.getKey().endsWith("gc.alloc.rate.norm"))
+                .map(Map.Entry::getValue)
+                .mapToDouble(Result::getScore)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Run with the GC profiler"));
+    }
+}
@@ -0,0 +1,103 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Latency of both mapping directions; MapperAllocationBenchmark holds the allocation budgets.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"1000"})
+    private int movies;
+
+    @Param({"100"})
+    private int pageSize;
+
+    private MovieMapper movieMapper;
+    private ReviewMapper reviewMapper;
+    private List<Movie> movieList;
+    private List<Review> reviewList;
+    private List<Review> page;
+    private MovieDtoInput movieDtoInput;
+    private MoviePatchDto moviePatchDto;
+    private ReviewDtoInput reviewDtoInput;
+    private ReviewPatchDto reviewPatchDto;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        movieMapper = new MovieMapper();
+        reviewMapper = new ReviewMapper(movieMapper);
+        random = new SplittableRandom(42);
+        movieList = BenchmarkData.movies(random, movies);
+        reviewList = BenchmarkData.reviews(random, movieList, movies * 10);
+        page = reviewList.subList(0, pageSize);
+
+        movieDtoInput = MovieDtoInput.builder().title("The Benchmark").releaseDate("2001-09-11").build();
+        moviePatchDto = MoviePatchDto.builder().title("The Benchmark Returns").build();
+        reviewDtoInput = ReviewDtoInput.builder().movieId(movieList.get(0).getId()).rating(4).comment("Solid").build();
+        reviewPatchDto = ReviewPatchDto.builder().rating(5).build();
+    }
+
+    @Benchmark
+    public MovieDto toMovieDto() {
+        return movieMapper.toMovieDto(movieList.get(random.nextInt(movies)));
+    }
+
+    @Benchmark
+    public ReviewDto toReviewDto() {
+        Review review = reviewList.get(random.nextInt(reviewList.size()));
+        return reviewMapper.toReviewDto(review, movieList.get(random.nextInt(movies)));
+    }
+
+    @Benchmark
+    public List<ReviewDto> listOfReviewsDto() {
+        return reviewMapper.listOfReviewsDto(page, movieList);
+    }
+
+    @Benchmark
+    public Movie toMovieFromDtoInput() {
+        return movieMapper.toMovieFromDtoInput(movieDtoInput);
+    }
+
+    @Benchmark
+    public Review toReviewFromDtoInput() {
+        return reviewMapper.toReviewFromDtoInput(reviewDtoInput);
+    }
+
+    @Benchmark
+    public Update movieUpdateFromPatchDto() {
+        return movieMapper.toUpdateFromPatchDto(moviePatchDto);
+    }
+
+    @Benchmark
+    public Update reviewUpdateFromPatchDto() {
+        return reviewMapper.toUpdateFromPatchDto(reviewPatchDto);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
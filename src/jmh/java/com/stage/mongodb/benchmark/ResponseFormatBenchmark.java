@@ -0,0 +1,102 @@
+package com.stage.mongodb.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.stage.mongodb.config.BinaryFormatsConfig;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+import org.bson.types.ObjectId;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Encodes the /api/review/all payload with the same mappers the HTTP converters use. The encoded size of
+// each format is printed once per trial.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"json", "cbor", "smile", "msgpack"})
+    private String format;
+
+    @Param({"1000"})
+    private int movies;
+
+    @Param({"20000"})
+    private int reviews;
+
+    private ObjectMapper objectMapper;
+    private List<ReviewDto> payload;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = BinaryFormatsConfig.objectMapper(Jackson2ObjectMapperBuilder.json(), factory(format));
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Movie> movieList = new ArrayList<>(movies);
+        for (int i = 0; i < movies; i++) {
+            movieList.add(Movie.builder().id(new ObjectId().toHexString()).title("Movie " + i)
+                    .releaseDate("2000-01-01").insertDate(Instant.now()).updateDate(Instant.now())
+                    .stats(RatingStats.builder().reviewCount(20).ratingSum(70)
+                            .histogram(Map.of("3", 10L, "4", 10L)).updateDate(Instant.now()).build())
+                    .build());
+        }
+        List<Review> reviewList = new ArrayList<>(reviews);
+        for (int i = 0; i < reviews; i++) {
+            reviewList.add(Review.builder().id(new ObjectId().toHexString())
+                    .movieId(movieList.get(random.nextInt(movies)).getId())
+                    .rating(1 + random.nextInt(5)).comment("Review number " + i + " of a benchmark run")
+                    .insertDate(Instant.now()).updateDate(Instant.now()).build());
+        }
+        payload = new ReviewMapper(new MovieMapper()).listOfReviewsDto(reviewList, movieList);
+        encoded = objectMapper.writeValueAsBytes(payload);
+        System.out.printf("%n%s payload for %d reviews: %d bytes%n", format, reviews, encoded.length);
+    }
+
+    private static JsonFactory factory(String format) {
+        return switch (format) {
+            case "json" -> new JsonFactory();
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            case "msgpack" -> new MessagePackFactory();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        return objectMapper.readTree(encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ResponseFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.repository.ReviewRepositoryCustomImpl;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReviewListingBenchmark {
+
+    @Param({"10000"})
+    private int movies;
+
+    @Param({"200000"})
+    private int reviews;
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    private BenchmarkMongo mongo;
+    private MongoTemplate mongoTemplate;
+    private ReviewRepositoryCustomImpl reviewRepository;
+    private ReviewMapper reviewMapper;
+    private List<String> reviewIds;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongo = BenchmarkMongo.start();
+        mongoTemplate = mongo.mongoTemplate();
+        reviewRepository = new ReviewRepositoryCustomImpl(mongoTemplate);
+        reviewMapper = new ReviewMapper(new MovieMapper());
+        random = new SplittableRandom(42);
+
+        List<String> movieIds = new ArrayList<>(movies);
+        List<Movie> movieBatch = new ArrayList<>();
+        for (int i = 0; i < movies; i++) {
+            String id = new ObjectId().toHexString();
+            movieIds.add(id);
+            movieBatch.add(Movie.builder().id(id).title("Movie " + i).releaseDate("2000-01-01")
+                    .insertDate(Instant.now()).updateDate(Instant.now()).build());
+        }
+        mongoTemplate.insertAll(movieBatch);
+
+        reviewIds = new ArrayList<>(reviews);
+        List<Review> reviewBatch = new ArrayList<>();
+        for (int i = 0; i < reviews; i++) {
+            String id = new ObjectId().toHexString();
+            reviewIds.add(id);
+            reviewBatch.add(Review.builder().id(id).movieId(movieIds.get(random.nextInt(movies)))
+                    .rating(1 + random.nextInt(5)).comment("Review " + i)
+                    .insertDate(Instant.now()).updateDate(Instant.now()).build());
+            if (reviewBatch.size() == 10_000) {
+                mongoTemplate.insertAll(reviewBatch);
+                reviewBatch.clear();
+            }
+        }
+        mongoTemplate.insertAll(reviewBatch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongo.close();
+    }
+
+    private String randomCursor() {
+        return reviewIds.get(random.nextInt(reviewIds.size() - pageSize));
+    }
+
+    @Benchmark
+    public List<ReviewDto> twoQueries() {
+        List<Review> page = mongoTemplate.find(new Query(where("id").gt(randomCursor()))
+                .with(Sort.by("id")).limit(pageSize), Review.class);
+        Set<String> movieIds = page.stream().map(Review::getMovieId).collect(Collectors.toSet());
+        List<Movie> pageMovies = mongoTemplate.find(new Query(where("id").in(movieIds)), Movie.class);
+        return reviewMapper.listOfReviewsDto(page, pageMovies);
+    }
+
+    @Benchmark
+    public List<ReviewDto> singleLookupAggregation() {
+        return reviewRepository.findPageWithMovie(randomCursor(), pageSize).stream()
+                .map(reviewMapper::toReviewDto)
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ReviewListingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
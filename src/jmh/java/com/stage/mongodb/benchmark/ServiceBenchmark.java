@@ -0,0 +1,126 @@
+package com.stage.mongodb.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.service.MovieCache;
+import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.ReviewDtoCache;
+import com.stage.mongodb.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// MovieService and ReviewService over StubRepositories and the real caches, without a Spring context.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Param({"1000"})
+    private int movies;
+
+    @Param({"10000"})
+    private int reviews;
+
+    @Param({"50"})
+    private int pageSize;
+
+    private MovieService movieService;
+    private ReviewService reviewService;
+    private List<Movie> movieList;
+    private List<Review> reviewList;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+
+        random = new SplittableRandom(42);
+        movieList = BenchmarkData.movies(random, movies);
+        reviewList = BenchmarkData.reviews(random, movieList, reviews);
+
+        StubRepositories repositories = new StubRepositories(movieList, reviewList);
+        MovieRepository movieRepository = repositories.movieRepository();
+        ReviewRepository reviewRepository = repositories.reviewRepository();
+        CollectionVersionRepository collectionVersionRepository = repositories.collectionVersionRepository();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MovieCache movieCache = new MovieCache(movieRepository, meterRegistry, 10_000, Duration.ofMinutes(1));
+        ReviewDtoCache reviewDtoCache = new ReviewDtoCache(meterRegistry, 10_000, Duration.ofMinutes(1));
+        MovieMapper movieMapper = new MovieMapper();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        movieService = new MovieService(movieRepository, reviewRepository, null, collectionVersionRepository, movieCache,
+                reviewDtoCache, null, movieMapper, objectMapper, validator);
+        reviewService = new ReviewService(reviewRepository, movieRepository, collectionVersionRepository, movieCache,
+                reviewDtoCache, new ReviewMapper(movieMapper), objectMapper, validator);
+    }
+
+    @Benchmark
+    public List<MovieDto> getMovies() {
+        return movieService.getMovies();
+    }
+
+    @Benchmark
+    public CursorPageDto<MovieDto> getMoviesPage() {
+        return movieService.getMoviesPage(null, pageSize);
+    }
+
+    @Benchmark
+    public MovieDto getMovieById() {
+        return movieService.getMovieById(movieList.get(random.nextInt(movies)).getId());
+    }
+
+    @Benchmark
+    public List<ReviewDto> getReviews() {
+        return reviewService.getReviews();
+    }
+
+    @Benchmark
+    public CursorPageDto<ReviewDto> getReviewsPage() {
+        return reviewService.getReviewsPage(null, pageSize);
+    }
+
+    @Benchmark
+    public ReviewDto getReviewById() {
+        return reviewService.getReviewById(reviewList.get(random.nextInt(reviews)).getId());
+    }
+
+    @Benchmark
+    public ReviewDto insertReview() {
+        return reviewService.insertReview(ReviewDtoInput.builder()
+                .movieId(movieList.get(random.nextInt(movies)).getId())
+                .rating(1 + random.nextInt(5))
+                .comment("Inserted by a benchmark")
+                .build());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ServiceBenchmark.class.getSimpleName()).build()).run();
+    }
+}
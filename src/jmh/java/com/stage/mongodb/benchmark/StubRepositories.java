@@ -0,0 +1,145 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.repository.ReviewRepository;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+// In-memory repositories answering the reads the services issue, so service benchmarks measure the service
+// and mapping work instead of a driver. Writes are acknowledged but not kept, to hold the data set steady
+// across iterations; any other method fails loudly.
+public final class StubRepositories {
+
+    private final TreeMap<String, Movie> movies = new TreeMap<>();
+    private final TreeMap<String, Review> reviews = new TreeMap<>();
+
+    public StubRepositories(List<Movie> movies, List<Review> reviews) {
+        movies.forEach(movie -> this.movies.put(movie.getId(), movie));
+        reviews.forEach(review -> this.reviews.put(review.getId(), review));
+    }
+
+    public MovieRepository movieRepository() {
+        return proxy(MovieRepository.class, this::movieCall);
+    }
+
+    public ReviewRepository reviewRepository() {
+        return proxy(ReviewRepository.class, this::reviewCall);
+    }
+
+    public CollectionVersionRepository collectionVersionRepository() {
+        return proxy(CollectionVersionRepository.class, (method, args) -> switch (method.getName()) {
+            case "findAllById" -> List.of();
+            case "increment" -> null;
+            default -> throw unsupported(method);
+        });
+    }
+
+    private Object movieCall(Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findAll" -> new ArrayList<>(movies.values());
+            case "findById" -> Optional.ofNullable(movies.get((String) args[0]));
+            case "findAllById" -> findAllById(movies, (Iterable<?>) args[0]);
+            case "findAllByOrderByIdAsc" -> first(movies.values(), (Limit) args[0]);
+            case "findByIdGreaterThanOrderByIdAsc" -> first(movies.tailMap((String) args[0], false).values(), (Limit) args[1]);
+            case "startRatingStatsWrite" -> movies.containsKey((String) args[0]);
+            case "finishRatingStatsWrite" -> Optional.ofNullable(movies.get((String) args[0]));
+            case "save" -> assignId((Movie) args[0]);
+            case "count" -> (long) movies.size();
+            default -> throw unsupported(method);
+        };
+    }
+
+    private Object reviewCall(Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "findAll" -> new ArrayList<>(reviews.values());
+            case "findById" -> Optional.ofNullable(reviews.get((String) args[0]));
+            case "findPageWithMovie" -> findPageWithMovie((String) args[0], (int) args[1]);
+            case "save" -> assignId((Review) args[0]);
+            case "count" -> (long) reviews.size();
+            default -> throw unsupported(method);
+        };
+    }
+
+    private List<ReviewWithMovie> findPageWithMovie(String afterId, int limit) {
+        Collection<Review> page = afterId == null ? reviews.values() : reviews.tailMap(afterId, false).values();
+        List<ReviewWithMovie> result = new ArrayList<>(limit);
+        for (Review review : page) {
+            if (result.size() == limit) {
+                break;
+            }
+            ReviewWithMovie reviewWithMovie = new ReviewWithMovie();
+            reviewWithMovie.setId(review.getId());
+            reviewWithMovie.setMovieId(review.getMovieId());
+            reviewWithMovie.setRating(review.getRating());
+            reviewWithMovie.setComment(review.getComment());
+            reviewWithMovie.setInsertDate(review.getInsertDate());
+            reviewWithMovie.setUpdateDate(review.getUpdateDate());
+            reviewWithMovie.setMovie(movies.get(review.getMovieId()));
+            result.add(reviewWithMovie);
+        }
+        return result;
+    }
+
+    private static <T> List<T> findAllById(Map<String, T> documents, Iterable<?> ids) {
+        List<T> found = new ArrayList<>();
+        for (Object id : ids) {
+            T document = documents.get((String) id);
+            if (document != null) {
+                found.add(document);
+            }
+        }
+        return found;
+    }
+
+    private static <T> List<T> first(Collection<T> documents, Limit limit) {
+        return documents.stream().limit(limit.max()).toList();
+    }
+
+    private static Movie assignId(Movie movie) {
+        if (movie.getId() == null) {
+            movie.setId(new ObjectId().toHexString());
+        }
+        return movie;
+    }
+
+    private static Review assignId(Review review) {
+        if (review.getId() == null) {
+            review.setId(new ObjectId().toHexString());
+        }
+        return review;
+    }
+
+    private static UnsupportedOperationException unsupported(Method method) {
+        return new UnsupportedOperationException(method.getName() + " is not stubbed for benchmarks");
+    }
+
+    private interface Call {
+        Object invoke(Method method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Call call) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            return call.invoke(method, args);
+        }));
+    }
+}
@@ -0,0 +1,48 @@
+package com.stage.mongodb.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+
+public final class ThreadModelLoadComparison {
+
+    // /api/review/all returns every review, so the dataset is kept small enough for thousands of copies in flight.
+    private static final int MOVIES = 1_000;
+    private static final int REVIEWS = 2_000;
+    private static final List<String> MIXES = List.of("review-all:1", "review-get:1");
+    private static final double RATE = 5_000;
+    private static final Duration WARMUP = Duration.ofSeconds(15);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private ThreadModelLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Before Java 21 spring.threads.virtual.enabled is ignored and both runs would use platform threads.
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("The virtual-threads comparison needs Java 21 or later, this JVM is Java "
+                    + Runtime.version().feature());
+        }
+        try (BenchmarkMongo mongo = BenchmarkMongo.start()) {
+            LoadDriver.Dataset dataset = LoadDriver.seed(mongo.mongoTemplate(), MOVIES, REVIEWS);
+
+            for (String profile : new String[]{null, "virtual-threads"}) {
+                try (ConfigurableApplicationContext context = LoadDriver.start(mongo.uri(), profile)) {
+                    String baseUrl = "http://localhost:" + LoadDriver.port(context);
+                    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                    for (String mix : MIXES) {
+                        LoadHarness.run(client, new LoadHarness.Operations(baseUrl, dataset, mix), RATE, WARMUP);
+                        System.gc();
+                        LoadDriver.resetPeaks();
+                        LoadHarness.OperationReport total = LoadHarness.run(client,
+                                new LoadHarness.Operations(baseUrl, dataset, mix), RATE, MEASUREMENT).get(0);
+                        System.out.printf("%-16s %-13s %s%n", profile == null ? "platform-threads" : profile,
+                                mix.substring(0, mix.indexOf(':')), LoadDriver.summary(total));
+                    }
+                }
+            }
+        }
+    }
+}
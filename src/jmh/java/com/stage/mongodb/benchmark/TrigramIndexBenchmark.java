@@ -0,0 +1,94 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.utils.TrigramIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TrigramIndexBenchmark {
+
+    private static final String[] STOP_WORDS = {"the", "of", "a", "and", "in", "to", "night", "day", "man", "love"};
+    private static final String LETTERS_BY_FREQUENCY = "etaoinshrdlcumwfgypbvkjxqz";
+
+    @Param({"1000000"})
+    private int titles;
+
+    @Param({"50000"})
+    private int vocabulary;
+
+    private TrigramIndex index;
+    private String[] words;
+    private String[] queries;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        words = new String[vocabulary];
+        for (int i = 0; i < vocabulary; i++) {
+            words[i] = randomWord();
+        }
+
+        index = new TrigramIndex();
+        String[] generated = new String[titles];
+        for (int i = 0; i < titles; i++) {
+            generated[i] = randomTitle();
+            index.put(Integer.toString(i), generated[i]);
+        }
+
+        queries = new String[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = withTypo(generated[random.nextInt(titles)]);
+        }
+    }
+
+    private String randomWord() {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(7);
+        for (int i = 0; i < length; i++) {
+            double skewed = Math.pow(random.nextDouble(), 2);
+            word.append(LETTERS_BY_FREQUENCY.charAt((int) (skewed * LETTERS_BY_FREQUENCY.length())));
+        }
+        return word.toString();
+    }
+
+    private String randomTitle() {
+        StringBuilder title = new StringBuilder();
+        if (random.nextInt(3) == 0) {
+            title.append(STOP_WORDS[random.nextInt(STOP_WORDS.length)]).append(' ');
+        }
+        title.append(words[random.nextInt(words.length)]);
+        int extraWords = random.nextInt(3);
+        for (int i = 0; i < extraWords; i++) {
+            title.append(' ').append(random.nextBoolean()
+                    ? STOP_WORDS[random.nextInt(STOP_WORDS.length)]
+                    : words[random.nextInt(words.length)]);
+        }
+        return title.toString();
+    }
+
+    private String withTypo(String title) {
+        int position = 1 + random.nextInt(title.length() - 1);
+        return title.substring(0, position - 1) + title.substring(position);
+    }
+
+    @Benchmark
+    public List<TrigramIndex.Match> fuzzySearch() {
+        return index.search(queries[random.nextInt(queries.length)], 10, 0.3);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TrigramIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.stage.mongodb.benchmark;
+
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Bean validation of the request bodies; invalid inputs break every constraint, which builds the messages.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private MovieDtoInput validMovie;
+    private MovieDtoInput invalidMovie;
+    private ReviewDtoInput validReview;
+    private ReviewDtoInput invalidReview;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validMovie = MovieDtoInput.builder().title("The Benchmark").releaseDate("2001-09-11").build();
+        invalidMovie = MovieDtoInput.builder().title(" ").releaseDate("11/09/2001").build();
+        validReview = ReviewDtoInput.builder().movieId("65f1c0ffee0000000000beef").rating(4).comment("Solid").build();
+        invalidReview = ReviewDtoInput.builder().movieId("").rating(9).comment("").build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieDtoInput>> validMovie() {
+        return validator.validate(validMovie);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieDtoInput>> invalidMovie() {
+        return validator.validate(invalidMovie);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReviewDtoInput>> validReview() {
+        return validator.validate(validReview);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ReviewDtoInput>> invalidReview() {
+        return validator.validate(invalidReview);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
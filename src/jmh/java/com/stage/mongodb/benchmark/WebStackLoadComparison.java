@@ -0,0 +1,40 @@
+package com.stage.mongodb.benchmark;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+public final class WebStackLoadComparison {
+
+    private static final int MOVIES = 10_000;
+    private static final int REVIEWS = 200_000;
+    private static final String MIX = "movie-get:2,movie-page:1,review-page:1";
+    private static final double[] RATES = {500, 2_000, 8_000};
+    private static final Duration WARMUP = Duration.ofSeconds(10);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(30);
+
+    private WebStackLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        try (BenchmarkMongo mongo = BenchmarkMongo.start()) {
+            LoadDriver.Dataset dataset = LoadDriver.seed(mongo.mongoTemplate(), MOVIES, REVIEWS);
+            for (String profile : new String[]{null, "reactive"}) {
+                try (ConfigurableApplicationContext context = LoadDriver.start(mongo.uri(), profile)) {
+                    String baseUrl = "http://localhost:" + LoadDriver.port(context);
+                    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                    for (double rate : RATES) {
+                        LoadHarness.run(client, new LoadHarness.Operations(baseUrl, dataset, MIX), rate, WARMUP);
+                        System.gc();
+                        LoadDriver.resetPeaks();
+                        LoadHarness.OperationReport total = LoadHarness.run(client,
+                                new LoadHarness.Operations(baseUrl, dataset, MIX), rate, MEASUREMENT).get(0);
+                        System.out.printf("%-8s rate=%5.0f/s %s%n", profile == null ? "servlet" : profile, rate,
+                                LoadDriver.summary(total));
+                    }
+                }
+            }
+        }
+    }
+}
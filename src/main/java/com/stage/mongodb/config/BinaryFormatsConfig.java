@@ -0,0 +1,60 @@
+package com.stage.mongodb.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class BinaryFormatsConfig implements WebMvcConfigurer {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+    public static final MediaType APPLICATION_MSGPACK = new MediaType("application", "msgpack");
+    public static final MediaType APPLICATION_X_MSGPACK = new MediaType("application", "x-msgpack");
+    public static final List<MediaType> BINARY_TYPES = List.of(MediaType.APPLICATION_CBOR, APPLICATION_SMILE,
+            APPLICATION_MSGPACK, APPLICATION_X_MSGPACK);
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    public BinaryFormatsConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        this.objectMapperBuilders = objectMapperBuilders;
+    }
+
+    public static ObjectMapper objectMapper(Jackson2ObjectMapperBuilder builder, JsonFactory factory) {
+        return builder.factory(factory).build();
+    }
+
+    // Binary converters go right after the JSON one: requests accepting */* keep getting JSON, and the
+    // Spring MVC defaults for CBOR and Smile are replaced by ones sharing the application's Jackson settings.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        converters.addAll(Math.min(json + 1, converters.size()), List.of(
+                new MappingJackson2CborHttpMessageConverter(
+                        objectMapper(objectMapperBuilders.getObject(), new CBORFactory())),
+                new MappingJackson2SmileHttpMessageConverter(
+                        objectMapper(objectMapperBuilders.getObject(), new SmileFactory())),
+                new MessagePackHttpMessageConverter(
+                        objectMapper(objectMapperBuilders.getObject(), new MessagePackFactory()))));
+    }
+}
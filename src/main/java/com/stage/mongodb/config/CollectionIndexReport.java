@@ -0,0 +1,10 @@
+package com.stage.mongodb.config;
+
+import java.util.List;
+
+public record CollectionIndexReport(String collection, List<String> missing, List<String> extra) {
+
+    public boolean isComplete() {
+        return missing.isEmpty();
+    }
+}
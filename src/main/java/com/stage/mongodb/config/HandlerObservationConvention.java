@@ -0,0 +1,50 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.ReviewNotFoundException;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Adds the controller method that served the request to http.server.requests, next to the uri, status, outcome
+// and exception tags of the default convention.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    static final String HANDLER = "handler";
+    static final String OUTCOME = "outcome";
+    private static final KeyValue HANDLER_NONE = KeyValue.of(HANDLER, KeyValue.NONE_VALUE);
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context).and(handler(context));
+    }
+
+    // The HTML controllers render their error pages with a 200, the outcome follows the recorded exception instead.
+    @Override
+    protected KeyValue outcome(ServerRequestObservationContext context) {
+        Throwable error = context.getError();
+        if (error != null && context.getResponse() != null && context.getResponse().getStatus() < 400) {
+            return KeyValue.of(OUTCOME, error instanceof MovieNotFoundException
+                    || error instanceof ReviewNotFoundException
+                    || error instanceof IllegalArgumentException ? "CLIENT_ERROR" : "SERVER_ERROR");
+        }
+        return super.outcome(context);
+    }
+
+    private static KeyValue handler(ServerRequestObservationContext context) {
+        if (context.getCarrier() != null
+                && context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                instanceof HandlerMethod handlerMethod) {
+            return KeyValue.of(HANDLER,
+                    handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName());
+        }
+        return HANDLER_NONE;
+    }
+}
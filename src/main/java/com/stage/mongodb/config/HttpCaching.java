@@ -0,0 +1,79 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.utils.ResourceVersion;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class HttpCaching {
+
+    private final CacheControl cacheControl;
+
+    public HttpCaching(@Value("${http.caching.max-age:PT0S}") Duration maxAge,
+                       @Value("${http.caching.stale-while-revalidate:PT0S}") Duration staleWhileRevalidate) {
+        CacheControl maxAgeControl = CacheControl.maxAge(maxAge);
+        this.cacheControl = staleWhileRevalidate.isZero()
+                ? maxAgeControl
+                : maxAgeControl.staleWhileRevalidate(staleWhileRevalidate);
+    }
+
+    public <T> ResponseEntity<T> respond(WebRequest request, ResourceVersion version, Supplier<T> body) {
+        String eTag = version.eTag() + representation(request);
+        long lastModified = version.lastModified().toEpochMilli();
+        if (request.checkNotModified(eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body.get());
+    }
+
+    // Each negotiated format is a different representation, so it needs its own strong ETag. JSON is
+    // registered first and wins for wildcards, so it keeps the bare version.
+    static String representation(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException exception) {
+            return "";
+        }
+        MimeTypeUtils.sortBySpecificity(acceptable);
+        for (MediaType mediaType : acceptable) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return "";
+            }
+            for (MediaType binaryType : BinaryFormatsConfig.BINARY_TYPES) {
+                if (mediaType.isCompatibleWith(binaryType)) {
+                    return "-" + binaryType.getSubtype();
+                }
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,11 @@
+package com.stage.mongodb.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+public class MessagePackHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public MessagePackHttpMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper, BinaryFormatsConfig.APPLICATION_MSGPACK, BinaryFormatsConfig.APPLICATION_X_MSGPACK);
+    }
+}
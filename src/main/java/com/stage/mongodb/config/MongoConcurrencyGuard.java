@@ -0,0 +1,70 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.exceptions.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MongoConcurrencyGuard implements AsyncHandlerInterceptor, WebMvcConfigurer {
+
+    static final String PERMIT_ATTRIBUTE = MongoConcurrencyGuard.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final Duration acquireTimeout;
+
+    public MongoConcurrencyGuard(@Value("${mongodb.pool.guard.permits:${mongodb.pool.max-size:100}}") int permits,
+                                 @Value("${mongodb.pool.guard.acquire-timeout:PT2S}") Duration acquireTimeout) {
+        this.permits = new Semaphore(permits, true);
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**", "/view/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        // Streaming responses are dispatched a second time once their body is written; they keep the permit
+        // taken on the first dispatch for as long as the cursor is open.
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("No Mongo permit available within {} for {}", acquireTimeout, request.getRequestURI());
+            throw new ServiceOverloadedException("Too many concurrent requests, please retry later");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception exception) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+}
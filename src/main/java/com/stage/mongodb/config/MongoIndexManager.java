@@ -0,0 +1,165 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.model.LeaderboardEntry;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class MongoIndexManager {
+
+    static final List<Class<?>> MANAGED_DOCUMENTS = List.of(Movie.class, Review.class, LeaderboardEntry.class);
+    private static final String ID_INDEX = "_id_";
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final boolean requiredForReadiness;
+    private final Duration retryDelay;
+
+    private volatile boolean indexesReady;
+    private volatile List<CollectionIndexReport> report = List.of();
+    private boolean refusingTraffic;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                             @Value("${mongodb.indexes.enabled:true}") boolean enabled,
+                             @Value("${mongodb.indexes.required-for-readiness:false}") boolean requiredForReadiness,
+                             @Value("${mongodb.indexes.retry-delay:PT30S}") Duration retryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.requiredForReadiness = requiredForReadiness;
+        this.retryDelay = retryDelay;
+    }
+
+    public boolean isIndexesReady() {
+        return indexesReady;
+    }
+
+    public List<CollectionIndexReport> getReport() {
+        return report;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (!enabled) {
+            log.info("Managed index creation is disabled");
+            indexesReady = true;
+            return;
+        }
+        taskExecutor.execute(this::ensureIndexesUntilReady);
+    }
+
+    @EventListener
+    public synchronized void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (requiredForReadiness && !indexesReady && event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+            log.warn("Required indexes are not in place yet, refusing traffic");
+            refusingTraffic = true;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    void ensureIndexesUntilReady() {
+        while (true) {
+            try {
+                ensureIndexes();
+            } catch (RuntimeException exception) {
+                log.error("Index verification failed, retrying in {}: {}", retryDelay, exception.getMessage());
+            }
+            if (indexesReady) {
+                return;
+            }
+            // Also reached when the indexes are still being built, the next check waits instead of spinning.
+            try {
+                Thread.sleep(retryDelay.toMillis());
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    public List<CollectionIndexReport> ensureIndexes() {
+        IndexResolver indexResolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        List<CollectionIndexReport> reports = new ArrayList<>();
+
+        for (Class<?> documentType : MANAGED_DOCUMENTS) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(documentType);
+            List<IndexDefinition> declared = new ArrayList<>();
+            indexResolver.resolveIndexFor(documentType).forEach(declared::add);
+
+            CollectionIndexReport before = compare(mongoTemplate.getCollectionName(documentType), declared,
+                    indexOperations.getIndexInfo());
+            declared.stream()
+                    .filter(definition -> before.missing().contains(indexName(definition)))
+                    .forEach(definition -> {
+                        log.info("Creating index {} on {}", indexName(definition), before.collection());
+                        indexOperations.ensureIndex(definition);
+                    });
+
+            CollectionIndexReport after = compare(before.collection(), declared, indexOperations.getIndexInfo());
+            if (!after.extra().isEmpty()) {
+                log.warn("Collection {} has undeclared indexes {}", after.collection(), after.extra());
+            }
+            log.info("Index report for {}: created {}, missing {}, extra {}", after.collection(),
+                    before.missing(), after.missing(), after.extra());
+            reports.add(after);
+        }
+
+        report = List.copyOf(reports);
+        if (reports.stream().allMatch(CollectionIndexReport::isComplete)) {
+            markReady();
+        }
+        return report;
+    }
+
+    private synchronized void markReady() {
+        indexesReady = true;
+        if (refusingTraffic) {
+            log.info("Required indexes are in place, accepting traffic");
+            refusingTraffic = false;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    static CollectionIndexReport compare(String collection, List<IndexDefinition> declared, List<IndexInfo> existing) {
+        Set<String> declaredNames = declared.stream().map(MongoIndexManager::indexName).collect(Collectors.toSet());
+        Set<String> existingNames = existing.stream().map(IndexInfo::getName).collect(Collectors.toSet());
+
+        List<String> missing = declaredNames.stream().filter(name -> !existingNames.contains(name)).sorted().toList();
+        List<String> extra = existingNames.stream()
+                .filter(name -> !ID_INDEX.equals(name) && !declaredNames.contains(name))
+                .sorted()
+                .toList();
+        return new CollectionIndexReport(collection, missing, extra);
+    }
+
+    static String indexName(IndexDefinition definition) {
+        return definition.getIndexOptions().getString("name");
+    }
+}
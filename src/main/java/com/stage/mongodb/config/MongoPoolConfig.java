@@ -0,0 +1,24 @@
+package com.stage.mongodb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${mongodb.pool.max-size:100}") int maxSize,
+            @Value("${mongodb.pool.min-size:0}") int minSize,
+            @Value("${mongodb.pool.max-wait-time:PT2M}") Duration maxWaitTime) {
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .minSize(minSize)
+                .maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,99 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.exceptions.ErrorDetails;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.ReviewNotFoundException;
+import com.stage.mongodb.exceptions.SearchTimeoutException;
+import com.stage.mongodb.handler.MovieHandler;
+import com.stage.mongodb.handler.ReviewHandler;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+
+@Slf4j
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutesConfig {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    @Bean
+    public RouterFunction<ServerResponse> routes(MovieHandler movieHandler, ReviewHandler reviewHandler) {
+        return RouterFunctions.route()
+                .add(endpoints(movieHandler, reviewHandler))
+                .onError(MovieNotFoundException.class, (exception, request) ->
+                        error(exception, request, HttpStatus.NOT_FOUND, exception.getMessage(), "MOVIE NOT FOUND"))
+                .onError(ReviewNotFoundException.class, (exception, request) ->
+                        error(exception, request, HttpStatus.NOT_FOUND, exception.getMessage(), "REVIEW NOT FOUND"))
+                .onError(ConstraintViolationException.class, (exception, request) ->
+                        error(exception, request, HttpStatus.BAD_REQUEST, "ONE OR MORE FIELDS DO NOT RESPECT VALIDATION",
+                                "BAD REQUEST, ARGUMENT NOT VALID"))
+                .onError(exception -> exception instanceof IllegalArgumentException
+                                || exception instanceof ServerWebInputException, (exception, request) ->
+                        error(exception, request, HttpStatus.BAD_REQUEST, "ONE OR MORE FIELDS ARE ILLEGAL ARGUMENTS",
+                                "BAD REQUEST, ARGUMENT NOT VALID"))
+                .onError(SearchTimeoutException.class, (exception, request) ->
+                        error(exception, request, HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage(), "SEARCH TIMEOUT"))
+                .onError(Exception.class, (exception, request) ->
+                        error(exception, request, HttpStatus.INTERNAL_SERVER_ERROR, exception.getMessage(),
+                                "INTERNAL SERVER ERROR"))
+                .build();
+    }
+
+    private static RouterFunction<ServerResponse> endpoints(MovieHandler movieHandler, ReviewHandler reviewHandler) {
+        return RouterFunctions.route()
+                .GET("/api/movie/all", movieHandler::getMovies)
+                .GET("/api/movie/page", movieHandler::getMoviesPage)
+                .GET("/api/movie/suggest", movieHandler::suggestMovies)
+                .GET("/api/movie/search/fuzzy", movieHandler::fuzzySearchMovies)
+                .GET("/api/movie/search", movieHandler::searchMovies)
+                .GET("/api/movie/export", movieHandler::exportMovies)
+                .GET("/api/movie/stats", queryParam("id", id -> true), movieHandler::getMovieStats)
+                .GET("/api/movie/leaderboard", movieHandler::getLeaderboard)
+                .GET("/api/movie", queryParam("id", id -> true), movieHandler::getMovieById)
+                .POST("/api/movie/stats/rebuild", movieHandler::rebuildStats)
+                .POST("/api/movie/bulk", contentType(MediaType.APPLICATION_JSON), movieHandler::insertBulk)
+                .POST("/api/movie", movieHandler::insert)
+                .PUT("/api/movie", queryParam("id", id -> true), movieHandler::update)
+                .PATCH("/api/movie", queryParam("id", id -> true), movieHandler::updateMoviePartial)
+                .DELETE("/api/movie", queryParam("id", id -> true), movieHandler::delete)
+                .GET("/api/review/all", reviewHandler::getReviews)
+                .GET("/api/review/page", reviewHandler::getReviewsPage)
+                .GET("/api/review/search", reviewHandler::searchReviews)
+                .GET("/api/review/export", reviewHandler::exportReviews)
+                .GET("/api/review", queryParam("id", id -> true), reviewHandler::getReviewById)
+                .POST("/api/review/bulk", contentType(MediaType.APPLICATION_JSON), reviewHandler::insertBulk)
+                .POST("/api/review", reviewHandler::insert)
+                .PUT("/api/review", queryParam("id", id -> true), reviewHandler::update)
+                .PATCH("/api/review", queryParam("id", id -> true), reviewHandler::updateReviewPartial)
+                .DELETE("/api/review", queryParam("id", id -> true), reviewHandler::delete)
+                // onError only sees errors signalled by the returned Mono, so exceptions thrown while a
+                // handler assembles its pipeline (missing or malformed parameters) are deferred into it.
+                .filter((request, next) -> Mono.defer(() -> next.handle(request)))
+                .build();
+    }
+
+    private static Mono<ServerResponse> error(Throwable exception, ServerRequest request, HttpStatus status,
+                                              String message, String type) {
+        log.error("Handled Exception: {} - {}", exception.getClass().getSimpleName(), exception.getMessage());
+        ErrorDetails errorDetails = new ErrorDetails(LocalDateTime.now().format(FORMATTER), message,
+                "uri=" + request.path(), type);
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).bodyValue(errorDetails);
+    }
+}
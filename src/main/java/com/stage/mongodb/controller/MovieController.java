@@ -1,10 +1,21 @@
 package com.stage.mongodb.controller;
 
+import com.stage.mongodb.config.HttpCaching;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.LeaderboardDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MovieMatchDto;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.ErrorDetails;
+import com.stage.mongodb.service.LeaderboardService;
 import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.MovieSuggestService;
+import com.stage.mongodb.service.RatingStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,20 +25,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/api/movie")
 public class MovieController {
 
     private final MovieService movieService;
+    private final RatingStatsService ratingStatsService;
+    private final LeaderboardService leaderboardService;
+    private final MovieSuggestService movieSuggestService;
+    private final HttpCaching httpCaching;
 
     @GetMapping("/all")
     @Operation(description = "Find all movies")
@@ -36,6 +57,7 @@ public class MovieController {
                     content = @Content(
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = MovieDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
             @ApiResponse(responseCode = "404", description = "Not found",
@@ -43,10 +65,106 @@ public class MovieController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
     })
-    public ResponseEntity<List<MovieDto>> getMovies() {
+    public ResponseEntity<List<MovieDto>> getMovies(WebRequest request) {
         log.info("Request for showing movies list");
-        List<MovieDto> moviesDto = movieService.getMovies();
-        return ResponseEntity.ok(moviesDto);
+        return httpCaching.respond(request, movieService.getMoviesVersion(), movieService::getMovies);
+    }
+
+    @GetMapping("/page")
+    @Operation(description = "Find a page of movies, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of movies correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<CursorPageDto<MovieDto>> getMoviesPage(@RequestParam(required = false) String after,
+                                                                 @RequestParam(defaultValue = "20") int limit,
+                                                                 WebRequest request) {
+        log.info("Request for showing movies page after cursor {} with limit {}", after, limit);
+        return httpCaching.respond(request, movieService.getMoviesVersion(),
+                () -> movieService.getMoviesPage(after, limit));
+    }
+
+    @GetMapping("/suggest")
+    @Operation(description = "Suggest movie titles starting with the given prefix, served from memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Title suggestions correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = MovieSuggestionDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<List<MovieSuggestionDto>> suggestMovies(@RequestParam String prefix,
+                                                                  @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Request for suggesting {} movie titles starting with {}", limit, prefix);
+        List<MovieSuggestionDto> suggestions = movieSuggestService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/search/fuzzy")
+    @Operation(description = "Search movie titles tolerating typos, most similar first, served from memory")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Similar movie titles correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = MovieMatchDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<List<MovieMatchDto>> fuzzySearchMovies(@RequestParam String q,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        log.info("Request for fuzzy searching {} movie titles similar to {}", limit, q);
+        List<MovieMatchDto> matches = movieSuggestService.fuzzySearch(q, limit);
+        return ResponseEntity.ok(matches);
+    }
+
+    @GetMapping("/search")
+    @Operation(description = "Search movies by title text, most relevant first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching movies correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = SearchPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "503", description = "Search timed out",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<SearchPageDto<MovieDto>> searchMovies(@RequestParam String q,
+                                                                @RequestParam(defaultValue = "0") int page,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        log.info("Request for searching movies matching {} on page {} with size {}", q, page, size);
+        SearchPageDto<MovieDto> searchPage = movieService.searchMovies(q, page, size);
+        return ResponseEntity.ok(searchPage);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "Export all movies as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of movies correctly exported",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = MovieDto.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportMovies() {
+        log.info("Request for exporting movies");
+        StreamingResponseBody body = movieService::exportMovies;
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping(params = "id")
@@ -56,6 +174,7 @@ public class MovieController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = MovieDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
             @ApiResponse(responseCode = "404", description = "Not found",
@@ -63,10 +182,60 @@ public class MovieController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
     })
-    public ResponseEntity<MovieDto> getMovieById(@RequestParam String id) {
+    public ResponseEntity<MovieDto> getMovieById(@RequestParam String id, WebRequest request) {
         log.info("Request for showing movie with id {} ", id);
-        MovieDto movieDto = movieService.getMovieById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(movieDto);
+        return httpCaching.respond(request, movieService.getMovieVersion(id), () -> movieService.getMovieById(id));
+    }
+
+    @GetMapping(value = "/stats", params = "id")
+    @Operation(description = "Find the rating statistics of the movie with the corresponding ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Rating statistics found",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = RatingStatsDto.class))),
+            @ApiResponse(responseCode = "404", description = "Not found",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<RatingStatsDto> getMovieStats(@RequestParam String id) {
+        log.info("Request for showing rating statistics of movie with id {} ", id);
+        RatingStatsDto ratingStatsDto = movieService.getMovieStats(id);
+        return ResponseEntity.status(HttpStatus.OK).body(ratingStatsDto);
+    }
+
+    @GetMapping("/leaderboard")
+    @Operation(description = "find the top rated movies and the movies most reviewed in the last 7 days")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Leaderboard correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = LeaderboardDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<LeaderboardDto> getLeaderboard(@RequestParam(defaultValue = "5") long minReviews,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        log.info("Request for showing the leaderboard");
+        LeaderboardDto leaderboardDto = leaderboardService.getLeaderboard(minReviews, limit);
+        return ResponseEntity.status(HttpStatus.OK).body(leaderboardDto);
+    }
+
+    @PostMapping("/stats/rebuild")
+    @Operation(description = "recompute the rating statistics of every movie from the review collection")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Rebuild started"),
+            @ApiResponse(responseCode = "409", description = "A rebuild is already running"),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<Void> rebuildStats() {
+        log.info("Request for rebuilding rating statistics");
+        boolean started = ratingStatsService.startRebuild();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
     }
 
     @PostMapping
@@ -99,6 +268,28 @@ public class MovieController {
         return ResponseEntity.status(HttpStatus.CREATED).body(movieDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "insert a JSON array of movies, reporting the outcome of every element",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = MovieDtoInput.class)))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Movies processed, see the result of each element",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<List<BulkItemResultDto>> insertBulk(InputStream inputStream) throws IOException {
+        log.info("Request for bulk inserting movies");
+        List<BulkItemResultDto> results = movieService.insertMovies(inputStream);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
     @PutMapping(params = "id")
     @Operation(description = "update an existing movie")
     @ApiResponses(
@@ -1,9 +1,13 @@
 package com.stage.mongodb.controller;
 
+import com.stage.mongodb.config.HttpCaching;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.ReviewDto;
 import com.stage.mongodb.dto.ReviewDtoInput;
 import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.ErrorDetails;
 import com.stage.mongodb.service.ReviewService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,20 +19,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Slf4j
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/api/review")
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final HttpCaching httpCaching;
 
 
     @GetMapping("/all")
@@ -38,6 +49,7 @@ public class ReviewController {
                     content = @Content(
                             mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = ReviewDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
             @ApiResponse(responseCode = "404", description = "Not found",
@@ -45,10 +57,68 @@ public class ReviewController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
     })
-    public ResponseEntity<List<ReviewDto>> getReviews() {
+    public ResponseEntity<List<ReviewDto>> getReviews(WebRequest request) {
         log.info("Request for showing review list");
-        List<ReviewDto> reviewsDto = reviewService.getReviews();
-        return ResponseEntity.status(HttpStatus.OK).body(reviewsDto);
+        return httpCaching.respond(request, reviewService.getReviewsVersion(), reviewService::getReviews);
+    }
+
+    @GetMapping("/page")
+    @Operation(description = "find a page of reviews with their movie, starting after the given cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of reviews correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<CursorPageDto<ReviewDto>> getReviewsPage(@RequestParam(required = false) String after,
+                                                                   @RequestParam(defaultValue = "20") int limit,
+                                                                   WebRequest request) {
+        log.info("Request for showing reviews page after cursor {} with limit {}", after, limit);
+        return httpCaching.respond(request, reviewService.getReviewsVersion(),
+                () -> reviewService.getReviewsPage(after, limit));
+    }
+
+    @GetMapping("/search")
+    @Operation(description = "Search reviews by comment text, most relevant first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of matching reviews correctly viewed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = SearchPageDto.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "503", description = "Search timed out",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<SearchPageDto<ReviewDto>> searchReviews(@RequestParam String q,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        log.info("Request for searching reviews matching {} on page {} with size {}", q, page, size);
+        SearchPageDto<ReviewDto> searchPage = reviewService.searchReviews(q, page, size);
+        return ResponseEntity.ok(searchPage);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(description = "export all reviews with their movie as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream of reviews correctly exported",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ReviewDto.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportReviews() {
+        log.info("Request for exporting reviews");
+        StreamingResponseBody body = reviewService::exportReviews;
+        return ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping(params = "id")
@@ -58,6 +128,7 @@ public class ReviewController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ReviewDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the given ETag or date"),
             @ApiResponse(responseCode = "400", description = "Bad request",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
             @ApiResponse(responseCode = "404", description = "Not found",
@@ -65,10 +136,9 @@ public class ReviewController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
     })
-    public ResponseEntity<ReviewDto> getReviewById(@RequestParam String id) {
+    public ResponseEntity<ReviewDto> getReviewById(@RequestParam String id, WebRequest request) {
         log.info("Request for showing review with id {} ", id);
-        ReviewDto reviewDto = reviewService.getReviewById(id);
-        return ResponseEntity.status(HttpStatus.OK).body(reviewDto);
+        return httpCaching.respond(request, reviewService.getReviewVersion(id), () -> reviewService.getReviewById(id));
     }
 
     @PostMapping
@@ -101,6 +171,28 @@ public class ReviewController {
         return ResponseEntity.status(HttpStatus.CREATED).body(reviewDto);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(description = "insert a JSON array of reviews, reporting the outcome of every element",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ReviewDtoInput.class)))))
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reviews processed, see the result of each element",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = BulkItemResultDto.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorDetails.class)))
+    })
+    public ResponseEntity<List<BulkItemResultDto>> insertBulk(InputStream inputStream) throws IOException {
+        log.info("Request for bulk inserting reviews");
+        List<BulkItemResultDto> results = reviewService.insertReviews(inputStream);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
     @PutMapping(params = "id")
     @Operation(description = "update an existing review")
     @ApiResponses(
@@ -0,0 +1,21 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Outcome of a single element of a bulk request")
+public class BulkItemResultDto {
+    @Schema(description = "Position of the element in the request array")
+    private int index;
+    @Schema(description = "ID of the created document, null when the element was rejected")
+    private String id;
+    @Schema(description = "Reason why the element was rejected, null when it was created")
+    private String error;
+}
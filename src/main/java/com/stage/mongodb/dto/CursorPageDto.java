@@ -0,0 +1,21 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Page of results sent in output, navigated with an opaque cursor")
+public class CursorPageDto<T> {
+    @Schema(description = "Items of the current page")
+    private List<T> items;
+    @Schema(description = "Cursor to pass as 'after' to fetch the next page, null when there are no more items")
+    private String nextCursor;
+}
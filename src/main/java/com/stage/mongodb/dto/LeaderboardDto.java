@@ -0,0 +1,23 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Movie leaderboards sent in output")
+public class LeaderboardDto {
+    @Schema(description = "Movies with the highest average rating among those with enough reviews")
+    private List<LeaderboardEntryDto> topRated;
+    @Schema(description = "Movies with the most reviews written in the last 7 days")
+    private List<LeaderboardEntryDto> mostReviewedThisWeek;
+    @Schema(description = "Time of the last leaderboard refresh, null before the first refresh")
+    private String refreshedAt;
+}
@@ -0,0 +1,25 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Movie of the leaderboard sent in output")
+public class LeaderboardEntryDto {
+    @Schema(description = "Movie id")
+    private String id;
+    @Schema(description = "Movie title")
+    private String title;
+    @Schema(description = "Number of reviews of the movie")
+    private long reviewCount;
+    @Schema(description = "Average rating of the movie, null when the movie has no reviews")
+    private Double averageRating;
+    @Schema(description = "Number of reviews written in the last 7 days")
+    private long weeklyReviewCount;
+}
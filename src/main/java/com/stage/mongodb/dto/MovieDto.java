@@ -22,4 +22,6 @@ public class MovieDto {
     private String insertDate;
     @Schema(description = "Movie dto update date automatically generated")
     private String updateDate;
+    @Schema(description = "Movie dto rating statistics maintained from its reviews")
+    private RatingStatsDto stats;
 }
@@ -0,0 +1,21 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Movie title similar to the searched text sent in output")
+public class MovieMatchDto {
+    @Schema(description = "Movie id")
+    private String id;
+    @Schema(description = "Movie title")
+    private String title;
+    @Schema(description = "Trigram similarity between the title and the searched text, from 0 to 1")
+    private double similarity;
+}
@@ -0,0 +1,19 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Movie title suggestion sent in output")
+public class MovieSuggestionDto {
+    @Schema(description = "Movie id")
+    private String id;
+    @Schema(description = "Movie title")
+    private String title;
+}
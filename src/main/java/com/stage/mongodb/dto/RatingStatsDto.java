@@ -0,0 +1,23 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Map;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Rating statistics of a movie sent in output")
+public class RatingStatsDto {
+    @Schema(description = "Number of reviews of the movie")
+    private long reviewCount;
+    @Schema(description = "Average rating of the movie, null when the movie has no reviews")
+    private Double averageRating;
+    @Schema(description = "Number of reviews for each rating from 1 to 5")
+    private Map<Integer, Long> histogram;
+}
@@ -1,6 +1,8 @@
 package com.stage.mongodb.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -14,7 +16,10 @@ import lombok.Setter;
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ReviewPatchDto {
 
-    private int rating;
+    // null leaves the rating unchanged
+    @Min(value = 1, message = "The rating must be at least 1")
+    @Max(value = 5, message = "The rating must be at most 5")
+    private Integer rating;
 
     @Size(min = 1, max = 100, message = "The comment cannot be too short or too long")
     private String comment;
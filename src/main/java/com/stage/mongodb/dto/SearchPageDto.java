@@ -0,0 +1,25 @@
+package com.stage.mongodb.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@EqualsAndHashCode
+@Builder
+@Getter
+@Setter
+@Schema(description = "Page of search results sent in output, ordered by relevance")
+public class SearchPageDto<T> {
+    @Schema(description = "Items of the current page, most relevant first")
+    private List<T> items;
+    @Schema(description = "Index of the current page, starting from 0")
+    private int page;
+    @Schema(description = "Maximum number of items of a page")
+    private int size;
+    @Schema(description = "Whether another page can be requested within the result cap")
+    private boolean hasNext;
+}
@@ -1,7 +1,9 @@
 package com.stage.mongodb.exceptions;
 
+import com.stage.mongodb.utils.HttpObservations;
 import io.swagger.v3.oas.annotations.Hidden;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -15,6 +17,7 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 @Hidden
 @ControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class GlobalExceptionHandler {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
@@ -31,6 +34,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorDetails> handleMovieNotFoundException(MovieNotFoundException exception,
                                                                      WebRequest webRequest) {
         log.error("Handled Exception: MovieNotFoundException - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
         ErrorDetails errorDetails = buildErrorDetails(exception.getMessage(), webRequest.getDescription(false),
                 "MOVIE NOT FOUND");
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
@@ -40,6 +44,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorDetails> handleReviewNotFoundException(ReviewNotFoundException exception,
                                                                       WebRequest webRequest) {
         log.error("Handled Exception: ReviewNotFoundException - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
         ErrorDetails errorDetails = buildErrorDetails(exception.getMessage(), webRequest.getDescription(false),
                 "REVIEW NOT FOUND");
         return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
@@ -49,6 +54,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorDetails> handleMethodArgumentNotValidException(MethodArgumentNotValidException exception,
                                                                               WebRequest webRequest) {
         log.error("Handled Exception: MethodArgumentNotValidException - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
         ErrorDetails errorDetails = buildErrorDetails("ONE OR MORE FIELDS DO NOT RESPECT VALIDATION",
                 webRequest.getDescription(false), "BAD REQUEST, ARGUMENT NOT VALID");
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
@@ -58,14 +64,36 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorDetails> handleIllegalArgumentException(IllegalArgumentException exception,
                                                                        WebRequest webRequest) {
         log.error("Handled Exception: IllegalArgumentException  - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
         ErrorDetails errorDetails = buildErrorDetails("ONE OR MORE FIELDS ARE ILLEGAL ARGUMENTS",
                 webRequest.getDescription(false), "BAD REQUEST, ARGUMENT NOT VALID");
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(SearchTimeoutException.class)
+    public ResponseEntity<ErrorDetails> handleSearchTimeoutException(SearchTimeoutException exception,
+                                                                     WebRequest webRequest) {
+        log.error("Handled Exception: SearchTimeoutException - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
+        ErrorDetails errorDetails = buildErrorDetails(exception.getMessage(), webRequest.getDescription(false),
+                "SEARCH TIMEOUT");
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorDetails> handleServiceOverloadedException(ServiceOverloadedException exception,
+                                                                         WebRequest webRequest) {
+        log.error("Handled Exception: ServiceOverloadedException - {}", exception.getMessage());
+        HttpObservations.recordError(exception);
+        ErrorDetails errorDetails = buildErrorDetails(exception.getMessage(), webRequest.getDescription(false),
+                "SERVICE OVERLOADED");
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleGenericException(Exception exception, WebRequest webRequest) {
         log.error("Handling generic exception: {} - {}", exception.getClass().getSimpleName(), exception.getMessage());
+        HttpObservations.recordError(exception);
         ErrorDetails errorDetails = buildErrorDetails(exception.getMessage(), webRequest.getDescription(false),
                 "INTERNAL SERVER ERROR");
         return new ResponseEntity<>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
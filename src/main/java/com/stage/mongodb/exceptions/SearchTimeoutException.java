@@ -0,0 +1,13 @@
+package com.stage.mongodb.exceptions;
+
+import java.io.Serial;
+
+public class SearchTimeoutException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = -6214807935612205763L;
+
+    public SearchTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package com.stage.mongodb.exceptions;
+
+import java.io.Serial;
+
+public class ServiceOverloadedException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 4108523671938806214L;
+
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
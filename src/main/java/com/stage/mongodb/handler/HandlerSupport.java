@@ -0,0 +1,68 @@
+package com.stage.mongodb.handler;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+final class HandlerSupport {
+
+    // Buffers requested ahead of the reader of a streamed body.
+    private static final int BODY_DEMAND = 16;
+
+    private HandlerSupport() {
+    }
+
+    static String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name).orElseThrow(() ->
+                new IllegalArgumentException("Required request parameter '" + name + "' is not present"));
+    }
+
+    static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    static long longParam(ServerRequest request, String name, long defaultValue) {
+        return request.queryParam(name).map(Long::parseLong).orElse(defaultValue);
+    }
+
+    static <T> Mono<T> validBody(ServerRequest request, Class<T> type, Validator validator) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("The request body is required")))
+                .doOnNext(body -> {
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (!violations.isEmpty()) {
+                        throw new ConstraintViolationException(violations);
+                    }
+                });
+    }
+
+    static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // The body is handed to the blocking reader as it arrives instead of being joined first, so a bulk import
+    // holds a few buffers at a time whatever its size.
+    static <T> Mono<T> blockingBody(ServerRequest request, BodyReader<T> reader) {
+        return blocking(() -> {
+            try (InputStream body = DataBufferUtils.subscriberInputStream(request.bodyToFlux(DataBuffer.class),
+                    BODY_DEMAND)) {
+                return reader.read(body);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    interface BodyReader<T> {
+        T read(InputStream body) throws IOException;
+    }
+}
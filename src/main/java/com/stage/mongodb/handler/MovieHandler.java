@@ -0,0 +1,141 @@
+package com.stage.mongodb.handler;
+
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.service.LeaderboardService;
+import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.MovieSuggestService;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.service.ReactiveMovieService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.stage.mongodb.handler.HandlerSupport.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MovieHandler {
+
+    private final ReactiveMovieService reactiveMovieService;
+    private final MovieService movieService;
+    private final MovieSuggestService movieSuggestService;
+    private final RatingStatsService ratingStatsService;
+    private final LeaderboardService leaderboardService;
+    private final Validator validator;
+
+    public Mono<ServerResponse> getMovies(ServerRequest request) {
+        log.info("Request for showing movies list");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(reactiveMovieService.getMovies(), MovieDto.class);
+    }
+
+    public Mono<ServerResponse> getMoviesPage(ServerRequest request) {
+        String after = request.queryParam("after").orElse(null);
+        int limit = intParam(request, "limit", 20);
+        log.info("Request for showing movies page after cursor {} with limit {}", after, limit);
+        return reactiveMovieService.getMoviesPage(after, limit)
+                .flatMap(moviesPage -> ServerResponse.ok().bodyValue(moviesPage));
+    }
+
+    public Mono<ServerResponse> suggestMovies(ServerRequest request) {
+        String prefix = requiredParam(request, "prefix");
+        int limit = intParam(request, "limit", 10);
+        log.debug("Request for suggesting {} movie titles starting with {}", limit, prefix);
+        return ServerResponse.ok().bodyValue(movieSuggestService.suggest(prefix, limit));
+    }
+
+    public Mono<ServerResponse> fuzzySearchMovies(ServerRequest request) {
+        String q = requiredParam(request, "q");
+        int limit = intParam(request, "limit", 10);
+        log.info("Request for fuzzy searching {} movie titles similar to {}", limit, q);
+        return ServerResponse.ok().bodyValue(movieSuggestService.fuzzySearch(q, limit));
+    }
+
+    public Mono<ServerResponse> searchMovies(ServerRequest request) {
+        String q = requiredParam(request, "q");
+        int page = intParam(request, "page", 0);
+        int size = intParam(request, "size", 20);
+        log.info("Request for searching movies matching {} on page {} with size {}", q, page, size);
+        return blocking(() -> movieService.searchMovies(q, page, size))
+                .flatMap(searchPage -> ServerResponse.ok().bodyValue(searchPage));
+    }
+
+    public Mono<ServerResponse> exportMovies(ServerRequest request) {
+        log.info("Request for exporting movies");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveMovieService.getMovies(), MovieDto.class);
+    }
+
+    public Mono<ServerResponse> getMovieById(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for showing movie with id {} ", id);
+        return reactiveMovieService.getMovieById(id)
+                .flatMap(movieDto -> ServerResponse.ok().bodyValue(movieDto));
+    }
+
+    public Mono<ServerResponse> getMovieStats(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for showing rating statistics of movie with id {} ", id);
+        return blocking(() -> movieService.getMovieStats(id))
+                .flatMap(ratingStatsDto -> ServerResponse.ok().bodyValue(ratingStatsDto));
+    }
+
+    public Mono<ServerResponse> getLeaderboard(ServerRequest request) {
+        long minReviews = longParam(request, "minReviews", 5);
+        int limit = intParam(request, "limit", 50);
+        log.info("Request for showing the leaderboard");
+        return blocking(() -> leaderboardService.getLeaderboard(minReviews, limit))
+                .flatMap(leaderboardDto -> ServerResponse.ok().bodyValue(leaderboardDto));
+    }
+
+    public Mono<ServerResponse> rebuildStats(ServerRequest request) {
+        log.info("Request for rebuilding rating statistics");
+        boolean started = ratingStatsService.startRebuild();
+        return ServerResponse.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT).build();
+    }
+
+    public Mono<ServerResponse> insert(ServerRequest request) {
+        return validBody(request, MovieDtoInput.class, validator)
+                .flatMap(reactiveMovieService::insertMovie)
+                .flatMap(movieDto -> ServerResponse.status(HttpStatus.CREATED).bodyValue(movieDto));
+    }
+
+    public Mono<ServerResponse> insertBulk(ServerRequest request) {
+        log.info("Request for bulk inserting movies");
+        return blockingBody(request, movieService::insertMovies)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> update(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for updating movie with id {}", id);
+        return validBody(request, MovieDtoInput.class, validator)
+                .flatMap(movieDtoInput -> reactiveMovieService.updateMovie(movieDtoInput, id))
+                .flatMap(movieDto -> ServerResponse.ok().bodyValue(movieDto));
+    }
+
+    public Mono<ServerResponse> updateMoviePartial(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for partial update of movie with id {}", id);
+        return validBody(request, MoviePatchDto.class, validator)
+                .flatMap(moviePatchDto -> reactiveMovieService.updateMoviePartial(id, moviePatchDto))
+                .flatMap(movieDto -> ServerResponse.ok().bodyValue(movieDto));
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for deleting movie with id {}", id);
+        return reactiveMovieService.deleteMovie(id).then(ServerResponse.ok().build());
+    }
+}
@@ -0,0 +1,102 @@
+package com.stage.mongodb.handler;
+
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.dto.ReviewDtoUpdate;
+import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.service.ReactiveReviewService;
+import com.stage.mongodb.service.ReviewService;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.stage.mongodb.handler.HandlerSupport.*;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReviewHandler {
+
+    private final ReactiveReviewService reactiveReviewService;
+    private final ReviewService reviewService;
+    private final Validator validator;
+
+    public Mono<ServerResponse> getReviews(ServerRequest request) {
+        log.info("Request for showing review list");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(reactiveReviewService.getReviews(), ReviewDto.class);
+    }
+
+    public Mono<ServerResponse> getReviewsPage(ServerRequest request) {
+        String after = request.queryParam("after").orElse(null);
+        int limit = intParam(request, "limit", 20);
+        log.info("Request for showing reviews page after cursor {} with limit {}", after, limit);
+        return reactiveReviewService.getReviewsPage(after, limit)
+                .flatMap(reviewsPage -> ServerResponse.ok().bodyValue(reviewsPage));
+    }
+
+    public Mono<ServerResponse> searchReviews(ServerRequest request) {
+        String q = requiredParam(request, "q");
+        int page = intParam(request, "page", 0);
+        int size = intParam(request, "size", 20);
+        log.info("Request for searching reviews matching {} on page {} with size {}", q, page, size);
+        return blocking(() -> reviewService.searchReviews(q, page, size))
+                .flatMap(searchPage -> ServerResponse.ok().bodyValue(searchPage));
+    }
+
+    public Mono<ServerResponse> exportReviews(ServerRequest request) {
+        log.info("Request for exporting reviews");
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON)
+                .body(reactiveReviewService.getReviews(), ReviewDto.class);
+    }
+
+    public Mono<ServerResponse> getReviewById(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for showing review with id {} ", id);
+        return reactiveReviewService.getReviewById(id)
+                .flatMap(reviewDto -> ServerResponse.ok().bodyValue(reviewDto));
+    }
+
+    public Mono<ServerResponse> insert(ServerRequest request) {
+        log.info("Request for inserting review");
+        return validBody(request, ReviewDtoInput.class, validator)
+                .flatMap(reactiveReviewService::insertReview)
+                .flatMap(reviewDto -> ServerResponse.status(HttpStatus.CREATED).bodyValue(reviewDto));
+    }
+
+    public Mono<ServerResponse> insertBulk(ServerRequest request) {
+        log.info("Request for bulk inserting reviews");
+        return blockingBody(request, reviewService::insertReviews)
+                .flatMap(results -> ServerResponse.ok().bodyValue(results));
+    }
+
+    public Mono<ServerResponse> update(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for updating review with id {}", id);
+        return validBody(request, ReviewDtoUpdate.class, validator)
+                .flatMap(reviewDtoUpdate -> reactiveReviewService.updateReview(reviewDtoUpdate, id))
+                .flatMap(reviewDto -> ServerResponse.ok().bodyValue(reviewDto));
+    }
+
+    public Mono<ServerResponse> updateReviewPartial(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for partial update of review with id {}", id);
+        return validBody(request, ReviewPatchDto.class, validator)
+                .flatMap(reviewPatchDto -> reactiveReviewService.updateReviewPartial(id, reviewPatchDto))
+                .flatMap(reviewDto -> ServerResponse.ok().bodyValue(reviewDto));
+    }
+
+    public Mono<ServerResponse> delete(ServerRequest request) {
+        String id = requiredParam(request, "id");
+        log.info("Request for deleting review with id {}", id);
+        return reactiveReviewService.deleteReview(id).then(ServerResponse.ok().build());
+    }
+}
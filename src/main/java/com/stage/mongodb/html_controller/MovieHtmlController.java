@@ -3,11 +3,12 @@ package com.stage.mongodb.html_controller;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
-import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.utils.HttpObservations;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -17,12 +18,12 @@ import java.util.List;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/view/movie")
 public class MovieHtmlController {
 
     private final MovieService movieService;
-    private final MovieRepository movieRepository;
 
     @GetMapping("/home")
     public String homeMovies() {
@@ -41,7 +42,7 @@ public class MovieHtmlController {
     @GetMapping("/reset")
     public String resetMovies() {
         log.info("Request for deleting movie list");
-        movieRepository.deleteAll();
+        movieService.deleteMovies();
         return "movie_html/movie_list";
     }
 
@@ -54,6 +55,7 @@ public class MovieHtmlController {
             model.addAttribute("movie", movieDto);
             return "movie_html/movie_details";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Movie not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find movie. Please try again.");
             return "movie_html/id_not_found";
@@ -85,6 +87,7 @@ public class MovieHtmlController {
             movieService.insertMovie(movieDtoInput);
             return "redirect:/view/movie/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error adding movie: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not add movie. Please try again.");
             return "movie_html/add_movie";
@@ -99,6 +102,7 @@ public class MovieHtmlController {
             model.addAttribute("movieDtoInput", movieDto);
             return "movie_html/edit_movie";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Movie not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find movie. Please try again.");
             return "movie_html/id_not_found";
@@ -121,6 +125,7 @@ public class MovieHtmlController {
             movieService.updateMovie(movieDtoInput, id);
             return "redirect:/view/movie/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error updating movie: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not update movie. Please try again.");
             model.addAttribute("id", id);
@@ -135,6 +140,7 @@ public class MovieHtmlController {
             model.addAttribute("moviePatchDto", movieDto);
             return "movie_html/patch_movie";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Movie not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find movie. Please try again.");
             return "movie_html/id_not_found";
@@ -155,6 +161,7 @@ public class MovieHtmlController {
             movieService.updateMoviePartial(id, moviePatchDto);
             return "redirect:/view/movie/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             model.addAttribute("errorMessage", "Could not update movie. Please try again.");
             return "movie_html/patch_movie";
         }
@@ -168,6 +175,7 @@ public class MovieHtmlController {
             movieService.deleteMovie(id);
             return "redirect:/view/movie/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error deleting movie: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not delete movie. Please try again.");
             return "movie_html/id_not_found";
@@ -4,12 +4,13 @@ import com.stage.mongodb.dto.ReviewDto;
 import com.stage.mongodb.dto.ReviewDtoInput;
 import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
-import com.stage.mongodb.repository.MovieRepository;
-import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
 import com.stage.mongodb.service.ReviewService;
+import com.stage.mongodb.utils.HttpObservations;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -20,13 +21,12 @@ import java.util.List;
 
 @Slf4j
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @RequestMapping("/view/review")
 public class ReviewHtmlController {
 
     private final ReviewService reviewService;
-    private final MovieRepository movieRepository;
-    private final ReviewRepository reviewRepository;
 
     @GetMapping("/home")
     public String homeReviews() {
@@ -45,7 +45,7 @@ public class ReviewHtmlController {
     @GetMapping("/reset")
     public String resetReviews() {
         log.info("Request for deleting review list");
-        reviewRepository.deleteAll();
+        reviewService.deleteReviews();
         return "review_html/review_list";
     }
 
@@ -58,6 +58,7 @@ public class ReviewHtmlController {
             model.addAttribute("review", reviewDto);
             return "review_html/review_details";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Review not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find review. Please try again.");
             return "review_html/id_not_found";
@@ -86,16 +87,16 @@ public class ReviewHtmlController {
         }
 
         try {
-
-            if (!movieRepository.existsById(reviewDtoInput.getMovieId())) {
-                model.addAttribute("errorMessage", "Movie ID not found");
-                return "review_html/add_review";
-            }
-
             reviewService.insertReview(reviewDtoInput);
             redirectAttributes.addFlashAttribute("successMessage", "Review added successfully!");
             return "redirect:/view/review/list";
+        } catch (MovieNotFoundException e) {
+            HttpObservations.recordError(e);
+            log.error("Error adding review, movie not found: {}", e.getMessage());
+            model.addAttribute("errorMessage", "Movie ID not found");
+            return "review_html/add_review";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error adding review: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not add review. Please try again.");
             return "review_html/add_review";
@@ -114,6 +115,7 @@ public class ReviewHtmlController {
             model.addAttribute("id", id);
             return "review_html/edit_review";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Review not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find review. Please try again.");
             return "review_html/id_not_found";
@@ -136,6 +138,7 @@ public class ReviewHtmlController {
             reviewService.updateReview(reviewDtoUpdate, id);
             return "redirect:/view/review/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error updating review: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not update review. Please try again.");
             model.addAttribute("id", id);
@@ -155,6 +158,7 @@ public class ReviewHtmlController {
             model.addAttribute("id", id);
             return "review_html/patch_review";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Review not found for id: {}", id);
             model.addAttribute("errorMessage", "Could not find review. Please try again.");
             return "review_html/id_not_found";
@@ -176,7 +180,13 @@ public class ReviewHtmlController {
         try {
             if ("rating".equals(fieldToUpdate)) {
                 if (updateValue != null && !updateValue.isEmpty()) {
-                    reviewPatchDto.setRating(Integer.parseInt(updateValue));
+                    int rating = Integer.parseInt(updateValue);
+                    // Set after the binding was validated, so the range is checked here.
+                    if (rating < 1 || rating > 5) {
+                        model.addAttribute("errorMessage", "Invalid rating value. Please enter a number from 1 to 5.");
+                        return "review_html/patch_review";
+                    }
+                    reviewPatchDto.setRating(rating);
                 } else {
                     // Gestisci il caso in cui il rating è nullo o vuoto
                     // Puoi impostare un valore predefinito o lasciare il rating invariato
@@ -190,9 +200,11 @@ public class ReviewHtmlController {
             reviewService.updateReviewPartial(id, reviewPatchDto);
             return "redirect:/view/review/list?success";
         } catch (NumberFormatException e) {
+            HttpObservations.recordError(e);
             model.addAttribute("errorMessage", "Invalid rating value. Please enter a number.");
             return "review_html/patch_review";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             model.addAttribute("errorMessage", "Could not update review. Please try again.");
             return "review_html/patch_review";
         }
@@ -206,6 +218,7 @@ public class ReviewHtmlController {
             reviewService.deleteReview(id);
             return "redirect:/view/review/list?success";
         } catch (Exception e) {
+            HttpObservations.recordError(e);
             log.error("Error deleting review: {}", e.getMessage());
             model.addAttribute("errorMessage", "Could not delete review. Please try again.");
             return "review_html/id_not_found";
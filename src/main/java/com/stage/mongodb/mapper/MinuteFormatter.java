@@ -0,0 +1,34 @@
+package com.stage.mongodb.mapper;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+final class MinuteFormatter {
+
+    private static final int SLOTS = 4096;
+
+    private final DateTimeFormatter formatter;
+    private final Minute[] minutes = new Minute[SLOTS];
+
+    MinuteFormatter(String pattern, ZoneId zone) {
+        this.formatter = DateTimeFormatter.ofPattern(pattern).withZone(zone);
+    }
+
+    // Writes cluster in bursts, so most timestamps fall in a minute formatted just before. Entries are
+    // immutable: racing threads at worst format the same minute twice.
+    String format(Instant instant) {
+        long epochMinute = Math.floorDiv(instant.getEpochSecond(), 60);
+        int slot = (int) (epochMinute & (SLOTS - 1));
+        Minute cached = minutes[slot];
+        if (cached != null && cached.epochMinute() == epochMinute) {
+            return cached.text();
+        }
+        String text = formatter.format(instant);
+        minutes[slot] = new Minute(epochMinute, text);
+        return text;
+    }
+
+    private record Minute(long epochMinute, String text) {
+    }
+}
@@ -1,18 +1,27 @@
 package com.stage.mongodb.mapper;
 
+import com.stage.mongodb.dto.LeaderboardEntryDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.model.LeaderboardEntry;
 import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-import java.util.Optional;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Component
 public class MovieMapper {
 
+    private static final MinuteFormatter DATE_FORMATTER = new MinuteFormatter("yyyy-MM-dd HH:mm", ZoneId.systemDefault());
+    private static final String[] RATING_KEYS = {"1", "2", "3", "4", "5"};
+
     public MovieDto toMovieDto(Movie movie) {
 
         return MovieDto.builder()
@@ -21,6 +30,35 @@ public class MovieMapper {
                 .releaseDate(movie.getReleaseDate())
                 .insertDate(formatData(movie.getInsertDate()))
                 .updateDate(formatData(movie.getUpdateDate()))
+                .stats(toRatingStatsDto(movie.getStats()))
+                .build();
+    }
+
+    public RatingStatsDto toRatingStatsDto(RatingStats stats) {
+
+        long reviewCount = stats == null ? 0 : stats.getReviewCount();
+        Map<String, Long> counts = stats == null || stats.getHistogram() == null ? Map.of() : stats.getHistogram();
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>(8);
+        for (int rating = 1; rating <= RATING_KEYS.length; rating++) {
+            histogram.put(rating, counts.getOrDefault(RATING_KEYS[rating - 1], 0L));
+        }
+
+        return RatingStatsDto.builder()
+                .reviewCount(reviewCount)
+                .averageRating(reviewCount == 0 ? null : (double) stats.getRatingSum() / reviewCount)
+                .histogram(histogram)
+                .build();
+    }
+
+    public LeaderboardEntryDto toLeaderboardEntryDto(LeaderboardEntry entry) {
+
+        return LeaderboardEntryDto.builder()
+                .id(entry.getId())
+                .title(entry.getTitle())
+                .reviewCount(entry.getReviewCount())
+                .averageRating(entry.getAverageRating())
+                .weeklyReviewCount(entry.getWeeklyReviewCount())
                 .build();
     }
 
@@ -40,16 +78,39 @@ public class MovieMapper {
 
     public void updateMovieFromPatchDto(MoviePatchDto patchDto, Movie movie) {
 
-        Optional.ofNullable(patchDto.getTitle())
-                .ifPresent(movie::setTitle);
+        if (patchDto.getTitle() != null) {
+            movie.setTitle(patchDto.getTitle());
+        }
+
+        if (patchDto.getReleaseDate() != null) {
+            movie.setReleaseDate(patchDto.getReleaseDate());
+        }
+    }
+
+    public Update toUpdateFromDtoInput(MovieDtoInput movieDtoInput) {
+
+        return new Update()
+                .set("title", movieDtoInput.getTitle())
+                .set("releaseDate", movieDtoInput.getReleaseDate());
+    }
+
+    public Update toUpdateFromPatchDto(MoviePatchDto patchDto) {
+
+        Update update = new Update();
+
+        if (patchDto.getTitle() != null) {
+            update.set("title", patchDto.getTitle());
+        }
+
+        if (patchDto.getReleaseDate() != null) {
+            update.set("releaseDate", patchDto.getReleaseDate());
+        }
 
-        Optional.ofNullable(patchDto.getReleaseDate())
-                .ifPresent(movie::setReleaseDate);
+        return update;
     }
 
     public String formatData(Instant data) {
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return data.atZone(java.time.ZoneId.systemDefault()).format(formatter);
+        return DATE_FORMATTER.format(data);
     }
 }
@@ -3,15 +3,16 @@ package com.stage.mongodb.mapper;
 import com.stage.mongodb.dto.*;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 
 @RequiredArgsConstructor
@@ -22,9 +23,15 @@ public class ReviewMapper {
 
     public ReviewDto toReviewDto(Review review, Movie movie) {
 
-        MovieMapper movieMapper = new MovieMapper();
+        return toReviewDto(review, movieMapper.toMovieDto(movie));
+    }
+
+    public ReviewDto toReviewDto(Review review) {
 
-        MovieDto movieDto = movieMapper.toMovieDto(movie);
+        return toReviewDto(review, (MovieDto) null);
+    }
+
+    private ReviewDto toReviewDto(Review review, MovieDto movieDto) {
 
         return ReviewDto.builder()
                 .id(review.getId())
@@ -36,14 +43,17 @@ public class ReviewMapper {
                 .build();
     }
 
-    public ReviewDto toReviewDto(Review review) {
+    public ReviewDto toReviewDto(ReviewWithMovie reviewWithMovie) {
+
+        Movie movie = reviewWithMovie.getMovie();
 
         return ReviewDto.builder()
-                .id(review.getId())
-                .rating(review.getRating())
-                .comment(review.getComment())
-                .insertDate(formatData(review.getInsertDate()))
-                .updateDate(formatData(review.getUpdateDate()))
+                .id(reviewWithMovie.getId())
+                .rating(reviewWithMovie.getRating())
+                .comment(reviewWithMovie.getComment())
+                .insertDate(formatData(reviewWithMovie.getInsertDate()))
+                .movieDto(movie == null ? null : movieMapper.toMovieDto(movie))
+                .updateDate(formatData(reviewWithMovie.getUpdateDate()))
                 .build();
     }
 
@@ -71,32 +81,52 @@ public class ReviewMapper {
 
     public void updateReviewFromPatchDto(ReviewPatchDto patchDto, Review review) {
 
-        Optional.of(patchDto.getRating())
-                .ifPresent(review::setRating);
-        Optional.ofNullable(patchDto.getComment())
-                .ifPresent(review::setComment);
+        if (patchDto.getRating() != null) {
+            review.setRating(patchDto.getRating());
+        }
+        if (patchDto.getComment() != null) {
+            review.setComment(patchDto.getComment());
+        }
     }
 
-    public String formatData(Instant data) {
+    public Update toUpdateFromDtoUpdate(ReviewDtoUpdate reviewDtoUpdate) {
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        return data.atZone(java.time.ZoneId.systemDefault()).format(formatter);
+        return new Update()
+                .set("rating", reviewDtoUpdate.getRating())
+                .set("comment", reviewDtoUpdate.getComment());
     }
 
-    public List<ReviewDto> listOfReviewsDto(List<Review> reviews, List<Movie> movies) {
+    public Update toUpdateFromPatchDto(ReviewPatchDto patchDto) {
+
+        Update update = new Update();
+
+        if (patchDto.getRating() != null) {
+            update.set("rating", patchDto.getRating());
+        }
+        if (patchDto.getComment() != null) {
+            update.set("comment", patchDto.getComment());
+        }
 
-        MovieMapper movieMapper = new MovieMapper();
+        return update;
+    }
 
-        Map<String, MovieDto> movieDtoMap = movies.stream()
-                .collect(Collectors.toMap(Movie::getId, movieMapper::toMovieDto));
+    public String formatData(Instant data) {
 
-        return reviews.stream().map(review -> {
-            ReviewDto reviewDto = toReviewDto(review);
+        return movieMapper.formatData(data);
+    }
+
+    public List<ReviewDto> listOfReviewsDto(List<Review> reviews, List<Movie> movies) {
 
-            reviewDto.setMovieDto(movieDtoMap.get(review.getMovieId()));
+        Map<String, MovieDto> movieDtoMap = new HashMap<>(movies.size() * 4 / 3 + 1);
+        for (Movie movie : movies) {
+            movieDtoMap.put(movie.getId(), movieMapper.toMovieDto(movie));
+        }
 
-            return reviewDto;
-        }).collect(Collectors.toList());
+        List<ReviewDto> reviewDtos = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            reviewDtos.add(toReviewDto(review, movieDtoMap.get(review.getMovieId())));
+        }
+        return reviewDtos;
     }
 
 }
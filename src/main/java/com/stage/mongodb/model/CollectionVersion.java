@@ -0,0 +1,27 @@
+package com.stage.mongodb.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "CollectionVersion")
+@Builder
+@Getter
+@Setter
+public class CollectionVersion {
+
+    public static final String MOVIES = "Movie";
+    public static final String REVIEWS = "Review";
+
+    @Id
+    private String id;
+    // Bumped after every write to the collection, deletes included.
+    private long version;
+    private Instant updateDate;
+
+
+}
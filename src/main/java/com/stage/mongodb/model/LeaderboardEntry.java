@@ -0,0 +1,31 @@
+package com.stage.mongodb.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "Leaderboard")
+@CompoundIndex(name = "averageRating_reviewCount", def = "{ 'averageRating': -1, 'reviewCount': -1 }")
+@Builder
+@Getter
+@Setter
+public class LeaderboardEntry {
+
+    @Id
+    private String id;
+    private String title;
+    private long reviewCount;
+    private Double averageRating;
+    @Indexed(name = "weeklyReviewCount")
+    private long weeklyReviewCount;
+    private Instant weeklyRefreshedAt;
+    private Instant refreshedAt;
+
+
+}
@@ -0,0 +1,24 @@
+package com.stage.mongodb.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "LeaderboardState")
+@Builder
+@Getter
+@Setter
+public class LeaderboardState {
+
+    @Id
+    private String id;
+    private Instant lastRefresh;
+    private String lockedBy;
+    private Instant lockedUntil;
+
+
+}
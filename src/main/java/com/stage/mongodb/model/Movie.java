@@ -4,7 +4,10 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.Instant;
 
@@ -16,10 +19,16 @@ public class Movie {
 
     @Id
     private String id;
+    @Indexed(name = "title_ci", collation = "{ 'locale': 'en', 'strength': 2 }")
+    @TextIndexed
     private String title;
     private String releaseDate;
     public Instant insertDate;
+    @Indexed(name = "updateDate")
     public Instant updateDate;
+    private RatingStats stats;
+    @TextScore
+    private Float score;
 
 
 }
@@ -0,0 +1,28 @@
+package com.stage.mongodb.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.mongodb.core.index.Indexed;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Builder
+@Getter
+@Setter
+public class RatingStats {
+
+    private long reviewCount;
+    private long ratingSum;
+    private Map<String, Long> histogram;
+    // Bumped by every write, the rebuild only replaces statistics it has read the version of.
+    private long version;
+    @Indexed(name = "updateDate")
+    private Instant updateDate;
+    // Review writes in flight, the rebuild leaves the statistics alone until they are done or their lease runs out.
+    private long pendingWrites;
+    private Instant pendingUntil;
+
+
+}
@@ -4,11 +4,16 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.TextIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TextScore;
 
 import java.time.Instant;
 
 @Document(collection = "Review")
+@CompoundIndex(name = "movieId_insertDate", def = "{ 'movieId': 1, 'insertDate': 1 }")
 @Builder
 @Getter
 @Setter
@@ -18,9 +23,14 @@ public class Review {
     private String id;
     private String movieId;
     private int rating;
+    @TextIndexed
     private String comment;
+    @Indexed(name = "insertDate")
     public Instant insertDate;
+    @Indexed(name = "updateDate")
     public Instant updateDate;
+    @TextScore
+    private Float score;
 
 
 }
@@ -0,0 +1,23 @@
+package com.stage.mongodb.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+public class ReviewWithMovie {
+
+    @Id
+    private String id;
+    private String movieId;
+    private int rating;
+    private String comment;
+    private Instant insertDate;
+    private Instant updateDate;
+    private Movie movie;
+
+
+}
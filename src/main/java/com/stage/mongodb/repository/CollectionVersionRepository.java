@@ -0,0 +1,10 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.CollectionVersion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CollectionVersionRepository extends MongoRepository<CollectionVersion, String>,
+        CollectionVersionRepositoryCustom {
+}
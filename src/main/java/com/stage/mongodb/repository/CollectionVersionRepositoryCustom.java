@@ -0,0 +1,6 @@
+package com.stage.mongodb.repository;
+
+public interface CollectionVersionRepositoryCustom {
+
+    void increment(String... ids);
+}
@@ -0,0 +1,29 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.CollectionVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+public class CollectionVersionRepositoryCustomImpl implements CollectionVersionRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String... ids) {
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionVersion.class);
+        for (String id : ids) {
+            bulkOperations.upsert(Query.query(Criteria.where("id").is(id)), incrementUpdate());
+        }
+        bulkOperations.execute();
+    }
+
+    // The date is taken from the server clock, so it only moves forward whichever instance made the write.
+    static Update incrementUpdate() {
+        return new Update().inc("version", 1L).currentDate("updateDate");
+    }
+}
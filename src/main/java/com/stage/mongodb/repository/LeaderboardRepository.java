@@ -0,0 +1,18 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.LeaderboardEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaderboardRepository extends MongoRepository<LeaderboardEntry, String>, LeaderboardRepositoryCustom {
+
+    List<LeaderboardEntry> findByReviewCountGreaterThanEqualOrderByAverageRatingDescReviewCountDesc(long minReviews,
+                                                                                                     Limit limit);
+
+    List<LeaderboardEntry> findByWeeklyReviewCountGreaterThanOrderByWeeklyReviewCountDesc(long weeklyReviewCount,
+                                                                                           Limit limit);
+}
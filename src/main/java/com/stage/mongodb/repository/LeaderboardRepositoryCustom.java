@@ -0,0 +1,18 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.LeaderboardState;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+public interface LeaderboardRepositoryCustom {
+
+    Optional<LeaderboardState> lockRefresh(String owner, Instant now, Duration lease);
+
+    void unlockRefresh(String owner, Instant refreshedAt);
+
+    void mergeMoviesChangedSince(Instant since, Instant refreshedAt);
+
+    void mergeWeeklyReviewCounts(Instant weekStart, Instant refreshedAt);
+}
@@ -0,0 +1,118 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.LeaderboardEntry;
+import com.stage.mongodb.model.LeaderboardState;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+@RequiredArgsConstructor
+public class LeaderboardRepositoryCustomImpl implements LeaderboardRepositoryCustom {
+
+    static final String STATE_ID = "leaderboard";
+
+    private final MongoTemplate mongoTemplate;
+
+    // A single state document holds the refresh watermark and a lease, so only one instance refreshes at a time.
+    // While the lease is held the upsert collides with the existing document and the lock is not granted.
+    @Override
+    public Optional<LeaderboardState> lockRefresh(String owner, Instant now, Duration lease) {
+        Query query = Query.query(Criteria.where("id").is(STATE_ID).orOperator(
+                Criteria.where("lockedUntil").exists(false),
+                Criteria.where("lockedUntil").lt(now)));
+        Update update = Update.update("lockedBy", owner).set("lockedUntil", now.plus(lease));
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), LeaderboardState.class));
+        } catch (DuplicateKeyException exception) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void unlockRefresh(String owner, Instant refreshedAt) {
+        Update update = new Update().unset("lockedBy").unset("lockedUntil");
+        if (refreshedAt != null) {
+            update.set("lastRefresh", refreshedAt);
+        }
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(STATE_ID).and("lockedBy").is(owner)), update,
+                LeaderboardState.class);
+    }
+
+    @Override
+    public void mergeMoviesChangedSince(Instant since, Instant refreshedAt) {
+        Document reviewCount = new Document("$ifNull", List.of("$stats.reviewCount", 0L));
+        Document averageRating = new Document("$cond", Arrays.asList(
+                new Document("$gt", List.of(reviewCount, 0L)),
+                new Document("$divide", List.of("$stats.ratingSum", "$stats.reviewCount")),
+                null));
+
+        AggregationOperation projectEntry = context -> new Document("$project", new Document("title", 1)
+                .append("reviewCount", reviewCount)
+                .append("averageRating", averageRating)
+                .append("refreshedAt", Date.from(refreshedAt)));
+
+        Aggregation aggregation = newAggregation(
+                match(new Criteria().orOperator(
+                        Criteria.where("stats.updateDate").gte(Date.from(since)),
+                        Criteria.where("updateDate").gte(Date.from(since)))),
+                projectEntry,
+                mergeIntoLeaderboard(MergeOperation.WhenDocumentsDontMatch.insertNewDocument()));
+
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Movie.class), Document.class);
+    }
+
+    @Override
+    public void mergeWeeklyReviewCounts(Instant weekStart, Instant refreshedAt) {
+        // Review.movieId is a plain string while the leaderboard _id mirrors Movie._id, usually an ObjectId.
+        Document movieId = new Document("$convert", new Document("input", "$_id")
+                .append("to", "objectId")
+                .append("onError", "$_id")
+                .append("onNull", null));
+
+        AggregationOperation projectCount = context -> new Document("$project", new Document("_id", movieId)
+                .append("weeklyReviewCount", "$count")
+                .append("weeklyRefreshedAt", Date.from(refreshedAt)));
+
+        Aggregation aggregation = newAggregation(
+                match(Criteria.where("insertDate").gte(Date.from(weekStart))),
+                group("movieId").count().as("count"),
+                projectCount,
+                mergeIntoLeaderboard(MergeOperation.WhenDocumentsDontMatch.discardDocument()));
+
+        mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Review.class), Document.class);
+
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("weeklyReviewCount").gt(0).and("weeklyRefreshedAt").lt(refreshedAt)),
+                Update.update("weeklyReviewCount", 0L).set("weeklyRefreshedAt", refreshedAt),
+                LeaderboardEntry.class);
+    }
+
+    private MergeOperation mergeIntoLeaderboard(MergeOperation.WhenDocumentsDontMatch whenDocumentsDontMatch) {
+        return merge()
+                .intoCollection(mongoTemplate.getCollectionName(LeaderboardEntry.class))
+                .on("_id")
+                .whenMatched(MergeOperation.WhenDocumentsMatch.mergeDocuments())
+                .whenDocumentsDontMatch(whenDocumentsDontMatch)
+                .build();
+    }
+}
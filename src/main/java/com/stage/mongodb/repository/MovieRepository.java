@@ -1,10 +1,47 @@
 package com.stage.mongodb.repository;
 
 import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.utils.TextSearch;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface MovieRepository extends MongoRepository<Movie, String> {
+public interface MovieRepository extends MongoRepository<Movie, String>, MovieRepositoryCustom {
+
+    List<Movie> findAllByOrderByIdAsc(Limit limit);
+
+    List<Movie> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    @Meta(cursorBatchSize = 1000)
+    Stream<Movie> streamAllBy();
+
+    @Query(value = "{ '_id': { $in: ?0 } }", fields = "{ '_id': 1 }")
+    List<Movie> findIdsByIdIn(Collection<String> ids);
+
+    @Query(value = "{}", fields = "{ '_id': 1 }")
+    @Meta(cursorBatchSize = 1000)
+    Stream<Movie> streamIdsBy();
+
+    @Query(value = "{}", fields = "{ 'title': 1 }")
+    @Meta(cursorBatchSize = 1000)
+    Stream<Movie> streamTitlesBy();
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'stats': 1 }")
+    Optional<Movie> findStatsById(String id);
+
+    long removeById(String id);
 
+    @Meta(maxExecutionTimeMs = TextSearch.TIMEOUT_MS)
+    Slice<Movie> findAllBy(TextCriteria criteria, Pageable pageable);
 }
@@ -0,0 +1,32 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface MovieRepositoryCustom {
+
+    Map<Integer, String> insertUnordered(List<Movie> movies);
+
+    Optional<Movie> findAndModifyById(String id, Update update);
+
+    boolean startRatingStatsWrite(String id);
+
+    void startRatingStatsWrites(Collection<String> ids);
+
+    Optional<Movie> finishRatingStatsWrite(String id, Map<Integer, Integer> ratingDelta);
+
+    void finishRatingStatsWrites(Map<String, Map<Integer, Integer>> ratingDeltaByMovie);
+
+    Map<String, Long> findRatingStatsVersions(Collection<String> ids);
+
+    Set<String> replaceRatingStats(Map<String, RatingStats> statsByMovie);
+
+    void resetRatingStats();
+}
@@ -0,0 +1,175 @@
+package com.stage.mongodb.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    static final String STATS_FIELD = "stats";
+    static final String VERSION_FIELD = STATS_FIELD + ".version";
+    static final String PENDING_WRITES_FIELD = STATS_FIELD + ".pendingWrites";
+    static final String PENDING_UNTIL_FIELD = STATS_FIELD + ".pendingUntil";
+    // A write that never finishes, its process died in between, holds the rebuild off for this long at most.
+    static final Duration PENDING_WRITE_LEASE = Duration.ofMinutes(1);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Movie> movies) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class).insert(movies).execute();
+            return Map.of();
+        } catch (BulkOperationException exception) {
+            return exception.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+
+    @Override
+    public Optional<Movie> findAndModifyById(String id, Update update) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Movie.class));
+    }
+
+    // Marks a review write of the movie as in flight before the review is written, returns false for an unknown movie.
+    @Override
+    public boolean startRatingStatsWrite(String id) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)), startRatingStatsUpdate(), Movie.class)
+                .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void startRatingStatsWrites(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(ids)), startRatingStatsUpdate(), Movie.class);
+    }
+
+    // Applies the rating change of a review write once the review is written and ends the write.
+    @Override
+    public Optional<Movie> finishRatingStatsWrite(String id, Map<Integer, Integer> ratingDelta) {
+        return findAndModifyById(id, finishRatingStatsUpdate(ratingDelta));
+    }
+
+    @Override
+    public void finishRatingStatsWrites(Map<String, Map<Integer, Integer>> ratingDeltaByMovie) {
+        if (ratingDeltaByMovie.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class);
+        ratingDeltaByMovie.forEach((id, ratingDelta) ->
+                bulkOperations.updateOne(Query.query(Criteria.where("id").is(id)), finishRatingStatsUpdate(ratingDelta)));
+        bulkOperations.execute();
+    }
+
+    @Override
+    public Map<String, Long> findRatingStatsVersions(Collection<String> ids) {
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include(VERSION_FIELD);
+
+        Map<String, Long> versions = new HashMap<>();
+        mongoTemplate.find(query, Movie.class).forEach(movie ->
+                versions.put(movie.getId(), movie.getStats() == null ? 0L : movie.getStats().getVersion()));
+        return versions;
+    }
+
+    // Each statistics document carries the version following the one it was computed from, a movie whose statistics
+    // were written in the meantime, or whose review writes are still in flight, is left untouched and returned to be
+    // computed again. The count of a write in flight may or may not hold its review, only its end gives a safe count.
+    @Override
+    public Set<String> replaceRatingStats(Map<String, RatingStats> statsByMovie) {
+        if (statsByMovie.isEmpty()) {
+            return Set.of();
+        }
+
+        Instant now = Instant.now();
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Movie.class);
+        statsByMovie.forEach((id, stats) -> {
+            long expectedVersion = stats.getVersion() - 1;
+            Criteria version = Criteria.where("id").is(id).and(VERSION_FIELD);
+            Criteria unchanged = (expectedVersion == 0 ? version.in(0L, null) : version.is(expectedVersion))
+                    .orOperator(Criteria.where(PENDING_WRITES_FIELD).not().gt(0L),
+                            Criteria.where(PENDING_UNTIL_FIELD).lt(now));
+            Update update = new Update()
+                    .set(STATS_FIELD + ".reviewCount", stats.getReviewCount())
+                    .set(STATS_FIELD + ".ratingSum", stats.getRatingSum())
+                    .set(STATS_FIELD + ".histogram", stats.getHistogram())
+                    .set(STATS_FIELD + ".updateDate", stats.getUpdateDate())
+                    .set(VERSION_FIELD, stats.getVersion());
+            bulkOperations.updateOne(Query.query(unchanged), update);
+        });
+        if (bulkOperations.execute().getMatchedCount() == statsByMovie.size()) {
+            return Set.of();
+        }
+
+        // All statistics of a batch share their updateDate, the movies without it were not replaced.
+        Instant updateDate = statsByMovie.values().iterator().next().getUpdateDate();
+        Query stale = Query.query(Criteria.where("id").in(statsByMovie.keySet())
+                .and(STATS_FIELD + ".updateDate").ne(updateDate));
+        stale.fields().include("id");
+        return mongoTemplate.find(stale, Movie.class).stream().map(Movie::getId).collect(Collectors.toSet());
+    }
+
+    @Override
+    public void resetRatingStats() {
+        Update update = new Update()
+                .set(STATS_FIELD + ".reviewCount", 0L)
+                .set(STATS_FIELD + ".ratingSum", 0L)
+                .set(STATS_FIELD + ".histogram", Map.of())
+                .set(STATS_FIELD + ".updateDate", Instant.now())
+                .inc(VERSION_FIELD, 1L);
+        mongoTemplate.updateMulti(new Query(), update, Movie.class);
+    }
+
+    static Update startRatingStatsUpdate() {
+        return new Update().inc(PENDING_WRITES_FIELD, 1L)
+                .max(PENDING_UNTIL_FIELD, Instant.now().plus(PENDING_WRITE_LEASE));
+    }
+
+    static Update finishRatingStatsUpdate(Map<Integer, Integer> ratingDelta) {
+        return ratingStatsUpdate(ratingDelta).inc(PENDING_WRITES_FIELD, -1L);
+    }
+
+    private static Update ratingStatsUpdate(Map<Integer, Integer> ratingDelta) {
+        Update update = new Update();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        for (Map.Entry<Integer, Integer> entry : ratingDelta.entrySet()) {
+            if (entry.getValue() != 0) {
+                update.inc(STATS_FIELD + ".histogram." + entry.getKey(), (long) entry.getValue());
+                reviewCount += entry.getValue();
+                ratingSum += (long) entry.getKey() * entry.getValue();
+            }
+        }
+        if (reviewCount != 0) {
+            update.inc(STATS_FIELD + ".reviewCount", reviewCount);
+        }
+        if (ratingSum != 0) {
+            update.inc(STATS_FIELD + ".ratingSum", ratingSum);
+        }
+        return update.inc(VERSION_FIELD, 1L).set(STATS_FIELD + ".updateDate", Instant.now());
+    }
+}
@@ -0,0 +1,10 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.CollectionVersion;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveCollectionVersionRepository extends ReactiveMongoRepository<CollectionVersion, String>,
+        ReactiveCollectionVersionRepositoryCustom {
+}
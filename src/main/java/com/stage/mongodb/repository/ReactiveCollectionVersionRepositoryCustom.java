@@ -0,0 +1,8 @@
+package com.stage.mongodb.repository;
+
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCollectionVersionRepositoryCustom {
+
+    Mono<Void> increment(String... ids);
+}
@@ -0,0 +1,27 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.CollectionVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveCollectionVersionRepositoryCustomImpl implements ReactiveCollectionVersionRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Void> increment(String... ids) {
+        ReactiveBulkOperations bulkOperations =
+                reactiveMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CollectionVersion.class);
+        for (String id : ids) {
+            bulkOperations.upsert(Query.query(Criteria.where("id").is(id)),
+                    CollectionVersionRepositoryCustomImpl.incrementUpdate());
+        }
+        return bulkOperations.execute().then();
+    }
+}
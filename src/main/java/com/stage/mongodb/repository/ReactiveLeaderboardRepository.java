@@ -0,0 +1,9 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.LeaderboardEntry;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReactiveLeaderboardRepository extends ReactiveMongoRepository<LeaderboardEntry, String> {
+}
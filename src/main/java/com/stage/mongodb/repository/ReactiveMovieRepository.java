@@ -0,0 +1,22 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Movie;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveMovieRepository extends ReactiveMongoRepository<Movie, String>, ReactiveMovieRepositoryCustom {
+
+    Flux<Movie> findAllByOrderByIdAsc(Limit limit);
+
+    Flux<Movie> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    Flux<Movie> findByIdIn(Collection<String> ids);
+
+    Mono<Long> removeById(String id);
+}
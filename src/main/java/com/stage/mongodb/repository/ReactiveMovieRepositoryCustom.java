@@ -0,0 +1,16 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Movie;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+public interface ReactiveMovieRepositoryCustom {
+
+    Mono<Movie> findAndModifyById(String id, Update update);
+
+    Mono<Boolean> startRatingStatsWrite(String id);
+
+    Mono<Movie> finishRatingStatsWrite(String id, Map<Integer, Integer> ratingDelta);
+}
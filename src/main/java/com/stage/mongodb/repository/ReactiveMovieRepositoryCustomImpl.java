@@ -0,0 +1,36 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Movie;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class ReactiveMovieRepositoryCustomImpl implements ReactiveMovieRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Mono<Movie> findAndModifyById(String id, Update update) {
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), Movie.class);
+    }
+
+    @Override
+    public Mono<Boolean> startRatingStatsWrite(String id) {
+        return reactiveMongoTemplate.updateFirst(Query.query(Criteria.where("id").is(id)),
+                        MovieRepositoryCustomImpl.startRatingStatsUpdate(), Movie.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+
+    @Override
+    public Mono<Movie> finishRatingStatsWrite(String id, Map<Integer, Integer> ratingDelta) {
+        return findAndModifyById(id, MovieRepositoryCustomImpl.finishRatingStatsUpdate(ratingDelta));
+    }
+}
@@ -0,0 +1,16 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Review;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveReviewRepository extends ReactiveMongoRepository<Review, String>, ReactiveReviewRepositoryCustom {
+
+    Mono<Void> deleteByMovieId(String movieId);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'movieId': 1 }")
+    Mono<Review> findMovieIdById(String id);
+}
@@ -0,0 +1,16 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReviewRepositoryCustom {
+
+    Flux<ReviewWithMovie> findPageWithMovie(String afterId, int limit);
+
+    Mono<Review> findAndModifyById(String id, Update update, boolean returnNew);
+
+    Mono<Review> findAndRemoveById(String id);
+}
@@ -0,0 +1,36 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class ReactiveReviewRepositoryCustomImpl implements ReactiveReviewRepositoryCustom {
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Override
+    public Flux<ReviewWithMovie> findPageWithMovie(String afterId, int limit) {
+        return reactiveMongoTemplate.aggregate(ReviewRepositoryCustomImpl.pageWithMovieAggregation(afterId, limit,
+                reactiveMongoTemplate.getCollectionName(Movie.class)), ReviewWithMovie.class);
+    }
+
+    @Override
+    public Mono<Review> findAndModifyById(String id, Update update, boolean returnNew) {
+        return reactiveMongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(returnNew), Review.class);
+    }
+
+    @Override
+    public Mono<Review> findAndRemoveById(String id) {
+        return reactiveMongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Review.class);
+    }
+}
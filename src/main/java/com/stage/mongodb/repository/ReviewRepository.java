@@ -1,11 +1,29 @@
 package com.stage.mongodb.repository;
 
 import com.stage.mongodb.model.Review;
+import com.stage.mongodb.utils.TextSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface ReviewRepository extends MongoRepository<Review, String> {
+public interface ReviewRepository extends MongoRepository<Review, String>, ReviewRepositoryCustom {
 
     void deleteByMovieId(String movieId);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'movieId': 1 }")
+    Optional<Review> findMovieIdById(String id);
+
+    @Meta(cursorBatchSize = 1000)
+    Stream<Review> streamAllBy();
+
+    @Meta(maxExecutionTimeMs = TextSearch.TIMEOUT_MS)
+    Slice<Review> findAllBy(TextCriteria criteria, Pageable pageable);
 }
@@ -0,0 +1,23 @@
+package com.stage.mongodb.repository;
+
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface ReviewRepositoryCustom {
+
+    List<ReviewWithMovie> findPageWithMovie(String afterId, int limit);
+
+    Map<Integer, String> insertUnordered(List<Review> reviews);
+
+    Optional<Review> findAndModifyById(String id, Update update, boolean returnNew);
+
+    Optional<Review> findAndRemoveById(String id);
+
+    Map<String, Map<Integer, Long>> countRatingsByMovie(Collection<String> movieIds);
+}
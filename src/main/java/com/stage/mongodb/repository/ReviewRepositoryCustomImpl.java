@@ -0,0 +1,113 @@
+package com.stage.mongodb.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+
+@RequiredArgsConstructor
+public class ReviewRepositoryCustomImpl implements ReviewRepositoryCustom {
+
+    static final String MOVIE_FIELD = "movie";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<ReviewWithMovie> findPageWithMovie(String afterId, int limit) {
+        TypedAggregation<Review> aggregation = pageWithMovieAggregation(afterId, limit,
+                mongoTemplate.getCollectionName(Movie.class));
+
+        return mongoTemplate.aggregate(aggregation, ReviewWithMovie.class).getMappedResults();
+    }
+
+    static TypedAggregation<Review> pageWithMovieAggregation(String afterId, int limit, String movieCollection) {
+        Criteria criteria = afterId == null ? new Criteria() : Criteria.where("id").gt(afterId);
+
+        return newAggregation(Review.class,
+                match(criteria),
+                sort(Sort.Direction.ASC, "id"),
+                limit(limit),
+                lookupMovie(movieCollection),
+                unwind(MOVIE_FIELD, true));
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Review> reviews) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Review.class).insert(reviews).execute();
+            return Map.of();
+        } catch (BulkOperationException exception) {
+            return exception.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage));
+        }
+    }
+
+    @Override
+    public Optional<Review> findAndModifyById(String id, Update update, boolean returnNew) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(returnNew), Review.class));
+    }
+
+    @Override
+    public Optional<Review> findAndRemoveById(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Review.class));
+    }
+
+    @Override
+    public Map<String, Map<Integer, Long>> countRatingsByMovie(Collection<String> movieIds) {
+        TypedAggregation<Review> aggregation = newAggregation(Review.class,
+                match(Criteria.where("movieId").in(movieIds)),
+                group("movieId", "rating").count().as("count"));
+
+        Map<String, Map<Integer, Long>> ratingsByMovie = new HashMap<>();
+        for (Document result : mongoTemplate.aggregate(aggregation, Document.class)) {
+            Document key = result.get("_id", Document.class);
+            ratingsByMovie.computeIfAbsent(key.getString("movieId"), movieId -> new HashMap<>())
+                    .put(key.getInteger("rating"), ((Number) result.get("count")).longValue());
+        }
+        return ratingsByMovie;
+    }
+
+    private static AggregationOperation lookupMovie(String movieCollection) {
+        // Review.movieId is persisted as a plain string while Movie._id is usually an ObjectId,
+        // so the join key is converted inside the sub-pipeline (falling back to the raw string).
+        Document movieId = new Document("$convert", new Document("input", "$$movieId")
+                .append("to", "objectId")
+                .append("onError", "$$movieId")
+                .append("onNull", null));
+
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("$expr", new Document("$eq", List.of("$_id", movieId)))),
+                new Document("$project", new Document("title", 1)
+                        .append("releaseDate", 1)
+                        .append("insertDate", 1)
+                        .append("updateDate", 1)
+                        .append("stats", 1)));
+
+        return context -> new Document("$lookup", new Document("from", movieCollection)
+                .append("let", new Document("movieId", "$movieId"))
+                .append("pipeline", pipeline)
+                .append("as", MOVIE_FIELD));
+    }
+}
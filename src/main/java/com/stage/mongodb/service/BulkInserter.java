@@ -0,0 +1,110 @@
+package com.stage.mongodb.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.utils.JsonArrayReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streams a JSON array, validates and maps every element, and hands the valid ones to the writer in chunks.
+// The writer returns the error of every element it did not store, keyed by its position in the chunk.
+@Slf4j
+@Builder
+class BulkInserter<I, T> {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Class<I> inputType;
+    private final String elementName;
+    private final Function<I, T> mapper;
+    private final Function<T, String> idOf;
+    private final Function<List<T>, Map<Integer, String>> writer;
+    private final int chunkSize;
+
+    List<BulkItemResultDto> insert(InputStream inputStream) throws IOException {
+        List<BulkItemResultDto> results = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+        int inserted = 0;
+
+        try (JsonArrayReader reader = new JsonArrayReader(objectMapper, inputStream)) {
+            while (reader.hasNext()) {
+                int index = results.size();
+                JsonNode node = reader.nextNode();
+                String error;
+                try {
+                    error = validate(objectMapper.treeToValue(node, inputType), chunk);
+                } catch (JsonProcessingException | IllegalArgumentException exception) {
+                    error = "The element is not a valid " + elementName;
+                }
+
+                if (error != null) {
+                    results.add(BulkItemResultDto.builder().index(index).error(error).build());
+                    continue;
+                }
+                results.add(null);
+                chunkIndexes.add(index);
+                if (chunk.size() == chunkSize) {
+                    inserted += write(chunk, chunkIndexes, results);
+                }
+            }
+        } catch (JsonParseException exception) {
+            log.error("Bulk {} insert stopped on malformed JSON after {} inserted elements: {}",
+                    elementName, inserted, exception.getOriginalMessage());
+            throw new IllegalArgumentException("The request body is not a well-formed JSON array, "
+                    + inserted + " elements before element " + results.size() + " were already inserted", exception);
+        }
+
+        write(chunk, chunkIndexes, results);
+        log.info("Bulk insert of {} {}s completed", results.size(), elementName);
+        return results;
+    }
+
+    private String validate(I input, List<T> chunk) {
+        if (input == null) {
+            return "The element cannot be null";
+        }
+
+        Set<ConstraintViolation<I>> violations = validator.validate(input);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        chunk.add(mapper.apply(input));
+        return null;
+    }
+
+    private int write(List<T> chunk, List<Integer> chunkIndexes, List<BulkItemResultDto> results) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, String> failures = writer.apply(chunk);
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunkIndexes.get(i);
+            String failure = failures.get(i);
+            results.set(index, failure == null
+                    ? BulkItemResultDto.builder().index(index).id(idOf.apply(chunk.get(i))).build()
+                    : BulkItemResultDto.builder().index(index).error(failure).build());
+        }
+        int written = chunk.size() - failures.size();
+        chunk.clear();
+        chunkIndexes.clear();
+        return written;
+    }
+}
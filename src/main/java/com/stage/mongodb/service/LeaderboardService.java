@@ -0,0 +1,95 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.LeaderboardDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.LeaderboardState;
+import com.stage.mongodb.repository.LeaderboardRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    static final int MAX_LEADERBOARD_SIZE = 100;
+    static final Duration WEEK = Duration.ofDays(7);
+    // Writes that were in flight when the previous refresh started are picked up by the next one.
+    static final Duration WATERMARK_OVERLAP = Duration.ofMinutes(1);
+    // Longer than any refresh, an instance that dies while refreshing only blocks the others until it expires.
+    static final Duration REFRESH_LEASE = Duration.ofMinutes(10);
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final MovieMapper movieMapper;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile Instant lastRefresh;
+
+    public LeaderboardDto getLeaderboard(long minReviews, int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        if (minReviews < 1) {
+            throw new IllegalArgumentException("The minimum number of reviews must be at least 1");
+        }
+
+        Instant refreshedAt = lastRefresh;
+        LeaderboardDto leaderboardDto = LeaderboardDto.builder()
+                .topRated(leaderboardRepository
+                        .findByReviewCountGreaterThanEqualOrderByAverageRatingDescReviewCountDesc(minReviews, Limit.of(limit))
+                        .stream().map(movieMapper::toLeaderboardEntryDto).toList())
+                .mostReviewedThisWeek(leaderboardRepository
+                        .findByWeeklyReviewCountGreaterThanOrderByWeeklyReviewCountDesc(0, Limit.of(limit))
+                        .stream().map(movieMapper::toLeaderboardEntryDto).toList())
+                .refreshedAt(refreshedAt == null ? null : movieMapper.formatData(refreshedAt))
+                .build();
+
+        log.info("Leaderboard correctly viewed");
+        return leaderboardDto;
+    }
+
+    @Scheduled(fixedDelayString = "${movie.leaderboard.refresh-delay:PT1M}",
+            initialDelayString = "${movie.leaderboard.initial-delay:PT10S}")
+    public void refresh() {
+        try {
+            refresh(Instant.now());
+        } catch (RuntimeException exception) {
+            log.error("Leaderboard refresh failed: {}", exception.getMessage());
+        }
+    }
+
+    synchronized void refresh(Instant now) {
+        Optional<LeaderboardState> state = leaderboardRepository.lockRefresh(instanceId, now, REFRESH_LEASE);
+        if (state.isEmpty()) {
+            log.info("Leaderboard refresh skipped, another instance is running it");
+            return;
+        }
+
+        Instant previousRefresh = state.get().getLastRefresh();
+        if (previousRefresh != null) {
+            lastRefresh = previousRefresh;
+        }
+        Instant since = previousRefresh == null ? Instant.EPOCH : previousRefresh.minus(WATERMARK_OVERLAP);
+
+        Instant refreshedAt = null;
+        try {
+            leaderboardRepository.mergeMoviesChangedSince(since, now);
+            leaderboardRepository.mergeWeeklyReviewCounts(now.minus(WEEK), now);
+            refreshedAt = now;
+        } finally {
+            leaderboardRepository.unlockRefresh(instanceId, refreshedAt);
+        }
+
+        lastRefresh = now;
+        log.info("Leaderboard refreshed with the movies changed since {} in {} ms", since,
+                Duration.between(now, Instant.now()).toMillis());
+    }
+}
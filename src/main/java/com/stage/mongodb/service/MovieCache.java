@@ -0,0 +1,72 @@
+package com.stage.mongodb.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.MovieRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+// Cached movies are shared between requests: callers must treat them as read-only.
+@Component
+public class MovieCache {
+
+    static final String CACHE_NAME = "movies";
+
+    private final MovieRepository movieRepository;
+    private final Cache<String, Movie> cache;
+
+    public MovieCache(MovieRepository movieRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${movie.cache.maximum-size:10000}") long maximumSize,
+                      @Value("${movie.cache.expire-after-write:PT1M}") Duration expireAfterWrite) {
+        this.movieRepository = movieRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<Movie> findById(String id) {
+        return Optional.ofNullable(cache.get(id, key -> movieRepository.findById(key).orElse(null)));
+    }
+
+    public List<Movie> findAllById(Collection<String> ids) {
+        return new ArrayList<>(cache.getAll(ids, this::loadAll).values());
+    }
+
+    private Map<String, Movie> loadAll(Set<? extends String> ids) {
+        Map<String, Movie> movies = new HashMap<>();
+        movieRepository.findAllById(Set.copyOf(ids)).forEach(movie -> movies.put(movie.getId(), movie));
+        return movies;
+    }
+
+    public void put(Movie movie) {
+        cache.put(movie.getId(), movie);
+    }
+
+    public void evict(String id) {
+        cache.invalidate(id);
+    }
+
+    public void evictAll(Collection<String> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
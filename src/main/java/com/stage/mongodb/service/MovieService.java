@@ -1,29 +1,68 @@
 package com.stage.mongodb.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
 import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.CollectionVersion;
 import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.LeaderboardRepository;
 import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import com.stage.mongodb.utils.NdjsonWriter;
+import com.stage.mongodb.utils.ResourceVersion;
+import com.stage.mongodb.utils.TextSearch;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MovieService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final MovieRepository movieRepository;
     private final ReviewRepository reviewRepository;
+    private final LeaderboardRepository leaderboardRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final MovieCache movieCache;
+    private final ReviewDtoCache reviewDtoCache;
+    private final MovieSuggestService movieSuggestService;
     private final MovieMapper movieMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${movie.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
     public List<MovieDto> getMovies() {
 
@@ -36,14 +75,76 @@ public class MovieService {
         return movies.stream().map(movieMapper::toMovieDto).collect(Collectors.toList());
     }
 
+    public CursorPageDto<MovieDto> getMoviesPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<Movie> movies = (after == null || after.isBlank())
+                ? movieRepository.findAllByOrderByIdAsc(fetchLimit)
+                : movieRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(after), fetchLimit);
+
+        boolean hasNext = movies.size() > limit;
+        List<Movie> page = hasNext ? movies.subList(0, limit) : movies;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+        log.info("Movie page of {} elements correctly viewed", page.size());
+        return CursorPageDto.<MovieDto>builder()
+                .items(page.stream().map(movieMapper::toMovieDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public SearchPageDto<MovieDto> searchMovies(String query, int page, int size) {
+        TextCriteria criteria = TextSearch.criteria(query);
+        Pageable pageable = TextSearch.pageable(page, size);
+
+        Slice<Movie> movies = TextSearch.withTimeout(() -> movieRepository.findAllBy(criteria, pageable));
+
+        log.info("Movie search page {} of {} elements correctly viewed", page, movies.getNumberOfElements());
+        return SearchPageDto.<MovieDto>builder()
+                .items(movies.stream().map(movieMapper::toMovieDto).collect(Collectors.toList()))
+                .page(page)
+                .size(size)
+                .hasNext(TextSearch.hasNext(movies))
+                .build();
+    }
+
+    public void exportMovies(OutputStream outputStream) throws IOException {
+        long exported = 0;
+        try (Stream<Movie> movies = movieRepository.streamAllBy();
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+            Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                writer.write(movieMapper.toMovieDto(iterator.next()));
+                exported++;
+            }
+        }
+        log.info("{} movies correctly exported", exported);
+    }
+
+    public ResourceVersion getMoviesVersion() {
+        List<String> ids = List.of(CollectionVersion.MOVIES);
+        return ResourceVersion.ofCollections(ids, collectionVersionRepository.findAllById(ids));
+    }
+
     public MovieDto getMovieById(String id) {
-        Movie movie = movieRepository.findById(id).orElseThrow(() -> {
+        Movie movie = findCachedMovie(id);
+        log.info("Movie with ID {} correctly found", id);
+        return movieMapper.toMovieDto(movie);
+    }
+
+    public ResourceVersion getMovieVersion(String id) {
+        return ResourceVersion.of(findCachedMovie(id));
+    }
+
+    private Movie findCachedMovie(String id) {
+        return movieCache.findById(id).orElseThrow(() -> {
             String errorMessage = ("Movie with ID " + id + " does not exist");
             log.error(errorMessage);
             return new MovieNotFoundException(errorMessage);
         });
-        log.info("Movie with ID {} correctly found", id);
-        return movieMapper.toMovieDto(movie);
     }
 
     public MovieDto insertMovie(MovieDtoInput movieDtoInput) {
@@ -53,23 +154,75 @@ public class MovieService {
         movie.setInsertDate(Instant.now());
         movie.setUpdateDate(Instant.now());
         movieRepository.save(movie);
+        collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        movieCache.put(movie);
+        movieSuggestService.put(movie.getId(), movie.getTitle());
         log.info("Movie with ID {} correctly inserted", movie.getId());
         return movieMapper.toMovieDto(movie);
     }
 
-    public MovieDto updateMovie(MovieDtoInput movieDtoInput, String id) {
-        Movie existingMovie = movieRepository.findById(id).orElseThrow(() -> {
-            String errorMessage = ("Movie with ID " + id + " not found for the update");
+    public List<BulkItemResultDto> insertMovies(InputStream inputStream) throws IOException {
+        return BulkInserter.<MovieDtoInput, Movie>builder()
+                .objectMapper(objectMapper)
+                .validator(validator)
+                .inputType(MovieDtoInput.class)
+                .elementName("movie")
+                .mapper(this::toNewMovie)
+                .idOf(Movie::getId)
+                .writer(this::writeMovieChunk)
+                .chunkSize(bulkChunkSize)
+                .build()
+                .insert(inputStream);
+    }
+
+    private Movie toNewMovie(MovieDtoInput movieDtoInput) {
+        Movie movie = movieMapper.toMovieFromDtoInput(movieDtoInput);
+        movie.setId(new ObjectId().toHexString());
+        movie.setInsertDate(Instant.now());
+        movie.setUpdateDate(movie.getInsertDate());
+        return movie;
+    }
+
+    private Map<Integer, String> writeMovieChunk(List<Movie> chunk) {
+        Map<Integer, String> failures = movieRepository.insertUnordered(chunk);
+        collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        Map<String, String> insertedTitles = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (!failures.containsKey(i)) {
+                insertedTitles.put(chunk.get(i).getId(), chunk.get(i).getTitle());
+            }
+        }
+        movieSuggestService.putAll(insertedTitles);
+        log.info("Bulk chunk of {} movies written, {} rejected by the database", chunk.size(), failures.size());
+        return failures;
+    }
+
+    public RatingStatsDto getMovieStats(String id) {
+        Movie movie = movieRepository.findStatsById(id).orElseThrow(() -> {
+            String errorMessage = ("Movie with ID " + id + " does not exist");
             log.error(errorMessage);
             return new MovieNotFoundException(errorMessage);
         });
 
-        movieMapper.updateMovieFromDtoInput(movieDtoInput, existingMovie);
+        log.info("Rating statistics of movie with ID {} correctly found", id);
+        return movieMapper.toRatingStatsDto(movie.getStats());
+    }
 
-        existingMovie.setUpdateDate(Instant.now());
+    public MovieDto updateMovie(MovieDtoInput movieDtoInput, String id) {
+        Update update = movieMapper.toUpdateFromDtoInput(movieDtoInput).set("updateDate", Instant.now());
 
-        movieRepository.save(existingMovie);
+        Movie existingMovie = movieRepository.findAndModifyById(id, update).orElseThrow(() -> {
+            String errorMessage = ("Movie with ID " + id + " not found for the update");
+            log.error(errorMessage);
+            return new MovieNotFoundException(errorMessage);
+        });
 
+        collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        movieCache.put(existingMovie);
+        reviewDtoCache.invalidateMovie(id);
+        if (update.modifies("title")) {
+            movieSuggestService.put(id, existingMovie.getTitle());
+        }
         log.info("Movie with ID {} correctly updated", id);
 
         return movieMapper.toMovieDto(existingMovie);
@@ -77,34 +230,51 @@ public class MovieService {
 
     public MovieDto updateMoviePartial(String id, MoviePatchDto moviePatchDto) {
 
-        Movie existingMovie = movieRepository.findById(id)
+        Update update = movieMapper.toUpdateFromPatchDto(moviePatchDto).set("updateDate", Instant.now());
+
+        Movie existingMovie = movieRepository.findAndModifyById(id, update)
                 .orElseThrow(() -> {
                     String errorMessage = ("Movie with ID " + id + " not found for the update");
                     log.error(errorMessage);
                     return new MovieNotFoundException("Movie not found");
                 });
-
-        movieMapper.updateMovieFromPatchDto(moviePatchDto, existingMovie);
-
-        existingMovie.setUpdateDate(Instant.now());
-
-        movieRepository.save(existingMovie);
+        collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        movieCache.put(existingMovie);
+        reviewDtoCache.invalidateMovie(id);
+        if (update.modifies("title")) {
+            movieSuggestService.put(id, existingMovie.getTitle());
+        }
 
         return movieMapper.toMovieDto(existingMovie);
     }
 
     public void deleteMovie(String id) {
-        if (!movieRepository.existsById(id)) {
+        if (movieRepository.removeById(id) == 0) {
             String errorMessage = "Movie with ID " + id + " not found for the deletion";
             log.error(errorMessage);
             throw new MovieNotFoundException(errorMessage);
         }
 
-        movieRepository.deleteById(id);
         reviewRepository.deleteByMovieId(id);
+        leaderboardRepository.deleteById(id);
+        collectionVersionRepository.increment(CollectionVersion.MOVIES, CollectionVersion.REVIEWS);
+        movieCache.evict(id);
+        reviewDtoCache.invalidateMovie(id);
+        movieSuggestService.remove(id);
 
         log.info("Movie with ID {} correctly deleted with its reviews", id);
 
     }
 
+    public void deleteMovies() {
+        movieRepository.deleteAll();
+        leaderboardRepository.deleteAll();
+        collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        movieCache.clear();
+        reviewDtoCache.clear();
+        movieSuggestService.clear();
+
+        log.info("All movies correctly deleted");
+    }
+
 }
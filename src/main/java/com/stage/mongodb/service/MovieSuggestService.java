@@ -0,0 +1,209 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.MovieMatchDto;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.utils.TitlePrefixIndex;
+import com.stage.mongodb.utils.TrigramIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class MovieSuggestService {
+
+    static final int MAX_LIMIT = 20;
+    static final int MAX_PREFIX_LENGTH = 100;
+    static final double MIN_SIMILARITY = 0.3;
+    static final String INDEX_BYTES_METRIC = "movie.suggest.index.size";
+    static final String INDEX_TITLES_METRIC = "movie.suggest.index.titles";
+
+    private final MovieRepository movieRepository;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+
+    private volatile TitlePrefixIndex index = TitlePrefixIndex.empty();
+    private volatile TrigramIndex trigramIndex = new TrigramIndex();
+    private Map<String, String> pendingChanges;
+    private long clears;
+
+    public MovieSuggestService(MovieRepository movieRepository,
+                               @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${movie.suggest.enabled:true}") boolean enabled) {
+        this.movieRepository = movieRepository;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        // Read from the live index on every scrape, so rebuilds and single writes are both reflected.
+        Gauge.builder(INDEX_BYTES_METRIC, this, MovieSuggestService::getEstimatedBytes)
+                .description("Estimated heap used by the movie title prefix index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder(INDEX_TITLES_METRIC, this, MovieSuggestService::getIndexedTitles)
+                .description("Movie titles in the prefix index")
+                .register(meterRegistry);
+    }
+
+    public int getIndexedTitles() {
+        return index.size();
+    }
+
+    public long getEstimatedBytes() {
+        return index.estimatedBytes();
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        if (!enabled) {
+            log.info("Movie title suggestions are disabled");
+            return;
+        }
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException exception) {
+                log.error("Movie title index build failed: {}", exception.getMessage());
+            }
+        });
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        long clearsAtStart;
+        synchronized (this) {
+            pendingChanges = new LinkedHashMap<>();
+            clearsAtStart = clears;
+        }
+
+        TitlePrefixIndex built;
+        TrigramIndex builtTrigrams = new TrigramIndex();
+        try (Stream<Movie> movies = movieRepository.streamTitlesBy()) {
+            List<TitlePrefixIndex.Entry> entries = new ArrayList<>();
+            movies.filter(movie -> movie.getTitle() != null).forEach(movie -> {
+                entries.add(new TitlePrefixIndex.Entry(movie.getId(), movie.getTitle()));
+                builtTrigrams.put(movie.getId(), movie.getTitle());
+            });
+            built = TitlePrefixIndex.of(entries);
+        } catch (RuntimeException exception) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw exception;
+        }
+
+        synchronized (this) {
+            // Titles streamed before a clear are stale, the live index already holds everything written since.
+            if (clears != clearsAtStart) {
+                pendingChanges = null;
+                log.info("Movie title index build discarded, the index was cleared meanwhile");
+                return;
+            }
+            for (Map.Entry<String, String> change : pendingChanges.entrySet()) {
+                if (change.getValue() == null) {
+                    built.remove(change.getKey());
+                    builtTrigrams.remove(change.getKey());
+                } else {
+                    built.put(change.getKey(), change.getValue());
+                    builtTrigrams.put(change.getKey(), change.getValue());
+                }
+            }
+            pendingChanges = null;
+            index = built;
+            trigramIndex = builtTrigrams;
+        }
+        log.info("Movie title index built with {} titles, about {} KB, and {} trigrams in {} ms", built.size(),
+                built.estimatedBytes() / 1024, builtTrigrams.trigrams(), System.currentTimeMillis() - start);
+    }
+
+    public synchronized void put(String id, String title) {
+        if (title == null) {
+            remove(id);
+            return;
+        }
+        if (pendingChanges != null) {
+            pendingChanges.put(id, title);
+        }
+        if (index.put(id, title)) {
+            trigramIndex.put(id, title);
+        }
+    }
+
+    public synchronized void putAll(Map<String, String> titlesById) {
+        List<TitlePrefixIndex.Entry> entries = new ArrayList<>(titlesById.size());
+        titlesById.forEach((id, title) -> {
+            if (title == null) {
+                remove(id);
+                return;
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(id, title);
+            }
+            entries.add(new TitlePrefixIndex.Entry(id, title));
+            trigramIndex.put(id, title);
+        });
+        index.putAll(entries);
+    }
+
+    public synchronized void remove(String id) {
+        if (pendingChanges != null) {
+            pendingChanges.put(id, null);
+        }
+        index.remove(id);
+        trigramIndex.remove(id);
+    }
+
+    public synchronized void clear() {
+        clears++;
+        index = TitlePrefixIndex.empty();
+        trigramIndex = new TrigramIndex();
+    }
+
+    public List<MovieSuggestionDto> suggest(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (prefix == null || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("The prefix must contain at most " + MAX_PREFIX_LENGTH + " characters");
+        }
+        if (prefix.isBlank()) {
+            return List.of();
+        }
+
+        return index.search(prefix, limit).stream()
+                .map(entry -> MovieSuggestionDto.builder().id(entry.id()).title(entry.title()).build())
+                .collect(Collectors.toList());
+    }
+
+    public List<MovieMatchDto> fuzzySearch(String query, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (query == null || query.isBlank() || query.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("The query must contain between 1 and " + MAX_PREFIX_LENGTH + " characters");
+        }
+
+        return trigramIndex.search(query, limit, MIN_SIMILARITY).stream()
+                .map(match -> MovieMatchDto.builder()
+                        .id(match.id())
+                        .title(match.title())
+                        .similarity(match.similarity())
+                        .build())
+                .collect(Collectors.toList());
+    }
+}
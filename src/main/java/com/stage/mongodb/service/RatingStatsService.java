@@ -0,0 +1,162 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class RatingStatsService {
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private final MovieRepository movieRepository;
+    private final ReviewRepository reviewRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final MovieCache movieCache;
+    private final ReviewDtoCache reviewDtoCache;
+    private final TaskExecutor taskExecutor;
+    private final int batchSize;
+    private final int parallelism;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public RatingStatsService(MovieRepository movieRepository,
+                              ReviewRepository reviewRepository,
+                              CollectionVersionRepository collectionVersionRepository,
+                              MovieCache movieCache,
+                              ReviewDtoCache reviewDtoCache,
+                              @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                              @Value("${movie.stats.rebuild.batch-size:500}") int batchSize,
+                              @Value("${movie.stats.rebuild.parallelism:4}") int parallelism) {
+        this.movieRepository = movieRepository;
+        this.reviewRepository = reviewRepository;
+        this.collectionVersionRepository = collectionVersionRepository;
+        this.movieCache = movieCache;
+        this.reviewDtoCache = reviewDtoCache;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.warn("Rating statistics rebuild already running");
+            return false;
+        }
+
+        taskExecutor.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException exception) {
+                log.error("Rating statistics rebuild failed: {}", exception.getMessage());
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    long rebuild() {
+        long start = System.currentTimeMillis();
+        AtomicLong rebuilt = new AtomicLong();
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+
+        try (Stream<Movie> movies = movieRepository.streamIdsBy()) {
+            Iterator<Movie> iterator = movies.iterator();
+            List<String> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next().getId());
+                if (batch.size() == batchSize || !iterator.hasNext()) {
+                    List<String> movieIds = List.copyOf(batch);
+                    batch.clear();
+                    inFlight.acquireUninterruptibly();
+                    batches.add(CompletableFuture
+                            .runAsync(() -> rebuilt.addAndGet(rebuildBatch(movieIds)), taskExecutor)
+                            .whenComplete((result, exception) -> inFlight.release()));
+                }
+            }
+        }
+
+        CompletableFuture.allOf(batches.toArray(CompletableFuture[]::new)).join();
+        log.info("Rating statistics of {} movies rebuilt in {} ms", rebuilt.get(), System.currentTimeMillis() - start);
+        return rebuilt.get();
+    }
+
+    // Reviews written while a batch is counted move the statistics version on, those movies are counted again.
+    int rebuildBatch(List<String> movieIds) {
+        int rebuilt = 0;
+        Collection<String> pending = movieIds;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > MAX_ATTEMPTS) {
+                log.warn("Rating statistics of {} movies kept changing, left to the incremental updates", pending.size());
+                break;
+            }
+
+            Map<String, Long> versions = movieRepository.findRatingStatsVersions(pending);
+            Map<String, Map<Integer, Long>> ratingsByMovie = reviewRepository.countRatingsByMovie(versions.keySet());
+            Instant updateDate = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+            Map<String, RatingStats> statsByMovie = new HashMap<>();
+            versions.forEach((movieId, version) -> {
+                RatingStats stats = toRatingStats(ratingsByMovie.getOrDefault(movieId, Map.of()), updateDate);
+                stats.setVersion(version + 1);
+                statsByMovie.put(movieId, stats);
+            });
+
+            pending = movieRepository.replaceRatingStats(statsByMovie);
+            rebuilt += statsByMovie.size() - pending.size();
+            movieCache.evictAll(statsByMovie.keySet());
+            reviewDtoCache.invalidateMovies(statsByMovie.keySet());
+        }
+        if (rebuilt > 0) {
+            collectionVersionRepository.increment(CollectionVersion.MOVIES);
+        }
+        return rebuilt;
+    }
+
+    static RatingStats toRatingStats(Map<Integer, Long> ratings, Instant updateDate) {
+        Map<String, Long> histogram = new HashMap<>();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        for (Map.Entry<Integer, Long> entry : ratings.entrySet()) {
+            histogram.put(String.valueOf(entry.getKey()), entry.getValue());
+            reviewCount += entry.getValue();
+            ratingSum += entry.getKey() * entry.getValue();
+        }
+
+        return RatingStats.builder()
+                .reviewCount(reviewCount)
+                .ratingSum(ratingSum)
+                .histogram(histogram)
+                .updateDate(updateDate)
+                .build();
+    }
+}
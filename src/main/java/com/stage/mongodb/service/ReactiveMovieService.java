@@ -0,0 +1,147 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.ReactiveCollectionVersionRepository;
+import com.stage.mongodb.repository.ReactiveLeaderboardRepository;
+import com.stage.mongodb.repository.ReactiveMovieRepository;
+import com.stage.mongodb.repository.ReactiveReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMovieService {
+
+    private final ReactiveMovieRepository movieRepository;
+    private final ReactiveReviewRepository reviewRepository;
+    private final ReactiveLeaderboardRepository leaderboardRepository;
+    private final ReactiveCollectionVersionRepository collectionVersionRepository;
+    private final MovieCache movieCache;
+    private final MovieSuggestService movieSuggestService;
+    private final MovieMapper movieMapper;
+
+    public Flux<MovieDto> getMovies() {
+        return movieRepository.findAll()
+                .map(movieMapper::toMovieDto)
+                .doOnComplete(() -> log.info("Movie list correctly viewed"));
+    }
+
+    public Mono<CursorPageDto<MovieDto>> getMoviesPage(String after, int limit) {
+        if (limit < 1 || limit > MovieService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("The limit must be between 1 and " + MovieService.MAX_PAGE_SIZE));
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        Flux<Movie> movies = Flux.defer(() -> (after == null || after.isBlank())
+                ? movieRepository.findAllByOrderByIdAsc(fetchLimit)
+                : movieRepository.findByIdGreaterThanOrderByIdAsc(CursorCodec.decode(after), fetchLimit));
+
+        return movies.collectList().map(fetched -> {
+            boolean hasNext = fetched.size() > limit;
+            List<Movie> page = hasNext ? fetched.subList(0, limit) : fetched;
+            String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+            log.info("Movie page of {} elements correctly viewed", page.size());
+            return CursorPageDto.<MovieDto>builder()
+                    .items(page.stream().map(movieMapper::toMovieDto).collect(Collectors.toList()))
+                    .nextCursor(nextCursor)
+                    .build();
+        });
+    }
+
+    public Mono<MovieDto> getMovieById(String id) {
+        return movieRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> movieNotFound("Movie with ID " + id + " does not exist")))
+                .doOnNext(movie -> log.info("Movie with ID {} correctly found", id))
+                .map(movieMapper::toMovieDto);
+    }
+
+    public Mono<MovieDto> insertMovie(MovieDtoInput movieDtoInput) {
+        log.debug("Attempting to insert movie: {}", movieDtoInput);
+        Movie movie = movieMapper.toMovieFromDtoInput(movieDtoInput);
+        movie.setInsertDate(Instant.now());
+        movie.setUpdateDate(Instant.now());
+
+        return movieRepository.save(movie)
+                .flatMap(saved -> collectionVersionRepository.increment(CollectionVersion.MOVIES).thenReturn(saved))
+                .doOnNext(saved -> {
+                    movieCache.put(saved);
+                    movieSuggestService.put(saved.getId(), saved.getTitle());
+                    log.info("Movie with ID {} correctly inserted", saved.getId());
+                })
+                .map(movieMapper::toMovieDto);
+    }
+
+    public Mono<MovieDto> updateMovie(MovieDtoInput movieDtoInput, String id) {
+        Update update = movieMapper.toUpdateFromDtoInput(movieDtoInput).set("updateDate", Instant.now());
+
+        return movieRepository.findAndModifyById(id, update)
+                .switchIfEmpty(Mono.error(() -> movieNotFound("Movie with ID " + id + " not found for the update")))
+                .flatMap(movie -> collectionVersionRepository.increment(CollectionVersion.MOVIES).thenReturn(movie))
+                .doOnNext(movie -> {
+                    movieCache.put(movie);
+                    if (update.modifies("title")) {
+                        movieSuggestService.put(id, movie.getTitle());
+                    }
+                    log.info("Movie with ID {} correctly updated", id);
+                })
+                .map(movieMapper::toMovieDto);
+    }
+
+    public Mono<MovieDto> updateMoviePartial(String id, MoviePatchDto moviePatchDto) {
+        Update update = movieMapper.toUpdateFromPatchDto(moviePatchDto).set("updateDate", Instant.now());
+
+        return movieRepository.findAndModifyById(id, update)
+                .switchIfEmpty(Mono.error(() -> {
+                    log.error("Movie with ID {} not found for the update", id);
+                    return new MovieNotFoundException("Movie not found");
+                }))
+                .flatMap(movie -> collectionVersionRepository.increment(CollectionVersion.MOVIES).thenReturn(movie))
+                .doOnNext(movie -> {
+                    movieCache.put(movie);
+                    if (update.modifies("title")) {
+                        movieSuggestService.put(id, movie.getTitle());
+                    }
+                })
+                .map(movieMapper::toMovieDto);
+    }
+
+    public Mono<Void> deleteMovie(String id) {
+        return movieRepository.removeById(id)
+                .flatMap(deleted -> deleted > 0
+                        ? reviewRepository.deleteByMovieId(id)
+                        .then(leaderboardRepository.deleteById(id))
+                        .then(collectionVersionRepository.increment(CollectionVersion.MOVIES, CollectionVersion.REVIEWS))
+                        : Mono.error(movieNotFound("Movie with ID " + id + " not found for the deletion")))
+                .doOnSuccess(ignored -> {
+                    movieCache.evict(id);
+                    movieSuggestService.remove(id);
+                    log.info("Movie with ID {} correctly deleted with its reviews", id);
+                });
+    }
+
+    private static MovieNotFoundException movieNotFound(String errorMessage) {
+        log.error(errorMessage);
+        return new MovieNotFoundException(errorMessage);
+    }
+}
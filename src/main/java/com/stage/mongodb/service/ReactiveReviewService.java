@@ -0,0 +1,198 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.dto.ReviewDtoUpdate;
+import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.ReviewNotFoundException;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import com.stage.mongodb.repository.ReactiveCollectionVersionRepository;
+import com.stage.mongodb.repository.ReactiveMovieRepository;
+import com.stage.mongodb.repository.ReactiveReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReviewService {
+
+    private final ReactiveReviewRepository reviewRepository;
+    private final ReactiveMovieRepository movieRepository;
+    private final ReactiveCollectionVersionRepository collectionVersionRepository;
+    private final MovieCache movieCache;
+    private final ReviewMapper reviewMapper;
+
+    public Flux<ReviewDto> getReviews() {
+        return reviewRepository.findAll()
+                .buffer(ReviewService.EXPORT_BATCH_SIZE)
+                .concatMap(batch -> movieRepository
+                        .findByIdIn(batch.stream().map(Review::getMovieId).collect(Collectors.toSet()))
+                        .collectList()
+                        .flatMapIterable(movies -> reviewMapper.listOfReviewsDto(batch, movies)))
+                .doOnComplete(() -> log.info("Review list correctly viewed"));
+    }
+
+    public Mono<CursorPageDto<ReviewDto>> getReviewsPage(String after, int limit) {
+        if (limit < 1 || limit > ReviewService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException("The limit must be between 1 and " + ReviewService.MAX_PAGE_SIZE));
+        }
+
+        return Flux.defer(() -> reviewRepository.findPageWithMovie(
+                        (after == null || after.isBlank()) ? null : CursorCodec.decode(after), limit + 1))
+                .collectList()
+                .map(reviews -> {
+                    boolean hasNext = reviews.size() > limit;
+                    List<ReviewWithMovie> page = hasNext ? reviews.subList(0, limit) : reviews;
+                    String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+                    log.info("Review page of {} elements correctly viewed", page.size());
+                    return CursorPageDto.<ReviewDto>builder()
+                            .items(page.stream().map(reviewMapper::toReviewDto).collect(Collectors.toList()))
+                            .nextCursor(nextCursor)
+                            .build();
+                });
+    }
+
+    public Mono<ReviewDto> getReviewById(String id) {
+        return reviewRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> reviewNotFound("Movie with ID " + id + " does not exist")))
+                .flatMap(review -> movieRepository.findById(review.getMovieId())
+                        .switchIfEmpty(Mono.error(() ->
+                                reviewNotFound("Movie with ID " + review.getMovieId() + " does not exist")))
+                        .map(movie -> {
+                            log.info("Review with ID {} correctly found", id);
+                            return reviewMapper.toReviewDto(review, movie);
+                        }));
+    }
+
+    public Mono<ReviewDto> insertReview(ReviewDtoInput reviewDtoInput) {
+        String movieId = reviewDtoInput.getMovieId();
+
+        return movieRepository.startRatingStatsWrite(movieId)
+                .filter(started -> started)
+                .switchIfEmpty(Mono.error(() -> {
+                    String errorMessage = ("Movie with ID " + movieId + " does not exist");
+                    log.error(errorMessage);
+                    return new MovieNotFoundException(errorMessage);
+                }))
+                .flatMap(started -> {
+                    log.info("Attempting to insert review: {}", reviewDtoInput);
+                    Review review = reviewMapper.toReviewFromDtoInput(reviewDtoInput);
+                    review.setInsertDate(Instant.now());
+                    review.setUpdateDate(Instant.now());
+
+                    return writeWithRatingStats(movieId, reviewRepository.save(review),
+                            saved -> ReviewService.ratingDelta(0, saved.getRating()));
+                })
+                .map(written -> {
+                    log.info("Review with ID {} correctly inserted", written.getT1().getId());
+                    return reviewMapper.toReviewDto(written.getT1(), written.getT2());
+                });
+    }
+
+    public Mono<ReviewDto> updateReview(ReviewDtoUpdate reviewDtoUpdate, String id) {
+        Instant updateDate = Instant.now();
+        Update update = reviewMapper.toUpdateFromDtoUpdate(reviewDtoUpdate).set("updateDate", updateDate);
+
+        return writeRatedReview(id, Mono.defer(() -> reviewRepository.findAndModifyById(id, update, false)),
+                        previous -> ReviewService.ratingDelta(previous.getRating(), reviewDtoUpdate.getRating()))
+                .switchIfEmpty(Mono.error(() -> reviewNotFound("Review with ID " + id + " not found for the update")))
+                .map(written -> {
+                    Review existingReview = written.getT1();
+                    reviewMapper.updateReviewFromDtoUpdate(reviewDtoUpdate, existingReview);
+                    existingReview.setUpdateDate(updateDate);
+
+                    log.info("Review with ID {} correctly updated", id);
+
+                    return reviewMapper.toReviewDto(existingReview, written.getT2());
+                });
+    }
+
+    public Mono<ReviewDto> updateReviewPartial(String id, ReviewPatchDto reviewPatchDto) {
+        Instant updateDate = Instant.now();
+        Update update = reviewMapper.toUpdateFromPatchDto(reviewPatchDto).set("updateDate", updateDate);
+        Integer rating = reviewPatchDto.getRating();
+
+        Mono<Review> write = Mono.defer(() -> reviewRepository.findAndModifyById(id, update, false));
+        return (rating == null
+                ? write.flatMap(review -> collectionVersionRepository.increment(CollectionVersion.REVIEWS)
+                        .then(findMovie(review.getMovieId()))
+                        .map(movie -> Tuples.of(review, movie)))
+                : writeRatedReview(id, write, previous -> ReviewService.ratingDelta(previous.getRating(), rating)))
+                .switchIfEmpty(Mono.error(() -> new ReviewNotFoundException("Review not found")))
+                .map(written -> {
+                    Review existingReview = written.getT1();
+                    reviewMapper.updateReviewFromPatchDto(reviewPatchDto, existingReview);
+                    existingReview.setUpdateDate(updateDate);
+
+                    return reviewMapper.toReviewDto(existingReview, written.getT2());
+                });
+    }
+
+    public Mono<Void> deleteReview(String id) {
+        return writeRatedReview(id, Mono.defer(() -> reviewRepository.findAndRemoveById(id)),
+                        deleted -> ReviewService.ratingDelta(deleted.getRating(), 0))
+                .switchIfEmpty(Mono.error(() -> reviewNotFound("Review with ID " + id + " not found for the deletion")))
+                .doOnSuccess(ignored -> log.info("Review with ID {} correctly deleted", id))
+                .then();
+    }
+
+    // As in ReviewService, the statistics of the movie count the review write as in flight until its rating is applied.
+    private Mono<Tuple2<Review, Movie>> writeRatedReview(String id, Mono<Review> write,
+                                                         Function<Review, Map<Integer, Integer>> ratingDeltaOf) {
+        return reviewRepository.findMovieIdById(id)
+                .flatMap(review -> movieRepository.startRatingStatsWrite(review.getMovieId())
+                        .then(writeWithRatingStats(review.getMovieId(), write, ratingDeltaOf)));
+    }
+
+    private Mono<Tuple2<Review, Movie>> writeWithRatingStats(String movieId, Mono<Review> write,
+                                                             Function<Review, Map<Integer, Integer>> ratingDeltaOf) {
+        return write
+                .onErrorResume(exception -> finishRatingStatsWrite(movieId, Map.of()).then(Mono.error(exception)))
+                .switchIfEmpty(Mono.defer(() -> finishRatingStatsWrite(movieId, Map.of()).then(Mono.empty())))
+                .flatMap(review -> finishRatingStatsWrite(movieId, ratingDeltaOf.apply(review))
+                        .switchIfEmpty(Mono.error(() -> reviewNotFound("Movie with ID " + movieId + " does not exist")))
+                        .map(movie -> Tuples.of(review, movie)));
+    }
+
+    private Mono<Movie> finishRatingStatsWrite(String movieId, Map<Integer, Integer> ratingDelta) {
+        return movieRepository.finishRatingStatsWrite(movieId, ratingDelta)
+                .doOnNext(movieCache::put)
+                .singleOptional()
+                .flatMap(movie -> collectionVersionRepository.increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES)
+                        .thenReturn(movie))
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    private Mono<Movie> findMovie(String movieId) {
+        return movieRepository.findById(movieId)
+                .switchIfEmpty(Mono.error(() -> reviewNotFound("Movie with ID " + movieId + " does not exist")));
+    }
+
+    private static ReviewNotFoundException reviewNotFound(String errorMessage) {
+        log.error(errorMessage);
+        return new ReviewNotFoundException(errorMessage);
+    }
+}
@@ -0,0 +1,109 @@
+package com.stage.mongodb.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.utils.ResourceVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Cached DTOs are shared between requests: callers must treat them as read-only.
+@Component
+public class ReviewDtoCache {
+
+    static final String CACHE_NAME = "reviews";
+
+    public record CachedReview(ReviewDto reviewDto, ResourceVersion version) {
+    }
+
+    private final Cache<String, CachedReview> cache;
+    private final Map<String, Set<String>> reviewsByMovie = new ConcurrentHashMap<>();
+
+    public ReviewDtoCache(MeterRegistry meterRegistry,
+                          @Value("${review.cache.maximum-size:10000}") long maximumSize,
+                          @Value("${review.cache.expire-after-write:PT1M}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(Runnable::run)
+                .removalListener((String reviewId, CachedReview cachedReview, RemovalCause cause) ->
+                        onRemoval(reviewId, cachedReview))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public CachedReview get(String reviewId, Function<String, CachedReview> loader) {
+        return cache.get(reviewId, loader);
+    }
+
+    // Loaders call this after reading the review and before reading its movie: a concurrent movie write
+    // then either finds the dependency and waits for the load to finish before invalidating it, or
+    // completed before the movie was read.
+    public void dependOn(String reviewId, String movieId) {
+        reviewsByMovie.compute(movieId, (key, reviewIds) -> {
+            Set<String> dependents = reviewIds == null ? ConcurrentHashMap.newKeySet() : reviewIds;
+            dependents.add(reviewId);
+            return dependents;
+        });
+    }
+
+    public void invalidate(String reviewId) {
+        cache.invalidate(reviewId);
+    }
+
+    public void invalidateMovie(String movieId) {
+        Set<String> reviewIds = reviewsByMovie.remove(movieId);
+        if (reviewIds != null) {
+            cache.invalidateAll(reviewIds);
+        }
+    }
+
+    public void invalidateMovies(Collection<String> movieIds) {
+        movieIds.forEach(this::invalidateMovie);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+        reviewsByMovie.clear();
+    }
+
+    int dependentCount(String movieId) {
+        return reviewsByMovie.getOrDefault(movieId, Set.of()).size();
+    }
+
+    int trackedMovies() {
+        return reviewsByMovie.size();
+    }
+
+    // Any removal drops the dependency, unless the review was replaced by a value that still depends on the movie.
+    private void onRemoval(String reviewId, CachedReview removed) {
+        String movieId = movieId(removed);
+        if (movieId != null && !movieId.equals(movieId(cache.asMap().get(reviewId)))) {
+            forget(movieId, reviewId);
+        }
+    }
+
+    private static String movieId(CachedReview cachedReview) {
+        return cachedReview == null || cachedReview.reviewDto().getMovieDto() == null
+                ? null
+                : cachedReview.reviewDto().getMovieDto().getId();
+    }
+
+    private void forget(String movieId, String reviewId) {
+        reviewsByMovie.computeIfPresent(movieId, (key, reviewIds) -> {
+            reviewIds.remove(reviewId);
+            return reviewIds.isEmpty() ? null : reviewIds;
+        });
+    }
+}
@@ -1,32 +1,73 @@
 package com.stage.mongodb.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.ReviewDto;
 import com.stage.mongodb.dto.ReviewDtoInput;
 import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
 import com.stage.mongodb.exceptions.ReviewNotFoundException;
 import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.CollectionVersion;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import com.stage.mongodb.repository.CollectionVersionRepository;
 import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import com.stage.mongodb.utils.NdjsonWriter;
+import com.stage.mongodb.utils.ResourceVersion;
+import com.stage.mongodb.utils.TextSearch;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    static final int MAX_PAGE_SIZE = 100;
+    static final int EXPORT_BATCH_SIZE = 500;
+
     private final ReviewRepository reviewRepository;
     private final MovieRepository movieRepository;
+    private final CollectionVersionRepository collectionVersionRepository;
+    private final MovieCache movieCache;
+    private final ReviewDtoCache reviewDtoCache;
     private final ReviewMapper reviewMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${review.bulk.chunk-size:1000}")
+    private int bulkChunkSize;
 
     public List<ReviewDto> getReviews() {
         List<Review> reviews = reviewRepository.findAll();
@@ -36,7 +77,7 @@ public class ReviewService {
             return List.of();
         }
 
-        List<Movie> movies = movieRepository
+        List<Movie> movies = movieCache
                 .findAllById(reviews.stream().map(Review::getMovieId).collect(Collectors.toSet()));
 
         List<ReviewDto> reviewsDto = reviewMapper.listOfReviewsDto(reviews, movies);
@@ -46,30 +87,115 @@ public class ReviewService {
         return reviewsDto;
     }
 
+    public CursorPageDto<ReviewDto> getReviewsPage(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        String afterId = (after == null || after.isBlank()) ? null : CursorCodec.decode(after);
+        List<ReviewWithMovie> reviews = reviewRepository.findPageWithMovie(afterId, limit + 1);
+
+        boolean hasNext = reviews.size() > limit;
+        List<ReviewWithMovie> page = hasNext ? reviews.subList(0, limit) : reviews;
+        String nextCursor = hasNext ? CursorCodec.encode(page.get(page.size() - 1).getId()) : null;
+
+        log.info("Review page of {} elements correctly viewed", page.size());
+        return CursorPageDto.<ReviewDto>builder()
+                .items(page.stream().map(reviewMapper::toReviewDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    public SearchPageDto<ReviewDto> searchReviews(String query, int page, int size) {
+        TextCriteria criteria = TextSearch.criteria(query);
+        Pageable pageable = TextSearch.pageable(page, size);
+
+        Slice<Review> reviews = TextSearch.withTimeout(() -> reviewRepository.findAllBy(criteria, pageable));
+
+        List<ReviewDto> reviewsDto = List.of();
+        if (reviews.hasContent()) {
+            List<Movie> movies = movieCache
+                    .findAllById(reviews.stream().map(Review::getMovieId).collect(Collectors.toSet()));
+            reviewsDto = reviewMapper.listOfReviewsDto(reviews.getContent(), movies);
+        }
+
+        log.info("Review search page {} of {} elements correctly viewed", page, reviews.getNumberOfElements());
+        return SearchPageDto.<ReviewDto>builder()
+                .items(reviewsDto)
+                .page(page)
+                .size(size)
+                .hasNext(TextSearch.hasNext(reviews))
+                .build();
+    }
+
+    public void exportReviews(OutputStream outputStream) throws IOException {
+        long exported = 0;
+        try (Stream<Review> reviews = reviewRepository.streamAllBy();
+             NdjsonWriter writer = new NdjsonWriter(objectMapper, outputStream)) {
+            Iterator<Review> iterator = reviews.iterator();
+            List<Review> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                    exported += writeReviewBatch(batch, writer);
+                    batch.clear();
+                }
+            }
+        }
+        log.info("{} reviews correctly exported", exported);
+    }
+
+    private int writeReviewBatch(List<Review> batch, NdjsonWriter writer) throws IOException {
+        List<Movie> movies = movieCache
+                .findAllById(batch.stream().map(Review::getMovieId).collect(Collectors.toSet()));
+
+        for (ReviewDto reviewDto : reviewMapper.listOfReviewsDto(batch, movies)) {
+            writer.write(reviewDto);
+        }
+        return batch.size();
+    }
+
+    // Reviews are listed with their movie, so the list changes with either collection.
+    public ResourceVersion getReviewsVersion() {
+        List<String> ids = List.of(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        return ResourceVersion.ofCollections(ids, collectionVersionRepository.findAllById(ids));
+    }
+
     public ReviewDto getReviewById(String id) {
+        ReviewDto reviewDto = reviewDtoCache.get(id, this::loadReview).reviewDto();
+
+        log.info("Review with ID {} correctly found", id);
+        return reviewDto;
+    }
+
+    public ResourceVersion getReviewVersion(String id) {
+        return reviewDtoCache.get(id, this::loadReview).version();
+    }
+
+    private ReviewDtoCache.CachedReview loadReview(String id) {
         Review review = reviewRepository.findById(id).orElseThrow(() -> {
             String errorMessage = ("Movie with ID " + id + " does not exist");
             log.error(errorMessage);
             return new ReviewNotFoundException(errorMessage);
         });
 
-        Movie existingMovie = movieRepository.findById(review.getMovieId()).orElseThrow(() -> {
+        reviewDtoCache.dependOn(id, review.getMovieId());
+
+        Movie existingMovie = movieCache.findById(review.getMovieId()).orElseThrow(() -> {
             String errorMessage = ("Movie with ID " + review.getMovieId() + " does not exist");
             log.error(errorMessage);
             return new ReviewNotFoundException(errorMessage);
         });
 
-        log.info("Review with ID {} correctly found", id);
-        return reviewMapper.toReviewDto(review, existingMovie);
+        return new ReviewDtoCache.CachedReview(reviewMapper.toReviewDto(review, existingMovie),
+                ResourceVersion.of(review, existingMovie));
     }
 
     public ReviewDto insertReview(ReviewDtoInput reviewDtoInput) {
-
-        Movie existingMovie = movieRepository.findById(reviewDtoInput.getMovieId()).orElseThrow(() -> {
-            String errorMessage = ("Movie with ID " + reviewDtoInput.getMovieId() + " does not exist");
-            log.error(errorMessage);
-            return new MovieNotFoundException(errorMessage);
-        });
+        String movieId = reviewDtoInput.getMovieId();
+        if (!movieRepository.startRatingStatsWrite(movieId)) {
+            throw movieNotFound(movieId);
+        }
 
         log.info("Attempting to insert review: {}", reviewDtoInput);
         Review review = reviewMapper.toReviewFromDtoInput(reviewDtoInput);
@@ -77,66 +203,198 @@ public class ReviewService {
         review.setInsertDate(Instant.now());
         review.setUpdateDate(Instant.now());
 
-        reviewRepository.save(review);
+        writeWithRatingStats(movieId, () -> Optional.of(reviewRepository.save(review)),
+                saved -> ratingDelta(0, saved.getRating()));
         log.info("Review with ID {} correctly inserted", review.getId());
 
+        Movie existingMovie = movieCache.findById(movieId).orElseThrow(() -> movieNotFound(movieId));
         return reviewMapper.toReviewDto(review, existingMovie);
     }
 
+    public List<BulkItemResultDto> insertReviews(InputStream inputStream) throws IOException {
+        return BulkInserter.<ReviewDtoInput, Review>builder()
+                .objectMapper(objectMapper)
+                .validator(validator)
+                .inputType(ReviewDtoInput.class)
+                .elementName("review")
+                .mapper(this::toNewReview)
+                .idOf(Review::getId)
+                .writer(this::writeReviewChunk)
+                .chunkSize(bulkChunkSize)
+                .build()
+                .insert(inputStream);
+    }
+
+    private Review toNewReview(ReviewDtoInput reviewDtoInput) {
+        Review review = reviewMapper.toReviewFromDtoInput(reviewDtoInput);
+        review.setId(new ObjectId().toHexString());
+        review.setInsertDate(Instant.now());
+        review.setUpdateDate(review.getInsertDate());
+        return review;
+    }
+
+    private Map<Integer, String> writeReviewChunk(List<Review> chunk) {
+        Set<String> existingMovieIds = movieRepository
+                .findIdsByIdIn(chunk.stream().map(Review::getMovieId).collect(Collectors.toSet()))
+                .stream().map(Movie::getId).collect(Collectors.toSet());
+
+        Map<Integer, String> failures = new HashMap<>();
+        List<Review> reviews = new ArrayList<>(chunk.size());
+        List<Integer> reviewPositions = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Review review = chunk.get(i);
+            if (existingMovieIds.contains(review.getMovieId())) {
+                reviews.add(review);
+                reviewPositions.add(i);
+            } else {
+                failures.put(i, "Movie with ID " + review.getMovieId() + " does not exist");
+            }
+        }
+        int unknownMovies = failures.size();
+
+        Map<String, Map<Integer, Integer>> ratingDeltaByMovie = new HashMap<>();
+        existingMovieIds.forEach(movieId -> ratingDeltaByMovie.put(movieId, new HashMap<>()));
+        movieRepository.startRatingStatsWrites(existingMovieIds);
+        Map<Integer, String> insertFailures = Map.of();
+        try {
+            insertFailures = reviews.isEmpty() ? Map.of() : reviewRepository.insertUnordered(reviews);
+            for (int i = 0; i < reviews.size(); i++) {
+                String failure = insertFailures.get(i);
+                if (failure != null) {
+                    failures.put(reviewPositions.get(i), failure);
+                } else {
+                    ratingDeltaByMovie.get(reviews.get(i).getMovieId()).merge(reviews.get(i).getRating(), 1, Integer::sum);
+                }
+            }
+        } finally {
+            movieRepository.finishRatingStatsWrites(ratingDeltaByMovie);
+            collectionVersionRepository.increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        }
+        movieCache.evictAll(ratingDeltaByMovie.keySet());
+        reviewDtoCache.invalidateMovies(ratingDeltaByMovie.keySet());
+        log.info("Bulk chunk of {} reviews written, {} rejected for unknown movie, {} rejected by the database",
+                chunk.size(), unknownMovies, insertFailures.size());
+        return failures;
+    }
+
     public ReviewDto updateReview(ReviewDtoUpdate reviewDtoUpdate, String id) {
-        Review existingReview = reviewRepository.findById(id).orElseThrow(() -> {
+        Instant updateDate = Instant.now();
+        Update update = reviewMapper.toUpdateFromDtoUpdate(reviewDtoUpdate).set("updateDate", updateDate);
+
+        Review existingReview = writeRatedReview(id, () -> reviewRepository.findAndModifyById(id, update, false),
+                previous -> ratingDelta(previous.getRating(), reviewDtoUpdate.getRating())).orElseThrow(() -> {
             String errorMessage = ("Review with ID " + id + " not found for the update");
             log.error(errorMessage);
             return new ReviewNotFoundException(errorMessage);
         });
 
         reviewMapper.updateReviewFromDtoUpdate(reviewDtoUpdate, existingReview);
+        existingReview.setUpdateDate(updateDate);
+        reviewDtoCache.invalidate(id);
 
-        existingReview.setUpdateDate(Instant.now());
+        log.info("Review with ID {} correctly updated", id);
 
-        reviewRepository.save(existingReview);
+        return reviewMapper.toReviewDto(existingReview, findMovie(existingReview.getMovieId()));
+    }
 
-        log.info("Review with ID {} correctly updated", id);
+    public ReviewDto updateReviewPartial(String id, ReviewPatchDto reviewPatchDto) {
+        Instant updateDate = Instant.now();
+        Update update = reviewMapper.toUpdateFromPatchDto(reviewPatchDto).set("updateDate", updateDate);
+        Integer rating = reviewPatchDto.getRating();
+
+        Supplier<Optional<Review>> write = () -> reviewRepository.findAndModifyById(id, update, false);
+        Review existingReview = (rating == null ? writeUnratedReview(write)
+                : writeRatedReview(id, write, previous -> ratingDelta(previous.getRating(), rating)))
+                .orElseThrow(() -> new ReviewNotFoundException("Review not found"));
+
+        reviewMapper.updateReviewFromPatchDto(reviewPatchDto, existingReview);
+        existingReview.setUpdateDate(updateDate);
+        reviewDtoCache.invalidate(id);
+
+        return reviewMapper.toReviewDto(existingReview, findMovie(existingReview.getMovieId()));
+    }
 
-        Movie existingMovie = movieRepository.findById(existingReview.getMovieId()).orElseThrow(() -> {
-            String errorMessage = ("Movie with ID " + existingReview.getMovieId() + " does not exist");
+    public void deleteReview(String id) {
+        writeRatedReview(id, () -> reviewRepository.findAndRemoveById(id),
+                deleted -> ratingDelta(deleted.getRating(), 0)).orElseThrow(() -> {
+            String errorMessage = "Review with ID " + id + " not found for the deletion" + id;
             log.error(errorMessage);
             return new ReviewNotFoundException(errorMessage);
         });
 
-        return reviewMapper.toReviewDto(existingReview, existingMovie);
+        reviewDtoCache.invalidate(id);
+
+        log.info("Review with ID {} correctly deleted", id);
+
     }
 
-    public ReviewDto updateReviewPartial(String id, ReviewPatchDto reviewPatchDto) {
+    public void deleteReviews() {
+        reviewRepository.deleteAll();
+        movieRepository.resetRatingStats();
+        collectionVersionRepository.increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        movieCache.clear();
+        reviewDtoCache.clear();
 
-        Review existingReview = reviewRepository.findById(id).orElseThrow(() -> new ReviewNotFoundException("Review not found"));
+        log.info("All reviews correctly deleted");
+    }
 
-        reviewMapper.updateReviewFromPatchDto(reviewPatchDto, existingReview);
+    // The movie of the review has to be read first, its statistics must count the write as in flight before it starts.
+    private Optional<Review> writeRatedReview(String id, Supplier<Optional<Review>> write,
+                                              Function<Review, Map<Integer, Integer>> ratingDeltaOf) {
+        Optional<String> movieId = reviewRepository.findMovieIdById(id).map(Review::getMovieId);
+        if (movieId.isEmpty()) {
+            return Optional.empty();
+        }
 
-        existingReview.setUpdateDate(Instant.now());
+        movieRepository.startRatingStatsWrite(movieId.get());
+        return writeWithRatingStats(movieId.get(), write, ratingDeltaOf);
+    }
 
-        reviewRepository.save(existingReview);
+    // Runs a review write that the statistics of its movie count as in flight, so a rebuild counting the reviews in
+    // between cannot store its count, and ends it with the rating change of the review actually written, if any.
+    private Optional<Review> writeWithRatingStats(String movieId, Supplier<Optional<Review>> write,
+                                                  Function<Review, Map<Integer, Integer>> ratingDeltaOf) {
+        Optional<Review> review = Optional.empty();
+        try {
+            review = write.get();
+        } finally {
+            movieRepository.finishRatingStatsWrite(movieId, review.map(ratingDeltaOf).orElse(Map.of()))
+                    .ifPresent(movieCache::put);
+            reviewDtoCache.invalidateMovie(movieId);
+            collectionVersionRepository.increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        }
+        return review;
+    }
+
+    private Optional<Review> writeUnratedReview(Supplier<Optional<Review>> write) {
+        Optional<Review> review = write.get();
+        review.ifPresent(written -> collectionVersionRepository.increment(CollectionVersion.REVIEWS));
+        return review;
+    }
 
-        Movie existingMovie = movieRepository.findById(existingReview.getMovieId()).orElseThrow(() -> {
-            String errorMessage = ("Movie with ID " + existingReview.getMovieId() + " does not exist");
+    private Movie findMovie(String movieId) {
+        return movieCache.findById(movieId).orElseThrow(() -> {
+            String errorMessage = ("Movie with ID " + movieId + " does not exist");
             log.error(errorMessage);
             return new ReviewNotFoundException(errorMessage);
         });
+    }
 
-        return reviewMapper.toReviewDto(existingReview, existingMovie);
+    private static MovieNotFoundException movieNotFound(String movieId) {
+        String errorMessage = ("Movie with ID " + movieId + " does not exist");
+        log.error(errorMessage);
+        return new MovieNotFoundException(errorMessage);
     }
 
-    public void deleteReview(String id) {
-        if (!reviewRepository.existsById(id)) {
-            String errorMessage = "Review with ID " + id + " not found for the deletion" + id;
-            log.error(errorMessage);
-            throw new ReviewNotFoundException(errorMessage);
+    static Map<Integer, Integer> ratingDelta(int removedRating, int addedRating) {
+        Map<Integer, Integer> ratingDelta = new HashMap<>();
+        if (removedRating != 0) {
+            ratingDelta.merge(removedRating, -1, Integer::sum);
         }
-
-        reviewRepository.deleteById(id);
-
-        log.info("Review with ID {} correctly deleted", id);
-
+        if (addedRating != 0) {
+            ratingDelta.merge(addedRating, 1, Integer::sum);
+        }
+        return ratingDelta;
     }
 
 }
@@ -0,0 +1,22 @@
+package com.stage.mongodb.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) {
+        String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        if (id.isBlank()) {
+            throw new IllegalArgumentException("Cursor " + cursor + " is not valid");
+        }
+        return id;
+    }
+}
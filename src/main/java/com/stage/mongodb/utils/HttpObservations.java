@@ -0,0 +1,24 @@
+package com.stage.mongodb.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+public final class HttpObservations {
+
+    private HttpObservations() {
+    }
+
+    // Exceptions handled by an @ExceptionHandler or caught by a view controller never reach the observation
+    // filter, so the http.server.requests exception tag is set here.
+    public static void recordError(Throwable exception) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            recordError(attributes.getRequest(), exception);
+        }
+    }
+
+    public static void recordError(HttpServletRequest request, Throwable exception) {
+        ServerHttpObservationFilter.findObservationContext(request).ifPresent(context -> context.setError(exception));
+    }
+}
@@ -0,0 +1,40 @@
+package com.stage.mongodb.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class JsonArrayReader implements Closeable {
+
+    private final JsonParser parser;
+
+    public JsonArrayReader(ObjectMapper objectMapper, InputStream inputStream) throws IOException {
+        this.parser = objectMapper.getFactory().createParser(inputStream);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("The request body must be a JSON array");
+        }
+    }
+
+    public boolean hasNext() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "The request body ends before the end of the JSON array");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    public JsonNode nextNode() throws IOException {
+        return parser.readValueAsTree();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
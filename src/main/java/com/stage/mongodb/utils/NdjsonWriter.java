@@ -0,0 +1,33 @@
+package com.stage.mongodb.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class NdjsonWriter implements Closeable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter objectWriter;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.setRootValueSeparator(null);
+    }
+
+    public void write(Object value) throws IOException {
+        objectWriter.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.stage.mongodb.utils;
+
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public record ResourceVersion(String eTag, Instant lastModified) {
+
+    public static ResourceVersion of(Movie movie) {
+        RatingStats stats = movie.getStats();
+        Instant lastModified = latest(movie.getInsertDate(), movie.getUpdateDate(),
+                stats == null ? null : stats.getUpdateDate());
+        int hash = Objects.hash(movie.getId(), movie.getTitle(), movie.getReleaseDate(),
+                millis(movie.getInsertDate()), millis(movie.getUpdateDate()),
+                stats == null ? null : stats.getReviewCount(),
+                stats == null ? null : stats.getRatingSum(),
+                stats == null ? null : stats.getHistogram());
+        return new ResourceVersion(eTag(lastModified, hash), lastModified);
+    }
+
+    public static ResourceVersion of(Review review, Movie movie) {
+        ResourceVersion movieVersion = of(movie);
+        Instant lastModified = latest(review.getInsertDate(), review.getUpdateDate(), movieVersion.lastModified());
+        int hash = Objects.hash(review.getId(), review.getMovieId(), review.getRating(), review.getComment(),
+                millis(review.getInsertDate()), millis(review.getUpdateDate()), movieVersion.eTag());
+        return new ResourceVersion(eTag(lastModified, hash), lastModified);
+    }
+
+    // Every write, deletes included, bumps the version document of the collections it changes, so the stamp moves
+    // forward with any change to them. A collection never written yet has no document and counts as version 0.
+    public static ResourceVersion ofCollections(List<String> ids, List<CollectionVersion> versions) {
+        Map<String, CollectionVersion> versionById = versions.stream()
+                .collect(Collectors.toMap(CollectionVersion::getId, Function.identity()));
+        Instant lastModified = latest(versions.stream().map(CollectionVersion::getUpdateDate).toArray(Instant[]::new));
+        int hash = Objects.hash(ids.stream()
+                .map(id -> versionById.containsKey(id) ? versionById.get(id).getVersion() : 0L)
+                .toArray());
+        return new ResourceVersion(eTag(lastModified, hash), lastModified);
+    }
+
+    private static Long millis(Instant instant) {
+        return instant == null ? null : instant.toEpochMilli();
+    }
+
+    private static Instant latest(Instant... instants) {
+        Instant latest = Instant.EPOCH;
+        for (Instant instant : instants) {
+            if (instant != null && instant.isAfter(latest)) {
+                latest = instant;
+            }
+        }
+        return latest.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static String eTag(Instant lastModified, int hash) {
+        return Long.toHexString(lastModified.toEpochMilli()) + "-" + Integer.toHexString(hash);
+    }
+}
@@ -0,0 +1,58 @@
+package com.stage.mongodb.utils;
+
+import com.mongodb.MongoExecutionTimeoutException;
+import com.stage.mongodb.exceptions.SearchTimeoutException;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+
+import java.util.function.Supplier;
+
+public final class TextSearch {
+
+    public static final int MAX_RESULTS = 200;
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_QUERY_LENGTH = 100;
+    public static final long TIMEOUT_MS = 2000;
+
+    private static final String SCORE_FIELD = "score";
+
+    private TextSearch() {
+    }
+
+    public static TextCriteria criteria(String query) {
+        if (query == null || query.isBlank() || query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("The query must contain between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        return TextCriteria.forDefaultLanguage().matching(query);
+    }
+
+    public static Pageable pageable(int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0 || (page + 1L) * size > MAX_RESULTS) {
+            throw new IllegalArgumentException("Only the first " + MAX_RESULTS + " results can be requested");
+        }
+        return PageRequest.of(page, size, Sort.by(SCORE_FIELD));
+    }
+
+    public static boolean hasNext(Slice<?> slice) {
+        return slice.hasNext() && (slice.getNumber() + 2L) * slice.getSize() <= MAX_RESULTS;
+    }
+
+    public static <T> T withTimeout(Supplier<T> search) {
+        try {
+            return search.get();
+        } catch (DataAccessException exception) {
+            if (NestedExceptionUtils.getMostSpecificCause(exception) instanceof MongoExecutionTimeoutException) {
+                throw new SearchTimeoutException("The search took longer than " + TIMEOUT_MS + " ms", exception);
+            }
+            throw exception;
+        }
+    }
+}
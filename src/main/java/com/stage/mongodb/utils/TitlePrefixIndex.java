@@ -0,0 +1,305 @@
+package com.stage.mongodb.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+// Titles are kept in sorted arrays, compact to hold and to search. Writes go to a small sorted overlay that hides
+// the array rows of the ids it changes; the overlay is merged into new arrays once it outgrows a fraction of the
+// index, so a single write updates the overlay in log time instead of copying the arrays.
+public final class TitlePrefixIndex {
+
+    public record Entry(String id, String title) {
+    }
+
+    static final int MIN_MERGE_THRESHOLD = 1024;
+    static final int MERGE_DIVISOR = 32;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final int REFERENCE_BYTES = 4;
+    private static final int INT_BYTES = 4;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+    private static final int TREE_NODE_BYTES = 40;
+    private static final int HASH_NODE_BYTES = 48;
+    private static final Comparator<String[]> ROW_ORDER =
+            Comparator.<String[], String>comparing(row -> row[0]).thenComparing(row -> row[2]);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Rows written since the last merge, in the order of the arrays.
+    private final TreeSet<String[]> added = new TreeSet<>(ROW_ORDER);
+    // Ids written since the last merge, mapped to their overlay row or to null once removed.
+    private final Map<String, String[]> changes = new HashMap<>();
+
+    private String[] keys;
+    private String[] titles;
+    private String[] ids;
+    // Array positions ordered by id, to find the row of an id by binary search.
+    private int[] positionsById;
+    private long arrayBytes;
+    private int size;
+
+    private TitlePrefixIndex(String[] keys, String[] titles, String[] ids) {
+        replaceArrays(keys, titles, ids);
+    }
+
+    public static TitlePrefixIndex empty() {
+        return new TitlePrefixIndex(new String[0], new String[0], new String[0]);
+    }
+
+    public static TitlePrefixIndex of(Collection<Entry> entries) {
+        List<String[]> rows = new ArrayList<>(entries.size());
+        entries.forEach(entry -> rows.add(row(entry.id(), entry.title())));
+        rows.sort(ROW_ORDER);
+
+        String[] keys = new String[rows.size()];
+        String[] titles = new String[rows.size()];
+        String[] ids = new String[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            keys[i] = rows.get(i)[0];
+            titles[i] = rows.get(i)[1];
+            ids[i] = rows.get(i)[2];
+        }
+        return new TitlePrefixIndex(keys, titles, ids);
+    }
+
+    public static String normalize(String text) {
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutMarks).replaceAll(" ").stripLeading().toLowerCase(Locale.ROOT);
+    }
+
+    private static String[] row(String id, String title) {
+        String key = normalize(title).stripTrailing();
+        return new String[]{key, title.equals(key) ? key : title, id};
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Entry> search(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        lock.readLock().lock();
+        try {
+            List<Entry> matches = new ArrayList<>(Math.min(limit, size));
+            RowCursor rows = new RowCursor(lowerBound(normalizedPrefix, ""),
+                    added.tailSet(new String[]{normalizedPrefix, null, ""}).iterator());
+            for (String[] row = rows.next(); row != null && matches.size() < limit; row = rows.next()) {
+                if (!row[0].startsWith(normalizedPrefix)) {
+                    break;
+                }
+                matches.add(new Entry(row[2], row[1]));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Returns false when the id is already indexed under that title.
+    public boolean put(String id, String title) {
+        String[] row = row(id, title);
+        lock.writeLock().lock();
+        try {
+            if (title.equals(titleOf(id))) {
+                return false;
+            }
+            write(id, row);
+            mergeIfLarge();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A bulk import is written to the overlay as a whole and merged at most once.
+    public void putAll(Collection<Entry> entries) {
+        List<String[]> rows = new ArrayList<>(entries.size());
+        entries.forEach(entry -> rows.add(row(entry.id(), entry.title())));
+        lock.writeLock().lock();
+        try {
+            rows.forEach(row -> write(row[2], row));
+            mergeIfLarge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            write(id, null);
+            mergeIfLarge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = arrayBytes + (long) HASH_NODE_BYTES * changes.size();
+            for (String[] row : added) {
+                bytes += TREE_NODE_BYTES + ARRAY_HEADER_BYTES + 3L * REFERENCE_BYTES + rowBytes(row[0], row[1], row[2]);
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private String titleOf(String id) {
+        if (changes.containsKey(id)) {
+            String[] row = changes.get(id);
+            return row == null ? null : row[1];
+        }
+        int position = positionOf(id);
+        return position < 0 ? null : titles[position];
+    }
+
+    private void write(String id, String[] row) {
+        boolean present;
+        if (changes.containsKey(id)) {
+            String[] previous = changes.get(id);
+            present = previous != null;
+            if (present) {
+                added.remove(previous);
+            }
+        } else {
+            present = positionOf(id) >= 0;
+        }
+        changes.put(id, row);
+        if (row != null) {
+            added.add(row);
+        }
+        size += (row != null ? 1 : 0) - (present ? 1 : 0);
+    }
+
+    private void mergeIfLarge() {
+        if (changes.size() <= Math.max(MIN_MERGE_THRESHOLD, ids.length / MERGE_DIVISOR)) {
+            return;
+        }
+        String[] mergedKeys = new String[size];
+        String[] mergedTitles = new String[size];
+        String[] mergedIds = new String[size];
+        RowCursor rows = new RowCursor(0, added.iterator());
+        for (int i = 0; i < size; i++) {
+            String[] row = rows.next();
+            mergedKeys[i] = row[0];
+            mergedTitles[i] = row[1];
+            mergedIds[i] = row[2];
+        }
+        replaceArrays(mergedKeys, mergedTitles, mergedIds);
+        added.clear();
+        changes.clear();
+    }
+
+    private void replaceArrays(String[] keys, String[] titles, String[] ids) {
+        this.keys = keys;
+        this.titles = titles;
+        this.ids = ids;
+        this.positionsById = IntStream.range(0, ids.length).boxed()
+                .sorted(Comparator.comparing(position -> ids[position]))
+                .mapToInt(Integer::intValue).toArray();
+        this.size = ids.length;
+
+        long bytes = 3L * (ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * ids.length)
+                + ARRAY_HEADER_BYTES + (long) INT_BYTES * ids.length;
+        for (int i = 0; i < ids.length; i++) {
+            bytes += rowBytes(keys[i], titles[i], ids[i]);
+        }
+        this.arrayBytes = bytes;
+    }
+
+    private int positionOf(String id) {
+        int low = 0;
+        int high = positionsById.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = ids[positionsById[middle]].compareTo(id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return positionsById[middle];
+            }
+        }
+        return -1;
+    }
+
+    private int lowerBound(String key, String id) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = keys[middle].compareTo(key);
+            if (comparison < 0 || (comparison == 0 && ids[middle].compareTo(id) < 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String key, String id, String[] row) {
+        int comparison = key.compareTo(row[0]);
+        return comparison != 0 ? comparison : id.compareTo(row[2]);
+    }
+
+    private static long rowBytes(String key, String title, String id) {
+        return stringBytes(key) + stringBytes(id) + (title != key ? stringBytes(title) : 0);
+    }
+
+    private static long stringBytes(String value) {
+        boolean latin1 = value.chars().allMatch(character -> character < 256);
+        long contentBytes = ARRAY_HEADER_BYTES + (long) value.length() * (latin1 ? 1 : 2);
+        return STRING_BYTES + ((contentBytes + 7) & ~7L);
+    }
+
+    // Walks the array rows not hidden by the overlay and the overlay rows together, in index order.
+    private final class RowCursor {
+
+        private final Iterator<String[]> overlay;
+        private int position;
+        private String[] nextAdded;
+
+        private RowCursor(int position, Iterator<String[]> overlay) {
+            this.position = position;
+            this.overlay = overlay;
+            this.nextAdded = overlay.hasNext() ? overlay.next() : null;
+        }
+
+        private String[] next() {
+            while (position < ids.length && changes.containsKey(ids[position])) {
+                position++;
+            }
+            if (position < ids.length
+                    && (nextAdded == null || compare(keys[position], ids[position], nextAdded) < 0)) {
+                String[] row = {keys[position], titles[position], ids[position]};
+                position++;
+                return row;
+            }
+            String[] row = nextAdded;
+            nextAdded = overlay.hasNext() ? overlay.next() : null;
+            return row;
+        }
+    }
+}
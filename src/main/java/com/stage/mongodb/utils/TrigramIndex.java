@@ -0,0 +1,330 @@
+package com.stage.mongodb.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+public final class TrigramIndex {
+
+    public record Match(String id, String title, double similarity) {
+    }
+
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble(Match::similarity)
+            .thenComparing(Match::id, Comparator.reverseOrder());
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int INITIAL_POSTINGS = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Counters sized by the whole index are reused through a pool as large as the CPU count, instead of one per
+    // request thread. A search finding the pool empty counts in a fresh array that is dropped afterwards.
+    private final ArrayBlockingQueue<Scratch> scratchPool =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    private final Map<String, Integer> slotsById = new HashMap<>();
+
+    private long[] trigramKeys = new long[INITIAL_CAPACITY];
+    private int[] trigramPostings = new int[INITIAL_CAPACITY];
+    private int trigramCount;
+
+    private int[][] postings = new int[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] trigramCounts = new int[INITIAL_CAPACITY];
+    private int slotCount;
+    private int[] freeSlots = new int[INITIAL_POSTINGS];
+    private int freeCount;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trigrams() {
+        lock.readLock().lock();
+        try {
+            return trigramCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(String id, String title) {
+        long[] documentTrigrams = trigrams(title);
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+            int slot = freeCount > 0 ? freeSlots[--freeCount] : nextSlot();
+            ids[slot] = id;
+            titles[slot] = title;
+            trigramCounts[slot] = documentTrigrams.length;
+            slotsById.put(id, slot);
+            for (long trigram : documentTrigrams) {
+                append(postingFor(trigram), slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeSlot(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Match> search(String query, int limit, double minSimilarity) {
+        long[] queryTrigrams = trigrams(query);
+        if (queryTrigrams.length == 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] queryPostings = new int[queryTrigrams.length];
+            int found = 0;
+            for (long trigram : queryTrigrams) {
+                int posting = findPosting(trigram);
+                if (posting >= 0) {
+                    queryPostings[found++] = posting;
+                }
+            }
+            sortBySize(queryPostings, found);
+
+            // A title reaching minSimilarity shares at least minShared trigrams with the query, so it
+            // must appear in one of the rarest (length - minShared + 1) postings: only those add candidates.
+            int minShared = Math.max(1, (int) Math.ceil(minSimilarity * queryTrigrams.length));
+            int candidatePostings = Math.min(found, queryTrigrams.length - minShared + 1);
+
+            Scratch counters = scratchPool.poll();
+            if (counters == null) {
+                counters = new Scratch();
+            }
+            counters.ensureCapacity(slotCount);
+            for (int p = 0; p < found; p++) {
+                int[] slots = postings[queryPostings[p]];
+                int size = postingSizes[queryPostings[p]];
+                if (p < candidatePostings) {
+                    for (int i = 0; i < size; i++) {
+                        counters.hit(slots[i]);
+                    }
+                } else {
+                    for (int i = 0; i < size; i++) {
+                        counters.hitCandidate(slots[i]);
+                    }
+                }
+            }
+            List<Match> matches = rank(counters, queryTrigrams.length, limit, minSimilarity);
+            scratchPool.offer(counters);
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void sortBySize(int[] queryPostings, int count) {
+        for (int i = 1; i < count; i++) {
+            int posting = queryPostings[i];
+            int j = i - 1;
+            while (j >= 0 && postingSizes[queryPostings[j]] > postingSizes[posting]) {
+                queryPostings[j + 1] = queryPostings[j];
+                j--;
+            }
+            queryPostings[j + 1] = posting;
+        }
+    }
+
+    private List<Match> rank(Scratch counters, int queryTrigrams, int limit, double minSimilarity) {
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        for (int i = 0; i < counters.touchedCount; i++) {
+            int slot = counters.touched[i];
+            int shared = counters.hits[slot];
+            counters.hits[slot] = 0;
+            double similarity = (double) shared / (queryTrigrams + trigramCounts[slot] - shared);
+            if (similarity < minSimilarity) {
+                continue;
+            }
+            if (best.size() < limit || similarity > best.peek().similarity()) {
+                best.add(new Match(ids[slot], titles[slot], similarity));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        counters.touchedCount = 0;
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(WORST_FIRST.reversed());
+        return matches;
+    }
+
+    public static long[] trigrams(String text) {
+        String normalized = TitlePrefixIndex.normalize(text);
+        long[] trigrams = new long[normalized.length() + 2];
+        int count = 0;
+        for (String word : NON_ALPHANUMERIC.split(normalized)) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            if (count + padded.length() > trigrams.length) {
+                trigrams = Arrays.copyOf(trigrams, (count + padded.length()) * 2);
+            }
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams[count++] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16)
+                        | padded.charAt(i + 2);
+            }
+        }
+
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private void removeSlot(String id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        for (long trigram : trigrams(titles[slot])) {
+            int posting = findPosting(trigram);
+            int[] slots = postings[posting];
+            int size = postingSizes[posting];
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[size - 1];
+                    postingSizes[posting] = size - 1;
+                    break;
+                }
+            }
+        }
+        ids[slot] = null;
+        titles[slot] = null;
+        trigramCounts[slot] = 0;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private int nextSlot() {
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void append(int posting, int slot) {
+        int[] slots = postings[posting];
+        int size = postingSizes[posting];
+        if (size == slots.length) {
+            slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            postings[posting] = slots;
+        }
+        slots[size] = slot;
+        postingSizes[posting] = size + 1;
+    }
+
+    private int findPosting(long trigram) {
+        int mask = trigramKeys.length - 1;
+        for (int i = hash(trigram) & mask; trigramKeys[i] != 0; i = (i + 1) & mask) {
+            if (trigramKeys[i] == trigram) {
+                return trigramPostings[i];
+            }
+        }
+        return -1;
+    }
+
+    private int postingFor(long trigram) {
+        int posting = findPosting(trigram);
+        if (posting >= 0) {
+            return posting;
+        }
+        if ((trigramCount + 1) * 2 > trigramKeys.length) {
+            growTrigrams();
+        }
+        if (trigramCount == postings.length) {
+            postings = Arrays.copyOf(postings, trigramCount * 2);
+            postingSizes = Arrays.copyOf(postingSizes, trigramCount * 2);
+        }
+        posting = trigramCount++;
+        postings[posting] = new int[INITIAL_POSTINGS];
+        insertKey(trigramKeys, trigramPostings, trigram, posting);
+        return posting;
+    }
+
+    private void growTrigrams() {
+        long[] keys = new long[trigramKeys.length * 2];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < trigramKeys.length; i++) {
+            if (trigramKeys[i] != 0) {
+                insertKey(keys, values, trigramKeys[i], trigramPostings[i]);
+            }
+        }
+        trigramKeys = keys;
+        trigramPostings = values;
+    }
+
+    private static void insertKey(long[] keys, int[] values, long key, int value) {
+        int mask = keys.length - 1;
+        int i = hash(key) & mask;
+        while (keys[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static final class Scratch {
+        private int[] hits = new int[0];
+        private int[] touched = new int[0];
+        private int touchedCount;
+
+        private void ensureCapacity(int slots) {
+            if (hits.length < slots) {
+                hits = new int[slots];
+                touched = new int[slots];
+            }
+        }
+
+        private void hit(int slot) {
+            if (hits[slot]++ == 0) {
+                touched[touchedCount++] = slot;
+            }
+        }
+
+        private void hitCandidate(int slot) {
+            if (hits[slot] > 0) {
+                hits[slot]++;
+            }
+        }
+    }
+}
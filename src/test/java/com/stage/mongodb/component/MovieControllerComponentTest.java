@@ -1,37 +1,71 @@
 package com.stage.mongodb.component;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.stage.mongodb.config.BinaryFormatsConfig;
+import com.stage.mongodb.config.HttpCaching;
 import com.stage.mongodb.controller.MovieController;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.LeaderboardEntryDto;
+import com.stage.mongodb.dto.LeaderboardDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MovieMatchDto;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.SearchTimeoutException;
+import com.stage.mongodb.service.LeaderboardService;
 import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.MovieSuggestService;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(MovieController.class)
+@Import(HttpCaching.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
 public class MovieControllerComponentTest {
 
+    private static final ResourceVersion VERSION = new ResourceVersion("18d2b7c5a00-1f", Instant.parse("2024-12-24T10:00:00Z"));
+
     private MockMvc mockMvc;
 
     private ObjectMapper objectMapper;
@@ -39,10 +73,25 @@ public class MovieControllerComponentTest {
     @MockitoBean
     private MovieService movieService;
 
+    @MockitoBean
+    private RatingStatsService ratingStatsService;
+
+    @MockitoBean
+    private LeaderboardService leaderboardService;
+
+    @MockitoBean
+    private MovieSuggestService movieSuggestService;
+
     private MovieDto movie;
     private MovieDtoInput input;
     private MoviePatchDto patchDto;
 
+    @BeforeEach
+    void stubVersions() {
+        when(movieService.getMoviesVersion()).thenReturn(VERSION);
+        when(movieService.getMovieVersion(anyString())).thenReturn(VERSION);
+    }
+
     @BeforeAll
     void setup(WebApplicationContext webApplicationContext) {
 
@@ -259,5 +308,228 @@ public class MovieControllerComponentTest {
                 .andExpect(jsonPath("$.message").value("ONE OR MORE FIELDS ARE ILLEGAL ARGUMENTS"));
     }
 
+    @Test
+    void testGetMoviesPage() throws Exception {
+
+        CursorPageDto<MovieDto> page = CursorPageDto.<MovieDto>builder()
+                .items(List.of(movie))
+                .nextCursor("MTIz")
+                .build();
+
+        when(movieService.getMoviesPage(null, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/api/movie/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("123"))
+                .andExpect(jsonPath("$.nextCursor").value("MTIz"));
+
+        verify(movieService).getMoviesPage(null, 20);
+    }
+
+    @Test
+    void testGetMoviesPage_InvalidLimit() throws Exception {
+
+        when(movieService.getMoviesPage(null, 0)).thenThrow(new IllegalArgumentException("The limit must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/movie/page").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExportMovies() throws Exception {
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":\"123\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(movieService).exportMovies(any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/movie/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":\"123\"}\n"));
+
+        verify(movieService).exportMovies(any(OutputStream.class));
+    }
+
+    @Test
+    void testInsertBulk() throws Exception {
+
+        when(movieService.insertMovies(any(InputStream.class))).thenReturn(List.of(
+                BulkItemResultDto.builder().index(0).id("123").build(),
+                BulkItemResultDto.builder().index(1).error("The title cannot be empty or contain only spaces").build()));
+
+        mockMvc.perform(post("/api/movie/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\": \"New Movie\", \"releaseDate\": \"2024-12-25\"}, {\"title\": \"\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("123"))
+                .andExpect(jsonPath("$[1].error").exists());
+
+        verify(movieService).insertMovies(any(InputStream.class));
+    }
+
+    @Test
+    void testGetMovieStats() throws Exception {
+
+        RatingStatsDto ratingStatsDto = RatingStatsDto.builder()
+                .reviewCount(2).averageRating(4.5).histogram(Map.of(4, 1L, 5, 1L)).build();
+        when(movieService.getMovieStats("123")).thenReturn(ratingStatsDto);
+
+        mockMvc.perform(get("/api/movie/stats").param("id", "123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reviewCount").value(2))
+                .andExpect(jsonPath("$.averageRating").value(4.5))
+                .andExpect(jsonPath("$.histogram.5").value(1));
+    }
+
+    @Test
+    void testGetMovieStats_NotFound() throws Exception {
+
+        when(movieService.getMovieStats("123")).thenThrow(new MovieNotFoundException("Movie with ID 123 does not exist"));
+
+        mockMvc.perform(get("/api/movie/stats").param("id", "123"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRebuildStats() throws Exception {
+
+        when(ratingStatsService.startRebuild()).thenReturn(true);
+
+        mockMvc.perform(post("/api/movie/stats/rebuild"))
+                .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void testGetLeaderboard() throws Exception {
+
+        LeaderboardEntryDto entry = LeaderboardEntryDto.builder()
+                .id("123").title("New Movie").reviewCount(10).averageRating(4.8).weeklyReviewCount(3).build();
+        when(leaderboardService.getLeaderboard(10, 20)).thenReturn(LeaderboardDto.builder()
+                .topRated(List.of(entry)).mostReviewedThisWeek(List.of(entry)).build());
+
+        mockMvc.perform(get("/api/movie/leaderboard").param("minReviews", "10").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.topRated[0].averageRating").value(4.8))
+                .andExpect(jsonPath("$.mostReviewedThisWeek[0].weeklyReviewCount").value(3));
+
+        verify(leaderboardService).getLeaderboard(10, 20);
+    }
+
+    @Test
+    void testGetLeaderboard_InvalidLimit() throws Exception {
+
+        when(leaderboardService.getLeaderboard(5, 500)).thenThrow(new IllegalArgumentException("The limit must be between 1 and 100"));
+
+        mockMvc.perform(get("/api/movie/leaderboard").param("limit", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchMovies() throws Exception {
+
+        SearchPageDto<MovieDto> page = SearchPageDto.<MovieDto>builder()
+                .items(List.of(movie))
+                .page(0)
+                .size(20)
+                .hasNext(true)
+                .build();
+
+        when(movieService.searchMovies("matrix", 0, 20)).thenReturn(page);
+
+        mockMvc.perform(get("/api/movie/search").param("q", "matrix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("123"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(movieService).searchMovies("matrix", 0, 20);
+    }
+
+    @Test
+    void testSearchMovies_Timeout() throws Exception {
+
+        when(movieService.searchMovies("matrix", 0, 20))
+                .thenThrow(new SearchTimeoutException("The search took longer than 2000 ms", null));
+
+        mockMvc.perform(get("/api/movie/search").param("q", "matrix"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("The search took longer than 2000 ms"));
+    }
+
+    @Test
+    void testSuggestMovies() throws Exception {
+
+        when(movieSuggestService.suggest("inc", 10))
+                .thenReturn(List.of(MovieSuggestionDto.builder().id("123").title("Inception").build()));
+
+        mockMvc.perform(get("/api/movie/suggest").param("prefix", "inc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("123"))
+                .andExpect(jsonPath("$[0].title").value("Inception"));
+
+        verify(movieSuggestService).suggest("inc", 10);
+    }
+
+    @Test
+    void testFuzzySearchMovies() throws Exception {
+
+        when(movieSuggestService.fuzzySearch("godfater", 10))
+                .thenReturn(List.of(MovieMatchDto.builder().id("123").title("The Godfather").similarity(0.5).build()));
+
+        mockMvc.perform(get("/api/movie/search/fuzzy").param("q", "godfater"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title").value("The Godfather"))
+                .andExpect(jsonPath("$[0].similarity").value(0.5));
+
+        verify(movieSuggestService).fuzzySearch("godfater", 10);
+    }
+
 
+    @Test
+    void testGetMovieById_NotModified() throws Exception {
+
+        mockMvc.perform(get("/api/movie").param("id", "123")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION.eTag() + "\""))
+                .andExpect(content().string(""));
+
+        verify(movieService, never()).getMovieById("123");
+    }
+
+
+    @Test
+    void testInsertMovie_MessagePackRequestSmileResponse() throws Exception {
+
+        when(movieService.insertMovie(input)).thenReturn(movie);
+
+        MvcResult result = mockMvc.perform(post("/api/movie")
+                        .contentType(BinaryFormatsConfig.APPLICATION_MSGPACK)
+                        .accept(BinaryFormatsConfig.APPLICATION_SMILE)
+                        .content(new ObjectMapper(new MessagePackFactory()).writeValueAsBytes(input)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andReturn();
+
+        JsonNode created = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(created.get("id").asText()).isEqualTo("123");
+        assertThat(created.get("title").asText()).isEqualTo("Test Movie");
+        verify(movieService).insertMovie(input);
+    }
+
+    @Test
+    void testGetMovieById_DefaultsToJson() throws Exception {
+
+        when(movieService.getMovieById("123")).thenReturn(movie);
+
+        mockMvc.perform(get("/api/movie").param("id", "123").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION.eTag() + "\""));
+    }
 }
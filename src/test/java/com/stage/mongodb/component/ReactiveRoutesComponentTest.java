@@ -0,0 +1,222 @@
+package com.stage.mongodb.component;
+
+import com.stage.mongodb.config.ReactiveRoutesConfig;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.ReviewNotFoundException;
+import com.stage.mongodb.handler.MovieHandler;
+import com.stage.mongodb.handler.ReviewHandler;
+import com.stage.mongodb.service.LeaderboardService;
+import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.MovieSuggestService;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.service.ReactiveMovieService;
+import com.stage.mongodb.service.ReactiveReviewService;
+import com.stage.mongodb.service.ReviewService;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+public class ReactiveRoutesComponentTest {
+
+    private final ReactiveMovieService reactiveMovieService = mock(ReactiveMovieService.class);
+    private final ReactiveReviewService reactiveReviewService = mock(ReactiveReviewService.class);
+    private final MovieService movieService = mock(MovieService.class);
+    private final MovieSuggestService movieSuggestService = mock(MovieSuggestService.class);
+    private final RatingStatsService ratingStatsService = mock(RatingStatsService.class);
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        var validator = Validation.buildDefaultValidatorFactory().getValidator();
+        MovieHandler movieHandler = new MovieHandler(reactiveMovieService, movieService, movieSuggestService,
+                ratingStatsService, mock(LeaderboardService.class), validator);
+        ReviewHandler reviewHandler = new ReviewHandler(reactiveReviewService, mock(ReviewService.class), validator);
+        webTestClient = WebTestClient.bindToRouterFunction(new ReactiveRoutesConfig().routes(movieHandler, reviewHandler))
+                .build();
+    }
+
+    @Test
+    void testGetMovieById() {
+        MovieDto movieDto = MovieDto.builder().id("1").title("Inception").build();
+        when(reactiveMovieService.getMovieById("1")).thenReturn(Mono.just(movieDto));
+
+        webTestClient.get().uri("/api/movie?id=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Inception");
+    }
+
+    @Test
+    void testGetMovieById_NotFound() {
+        when(reactiveMovieService.getMovieById("1")).thenReturn(Mono.error(new MovieNotFoundException("Movie with ID 1 does not exist")));
+
+        webTestClient.get().uri("/api/movie?id=1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Movie with ID 1 does not exist")
+                .jsonPath("$.details").isEqualTo("uri=/api/movie")
+                .jsonPath("$.error_code").isEqualTo("MOVIE NOT FOUND");
+    }
+
+    @Test
+    void testGetMoviesPage() {
+        when(reactiveMovieService.getMoviesPage(null, 20)).thenReturn(Mono.just(
+                CursorPageDto.<MovieDto>builder().items(List.of(MovieDto.builder().id("1").build())).build()));
+
+        webTestClient.get().uri("/api/movie/page")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo("1");
+    }
+
+    @Test
+    void testGetMoviesPage_MalformedLimit() {
+        webTestClient.get().uri("/api/movie/page?limit=abc")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("ONE OR MORE FIELDS ARE ILLEGAL ARGUMENTS");
+    }
+
+    @Test
+    void testSuggestMovies_MissingPrefix() {
+        webTestClient.get().uri("/api/movie/suggest")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error_code").isEqualTo("BAD REQUEST, ARGUMENT NOT VALID");
+        verifyNoInteractions(movieSuggestService);
+    }
+
+    @Test
+    void testSuggestMovies() {
+        when(movieSuggestService.suggest("inc", 10)).thenReturn(List.of(MovieSuggestionDto.builder().id("1").title("Inception").build()));
+
+        webTestClient.get().uri("/api/movie/suggest?prefix=inc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].title").isEqualTo("Inception");
+    }
+
+    @Test
+    void testInsertMovie() {
+        MovieDtoInput movieDtoInput = MovieDtoInput.builder().title("Inception").releaseDate("2010-07-16").build();
+        when(reactiveMovieService.insertMovie(movieDtoInput)).thenReturn(Mono.just(MovieDto.builder().id("1").build()));
+
+        webTestClient.post().uri("/api/movie")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(movieDtoInput)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo("1");
+    }
+
+    @Test
+    void testInsertMovie_InvalidBody() {
+        webTestClient.post().uri("/api/movie")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(MovieDtoInput.builder().title(" ").releaseDate("yesterday").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("ONE OR MORE FIELDS DO NOT RESPECT VALIDATION");
+        verifyNoInteractions(reactiveMovieService);
+    }
+
+    @Test
+    void testInsertMoviesBulk_StreamsTheBody() throws Exception {
+        List<String> chunks = IntStream.range(0, 1_000)
+                .mapToObj(i -> (i == 0 ? "[" : ",") + "{\"title\":\"Movie " + i + "\",\"releaseDate\":\"2010-07-16\"}")
+                .collect(Collectors.toCollection(ArrayList::new));
+        chunks.add("]");
+        StringBuilder received = new StringBuilder();
+        when(movieService.insertMovies(any(InputStream.class))).thenAnswer(invocation -> {
+            received.append(new String(invocation.getArgument(0, InputStream.class).readAllBytes(), StandardCharsets.UTF_8));
+            return List.of(BulkItemResultDto.builder().index(0).id("1").build());
+        });
+
+        webTestClient.post().uri("/api/movie/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Flux.fromIterable(chunks).map(chunk ->
+                        DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8))), DataBuffer.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo("1");
+        assertThat(received.toString()).isEqualTo(String.join("", chunks));
+    }
+
+    @Test
+    void testRebuildStats_AlreadyRunning() {
+        when(ratingStatsService.startRebuild()).thenReturn(false);
+
+        webTestClient.post().uri("/api/movie/stats/rebuild")
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    @Test
+    void testDeleteMovie() {
+        when(reactiveMovieService.deleteMovie("1")).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri("/api/movie?id=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+        verify(reactiveMovieService).deleteMovie("1");
+    }
+
+    @Test
+    void testExportReviews() {
+        when(reactiveReviewService.getReviews()).thenReturn(Flux.just(
+                ReviewDto.builder().id("1").build(), ReviewDto.builder().id("2").build()));
+
+        webTestClient.get().uri("/api/review/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(ReviewDto.class).hasSize(2);
+    }
+
+    @Test
+    void testDeleteReview_NotFound() {
+        when(reactiveReviewService.deleteReview("1")).thenReturn(Mono.error(new ReviewNotFoundException("Review not found")));
+
+        webTestClient.delete().uri("/api/review?id=1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error_code").isEqualTo("REVIEW NOT FOUND");
+    }
+}
@@ -1,37 +1,56 @@
 package com.stage.mongodb.component;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.stage.mongodb.config.HttpCaching;
 import com.stage.mongodb.controller.ReviewController;
 import com.stage.mongodb.dto.*;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
 import com.stage.mongodb.exceptions.ReviewNotFoundException;
 import com.stage.mongodb.service.ReviewService;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ReviewController.class)
+@Import(HttpCaching.class)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
 public class ReviewControllerComponentTest {
 
 
+    private static final ResourceVersion VERSION = new ResourceVersion("18d2b7c5a00-1f", Instant.parse("2024-12-24T10:00:00Z"));
+
     private MockMvc mockMvc;
 
     private ObjectMapper objectMapper;
@@ -44,6 +63,12 @@ public class ReviewControllerComponentTest {
     private ReviewDtoUpdate update;
     private ReviewPatchDto patch;
 
+    @BeforeEach
+    void stubVersions() {
+        when(reviewService.getReviewsVersion()).thenReturn(VERSION);
+        when(reviewService.getReviewVersion(anyString())).thenReturn(VERSION);
+    }
+
     @BeforeAll
     void setUp(WebApplicationContext webApplicationContext) {
 
@@ -242,6 +267,20 @@ public class ReviewControllerComponentTest {
         verify(reviewService).updateReviewPartial("999", patch);
     }
 
+    @Test
+    void testUpdateReviewPartial_RatingOutOfRange() throws Exception {
+        mockMvc.perform(patch("/api/review").param("id", "123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\": 7}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/review").param("id", "123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\": 0}"))
+                .andExpect(status().isBadRequest());
+
+        verify(reviewService, never()).updateReviewPartial(anyString(), any());
+    }
+
     @Test
     void testDeleteReview_NotFound() throws Exception {
         doThrow(new ReviewNotFoundException("Review with ID 999 not found for the deletion"))
@@ -291,4 +330,118 @@ public class ReviewControllerComponentTest {
                 .andExpect(jsonPath("$.message").value("ONE OR MORE FIELDS ARE ILLEGAL ARGUMENTS"));
     }
 
+    @Test
+    void testGetReviewsPage() throws Exception {
+        CursorPageDto<ReviewDto> page = CursorPageDto.<ReviewDto>builder()
+                .items(List.of(review))
+                .build();
+
+        when(reviewService.getReviewsPage("MTIz", 10)).thenReturn(page);
+
+        mockMvc.perform(get("/api/review/page").param("after", "MTIz").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("123"))
+                .andExpect(jsonPath("$.items[0].movieDto.id").value("m1"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(reviewService).getReviewsPage("MTIz", 10);
+    }
+
+    @Test
+    void testExportReviews() throws Exception {
+
+        doAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(0);
+            outputStream.write("{\"id\":\"123\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reviewService).exportReviews(any(OutputStream.class));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/review/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":\"123\"}\n"));
+
+        verify(reviewService).exportReviews(any(OutputStream.class));
+    }
+
+    @Test
+    void testInsertBulk() throws Exception {
+
+        when(reviewService.insertReviews(any(InputStream.class))).thenReturn(List.of(
+                BulkItemResultDto.builder().index(0).id("123").build(),
+                BulkItemResultDto.builder().index(1).error("Movie with ID 456 does not exist").build()));
+
+        mockMvc.perform(post("/api/review/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"rating\": 5, \"comment\": \"Great\", \"movieId\": \"123\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("123"))
+                .andExpect(jsonPath("$[1].error").value("Movie with ID 456 does not exist"));
+
+        verify(reviewService).insertReviews(any(InputStream.class));
+    }
+
+    @Test
+    void testSearchReviews() throws Exception {
+
+        SearchPageDto<ReviewDto> page = SearchPageDto.<ReviewDto>builder()
+                .items(List.of(review))
+                .page(1)
+                .size(5)
+                .build();
+
+        when(reviewService.searchReviews("great", 1, 5)).thenReturn(page);
+
+        mockMvc.perform(get("/api/review/search").param("q", "great").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(reviewService).searchReviews("great", 1, 5);
+    }
+
+
+    @Test
+    void testGetReviews_ConditionalGet() throws Exception {
+
+        when(reviewService.getReviews()).thenReturn(List.of(review));
+
+        mockMvc.perform(get("/api/review/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION.eTag() + "\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0"));
+
+        mockMvc.perform(get("/api/review/all").header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "\""))
+                .andExpect(status().isNotModified());
+
+        verify(reviewService, times(1)).getReviews();
+    }
+
+
+    @Test
+    void testGetReviews_Cbor() throws Exception {
+
+        when(reviewService.getReviews()).thenReturn(List.of(review));
+
+        MvcResult result = mockMvc.perform(get("/api/review/all").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION.eTag() + "-cbor\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn();
+
+        JsonNode reviews = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(reviews).hasSize(1);
+        assertThat(reviews.get(0).get("id").asText()).isEqualTo(review.getId());
+        assertThat(reviews.get(0).get("movieDto").get("id").asText()).isEqualTo(review.getMovieDto().getId());
+
+        mockMvc.perform(get("/api/review/all").accept(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "-cbor\""))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,94 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.controller.MovieController;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.html_controller.MovieHtmlController;
+import com.stage.mongodb.utils.HttpObservations;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.Model;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class HandlerObservationConventionTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ServerHttpObservationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        filter = new ServerHttpObservationFilter(observationRegistry, new HandlerObservationConvention());
+    }
+
+    @Test
+    void testTagsRequestsWithTheHandlerMethod() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new MovieController(null, null, null, null, null),
+                MovieController.class.getMethod("getMovieStats", String.class));
+
+        serve(new MockHttpServletRequest("GET", "/api/movie/stats"), new MockHttpServletResponse(),
+                (request, response) -> request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler));
+
+        assertThat(timer("handler", "MovieController.getMovieStats", "outcome", "SUCCESS", "exception", "none")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testHandledErrorsKeepTheirStatusAndExceptionType() throws Exception {
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+
+        serve(new MockHttpServletRequest("GET", "/api/movie"), notFound, (request, response) -> {
+            HttpObservations.recordError((MockHttpServletRequest) request, new MovieNotFoundException("Not found"));
+            notFound.setStatus(404);
+        });
+
+        assertThat(timer("status", "404", "outcome", "CLIENT_ERROR", "exception", "MovieNotFoundException")
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void testErrorPagesRenderedWithOkCountAsErrors() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new MovieHtmlController(null),
+                MovieHtmlController.class.getMethod("viewMovieDetails", String.class, Model.class));
+
+        serve(new MockHttpServletRequest("GET", "/view/movie/details"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+                    HttpObservations.recordError((MockHttpServletRequest) request, new MovieNotFoundException("Gone"));
+                });
+        serve(new MockHttpServletRequest("GET", "/view/movie/details"), new MockHttpServletResponse(),
+                (request, response) -> {
+                    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+                    HttpObservations.recordError((MockHttpServletRequest) request, new IllegalStateException("Down"));
+                });
+
+        assertThat(timer("handler", "MovieHtmlController.viewMovieDetails", "status", "200", "outcome", "CLIENT_ERROR")
+                .count()).isEqualTo(1);
+        assertThat(timer("handler", "MovieHtmlController.viewMovieDetails", "outcome", "SERVER_ERROR",
+                "exception", "IllegalStateException").count()).isEqualTo(1);
+    }
+
+    private void serve(MockHttpServletRequest request, MockHttpServletResponse response, FilterChain chain)
+            throws Exception {
+        filter.doFilter(request, response, chain);
+    }
+
+    private Timer timer(String... tags) {
+        return meterRegistry.get("http.server.requests").tags(Tags.of(tags)).timer();
+    }
+}
@@ -0,0 +1,58 @@
+package com.stage.mongodb.config;
+
+import com.stage.mongodb.exceptions.ServiceOverloadedException;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class MongoConcurrencyGuardTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testPermitIsReleasedAfterCompletion() throws Exception {
+        MongoConcurrencyGuard guard = new MongoConcurrencyGuard(2, Duration.ofMillis(10));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/review/all");
+
+        assertThat(guard.preHandle(request, response, new Object())).isTrue();
+        assertThat(guard.getAvailablePermits()).isEqualTo(1);
+
+        guard.afterCompletion(request, response, new Object(), null);
+        assertThat(guard.getAvailablePermits()).isEqualTo(2);
+        assertThat(request.getAttribute(MongoConcurrencyGuard.PERMIT_ATTRIBUTE)).isNull();
+    }
+
+    @Test
+    void testRejectsWhenNoPermitIsAvailableInTime() throws Exception {
+        MongoConcurrencyGuard guard = new MongoConcurrencyGuard(1, Duration.ofMillis(10));
+        guard.preHandle(new MockHttpServletRequest("GET", "/api/review/all"), response, new Object());
+
+        MockHttpServletRequest rejected = new MockHttpServletRequest("GET", "/api/review");
+        assertThrows(ServiceOverloadedException.class, () -> guard.preHandle(rejected, response, new Object()));
+
+        guard.afterCompletion(rejected, response, new Object(), null);
+        assertThat(guard.getAvailablePermits()).isZero();
+    }
+
+    @Test
+    void testAsyncDispatchKeepsTheFirstPermit() throws Exception {
+        MongoConcurrencyGuard guard = new MongoConcurrencyGuard(1, Duration.ofMillis(10));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/review/export");
+
+        guard.preHandle(request, response, new Object());
+        guard.afterConcurrentHandlingStarted(request, response, new Object());
+        assertThat(guard.preHandle(request, response, new Object())).isTrue();
+        assertThat(guard.getAvailablePermits()).isZero();
+
+        guard.afterCompletion(request, response, new Object(), null);
+        assertThat(guard.getAvailablePermits()).isEqualTo(1);
+    }
+}
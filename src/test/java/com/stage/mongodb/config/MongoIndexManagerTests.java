@@ -0,0 +1,156 @@
+package com.stage.mongodb.config;
+
+import com.mongodb.client.MongoClients;
+import com.stage.mongodb.model.LeaderboardEntry;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class MongoIndexManagerTests {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
+    @Mock
+    private IndexOperations movieIndexOperations;
+
+    @Mock
+    private IndexOperations reviewIndexOperations;
+
+    @Mock
+    private IndexOperations leaderboardIndexOperations;
+
+    @Captor
+    private ArgumentCaptor<IndexDefinition> indexDefinitionCaptor;
+
+    private MongoTemplate mongoTemplate;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        mongoTemplate = spy(new MongoTemplate(MongoClients.create("mongodb://localhost:27017"), "test"));
+        doReturn(movieIndexOperations).when(mongoTemplate).indexOps(Movie.class);
+        doReturn(reviewIndexOperations).when(mongoTemplate).indexOps(Review.class);
+        doReturn(leaderboardIndexOperations).when(mongoTemplate).indexOps(LeaderboardEntry.class);
+        when(leaderboardIndexOperations.getIndexInfo()).thenReturn(
+                List.of(indexInfo("_id_"), indexInfo("averageRating_reviewCount"), indexInfo("weeklyReviewCount")));
+    }
+
+    private MongoIndexManager indexManager(boolean requiredForReadiness) {
+        return new MongoIndexManager(mongoTemplate, eventPublisher, taskExecutor, true, requiredForReadiness,
+                Duration.ofMillis(1));
+    }
+
+    private static IndexInfo indexInfo(String name) {
+        return IndexInfo.indexInfoOf(new Document("name", name).append("key", new Document(name, 1)));
+    }
+
+    @Test
+    void testEnsureIndexesCreatesOnlyMissingIndexes() {
+        when(movieIndexOperations.getIndexInfo())
+                .thenReturn(List.of(indexInfo("_id_"), indexInfo("Movie_TextIndex"), indexInfo("title_ci"), indexInfo("stats.updateDate")))
+                .thenReturn(List.of(indexInfo("_id_"), indexInfo("Movie_TextIndex"), indexInfo("title_ci"), indexInfo("stats.updateDate"), indexInfo("updateDate")));
+        when(reviewIndexOperations.getIndexInfo()).thenReturn(
+                List.of(indexInfo("_id_"), indexInfo("Review_TextIndex"), indexInfo("insertDate"), indexInfo("movieId_insertDate"), indexInfo("updateDate"),
+                        indexInfo("legacy")));
+
+        MongoIndexManager indexManager = indexManager(false);
+        List<CollectionIndexReport> report = indexManager.ensureIndexes();
+
+        verify(movieIndexOperations).ensureIndex(indexDefinitionCaptor.capture());
+        assertThat(MongoIndexManager.indexName(indexDefinitionCaptor.getValue())).isEqualTo("updateDate");
+        verify(reviewIndexOperations, never()).ensureIndex(any());
+        assertThat(report).extracting(CollectionIndexReport::collection).containsExactly("Movie", "Review", "Leaderboard");
+        assertThat(report.get(1).extra()).containsExactly("legacy");
+        assertThat(indexManager.isIndexesReady()).isTrue();
+    }
+
+    @Test
+    void testEnsureIndexesNotReadyWhileIndexesAreMissing() {
+        when(movieIndexOperations.getIndexInfo()).thenReturn(List.of(indexInfo("_id_")));
+        when(reviewIndexOperations.getIndexInfo()).thenReturn(List.of(indexInfo("_id_")));
+        when(leaderboardIndexOperations.getIndexInfo()).thenReturn(List.of(indexInfo("_id_")));
+
+        MongoIndexManager indexManager = indexManager(false);
+        List<CollectionIndexReport> report = indexManager.ensureIndexes();
+
+        assertThat(report.get(0).missing()).containsExactly("Movie_TextIndex", "stats.updateDate", "title_ci", "updateDate");
+        assertThat(report.get(1).missing()).containsExactly("Review_TextIndex", "insertDate", "movieId_insertDate", "updateDate");
+        assertThat(report.get(2).missing()).containsExactly("averageRating_reviewCount", "weeklyReviewCount");
+        assertThat(indexManager.isIndexesReady()).isFalse();
+    }
+
+    @Test
+    void testEnsureIndexesUntilReadyWaitsBetweenIncompleteChecks() {
+        List<IndexInfo> movieIndexes = List.of(indexInfo("_id_"), indexInfo("Movie_TextIndex"), indexInfo("title_ci"),
+                indexInfo("stats.updateDate"), indexInfo("updateDate"));
+        when(movieIndexOperations.getIndexInfo()).thenReturn(List.of(indexInfo("_id_")))
+                .thenReturn(List.of(indexInfo("_id_")))
+                .thenReturn(movieIndexes);
+        when(reviewIndexOperations.getIndexInfo()).thenReturn(
+                List.of(indexInfo("_id_"), indexInfo("Review_TextIndex"), indexInfo("insertDate"), indexInfo("movieId_insertDate"), indexInfo("updateDate")));
+        MongoIndexManager indexManager = new MongoIndexManager(mongoTemplate, eventPublisher, taskExecutor, true, false,
+                Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        indexManager.ensureIndexesUntilReady();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(indexManager.isIndexesReady()).isTrue();
+        verify(movieIndexOperations, times(4)).getIndexInfo();
+    }
+
+    @Test
+    void testRefusesTrafficUntilIndexesAreReady() {
+        when(movieIndexOperations.getIndexInfo()).thenReturn(
+                List.of(indexInfo("_id_"), indexInfo("Movie_TextIndex"), indexInfo("title_ci"), indexInfo("stats.updateDate"), indexInfo("updateDate")));
+        when(reviewIndexOperations.getIndexInfo()).thenReturn(
+                List.of(indexInfo("_id_"), indexInfo("Review_TextIndex"), indexInfo("insertDate"), indexInfo("movieId_insertDate"), indexInfo("updateDate")));
+
+        MongoIndexManager indexManager = indexManager(true);
+        indexManager.onReadinessChange(new AvailabilityChangeEvent<>(this, ReadinessState.ACCEPTING_TRAFFIC));
+        indexManager.ensureIndexes();
+
+        ArgumentCaptor<AvailabilityChangeEvent<?>> eventCaptor = ArgumentCaptor.forClass(AvailabilityChangeEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().stream().map(event -> (Object) event.getState()))
+                .containsExactly(ReadinessState.REFUSING_TRAFFIC, ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    @Test
+    void testCompare() {
+        List<IndexDefinition> declared = List.of(new Index().on("title", Sort.Direction.ASC).named("title_ci"));
+
+        CollectionIndexReport report = MongoIndexManager.compare("Movie", declared,
+                List.of(indexInfo("_id_"), indexInfo("other")));
+
+        assertThat(report.missing()).containsExactly("title_ci");
+        assertThat(report.extra()).containsExactly("other");
+        assertThat(report.isComplete()).isFalse();
+    }
+}
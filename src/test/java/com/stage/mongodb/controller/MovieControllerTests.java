@@ -1,9 +1,21 @@
 package com.stage.mongodb.controller;
 
+import com.stage.mongodb.config.HttpCaching;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
+import com.stage.mongodb.dto.LeaderboardDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.dto.MovieMatchDto;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.dto.SearchPageDto;
+import com.stage.mongodb.service.LeaderboardService;
 import com.stage.mongodb.service.MovieService;
+import com.stage.mongodb.service.MovieSuggestService;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,20 +23,42 @@ import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
 class MovieControllerTest {
 
+    private static final ResourceVersion VERSION = new ResourceVersion("18d2b7c5a00-1f", Instant.parse("2024-12-24T10:00:00Z"));
+
     @Mock
     private MovieService movieService;
 
+    @Mock
+    private RatingStatsService ratingStatsService;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private MovieSuggestService movieSuggestService;
+
+    @Spy
+    private HttpCaching httpCaching = new HttpCaching(Duration.ofSeconds(10), Duration.ofSeconds(30));
+
     @InjectMocks
     private MovieController movieController;
 
@@ -43,13 +77,19 @@ class MovieControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         easyRandom = new EasyRandom();
+        when(movieService.getMoviesVersion()).thenReturn(VERSION);
+        when(movieService.getMovieVersion("123")).thenReturn(VERSION);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest());
     }
 
     @Test
     void testGetMovies() {
         List<MovieDto> movies = easyRandom.objects(MovieDto.class, 3).toList();
         when(movieService.getMovies()).thenReturn(movies);
-        ResponseEntity<List<MovieDto>> response = movieController.getMovies();
+        ResponseEntity<List<MovieDto>> response = movieController.getMovies(request());
         assertThat(response.getBody()).isEqualTo(movies);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(movieService).getMovies();
@@ -59,7 +99,7 @@ class MovieControllerTest {
     void testGetMovieById() {
         MovieDto movie = easyRandom.nextObject(MovieDto.class);
         when(movieService.getMovieById("123")).thenReturn(movie);
-        ResponseEntity<MovieDto> response = movieController.getMovieById("123");
+        ResponseEntity<MovieDto> response = movieController.getMovieById("123", request());
         assertThat(response.getBody()).isEqualTo(movie);
         verify(movieService).getMovieById(idCaptor.capture());
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -110,4 +150,120 @@ class MovieControllerTest {
         verify(movieService).deleteMovie(idCaptor.capture());
         assertThat(idCaptor.getValue()).isEqualTo("123");
     }
+
+    @Test
+    void testGetMoviesPage() {
+        CursorPageDto<MovieDto> page = CursorPageDto.<MovieDto>builder()
+                .items(easyRandom.objects(MovieDto.class, 3).toList())
+                .nextCursor("cursor")
+                .build();
+        when(movieService.getMoviesPage("after", 3)).thenReturn(page);
+        ResponseEntity<CursorPageDto<MovieDto>> response = movieController.getMoviesPage("after", 3, request());
+        assertThat(response.getBody()).isEqualTo(page);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(movieService).getMoviesPage("after", 3);
+    }
+
+    @Test
+    void testInsertBulk() throws Exception {
+        InputStream inputStream = new ByteArrayInputStream("[]".getBytes());
+        List<BulkItemResultDto> results = List.of(BulkItemResultDto.builder().index(0).id("123").build());
+        when(movieService.insertMovies(inputStream)).thenReturn(results);
+        ResponseEntity<List<BulkItemResultDto>> response = movieController.insertBulk(inputStream);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+        verify(movieService).insertMovies(inputStream);
+    }
+
+    @Test
+    void testGetMovieStats() {
+        RatingStatsDto ratingStatsDto = easyRandom.nextObject(RatingStatsDto.class);
+        when(movieService.getMovieStats("123")).thenReturn(ratingStatsDto);
+        ResponseEntity<RatingStatsDto> response = movieController.getMovieStats("123");
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(ratingStatsDto);
+        verify(movieService).getMovieStats("123");
+    }
+
+    @Test
+    void testRebuildStats() {
+        when(ratingStatsService.startRebuild()).thenReturn(true, false);
+
+        assertThat(movieController.rebuildStats().getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(movieController.rebuildStats().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void testGetLeaderboard() {
+        LeaderboardDto leaderboardDto = easyRandom.nextObject(LeaderboardDto.class);
+        when(leaderboardService.getLeaderboard(5, 50)).thenReturn(leaderboardDto);
+        ResponseEntity<LeaderboardDto> response = movieController.getLeaderboard(5, 50);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(leaderboardDto);
+        verify(leaderboardService).getLeaderboard(5, 50);
+    }
+
+    @Test
+    void testSearchMovies() {
+        SearchPageDto<MovieDto> page = SearchPageDto.<MovieDto>builder()
+                .items(easyRandom.objects(MovieDto.class, 2).toList())
+                .page(0)
+                .size(20)
+                .build();
+        when(movieService.searchMovies("matrix", 0, 20)).thenReturn(page);
+        ResponseEntity<SearchPageDto<MovieDto>> response = movieController.searchMovies("matrix", 0, 20);
+        assertThat(response.getBody()).isEqualTo(page);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(movieService).searchMovies("matrix", 0, 20);
+    }
+
+    @Test
+    void testSuggestMovies() {
+        List<MovieSuggestionDto> suggestions = easyRandom.objects(MovieSuggestionDto.class, 2).toList();
+        when(movieSuggestService.suggest("the ma", 5)).thenReturn(suggestions);
+        ResponseEntity<List<MovieSuggestionDto>> response = movieController.suggestMovies("the ma", 5);
+        assertThat(response.getBody()).isEqualTo(suggestions);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void testFuzzySearchMovies() {
+        List<MovieMatchDto> matches = easyRandom.objects(MovieMatchDto.class, 2).toList();
+        when(movieSuggestService.fuzzySearch("godfater", 10)).thenReturn(matches);
+        ResponseEntity<List<MovieMatchDto>> response = movieController.fuzzySearchMovies("godfater", 10);
+        assertThat(response.getBody()).isEqualTo(matches);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+
+    @Test
+    void testGetMovieById_SetsValidators() {
+        when(movieService.getMovieById("123")).thenReturn(easyRandom.nextObject(MovieDto.class));
+        ResponseEntity<MovieDto> response = movieController.getMovieById("123", request());
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"" + VERSION.eTag() + "\"");
+        assertThat(response.getHeaders().getLastModified()).isEqualTo(VERSION.lastModified().toEpochMilli());
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=10, stale-while-revalidate=30");
+    }
+
+    @Test
+    void testGetMovieById_NotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/movie");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "\"");
+        ResponseEntity<MovieDto> response = movieController.getMovieById("123", new ServletWebRequest(servletRequest));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        verify(movieService, never()).getMovieById("123");
+    }
+
+    @Test
+    void testGetMovies_NotModifiedSinceLastModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/movie/all");
+        servletRequest.addHeader(HttpHeaders.IF_MODIFIED_SINCE, VERSION.lastModified().toEpochMilli());
+        ResponseEntity<List<MovieDto>> response = movieController.getMovies(new ServletWebRequest(servletRequest));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(movieService, never()).getMovies();
+    }
 }
@@ -1,10 +1,15 @@
 package com.stage.mongodb.controller;
 
+import com.stage.mongodb.config.HttpCaching;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.ReviewDto;
 import com.stage.mongodb.dto.ReviewDtoInput;
 import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.service.ReviewService;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,19 +17,32 @@ import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
 class ReviewControllerTest {
 
+    private static final ResourceVersion VERSION = new ResourceVersion("18d2b7c5a00-1f", Instant.parse("2024-12-24T10:00:00Z"));
+
     @Mock
     private ReviewService reviewService;
 
+    @Spy
+    private HttpCaching httpCaching = new HttpCaching(Duration.ZERO, Duration.ZERO);
+
     @InjectMocks
     private ReviewController reviewController;
 
@@ -46,13 +64,19 @@ class ReviewControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         easyRandom = new EasyRandom();
+        when(reviewService.getReviewsVersion()).thenReturn(VERSION);
+        when(reviewService.getReviewVersion("123")).thenReturn(VERSION);
+    }
+
+    private static ServletWebRequest request() {
+        return new ServletWebRequest(new MockHttpServletRequest());
     }
 
     @Test
     void testGetReviews() {
         List<ReviewDto> reviews = easyRandom.objects(ReviewDto.class, 3).toList();
         when(reviewService.getReviews()).thenReturn(reviews);
-        ResponseEntity<List<ReviewDto>> response = reviewController.getReviews();
+        ResponseEntity<List<ReviewDto>> response = reviewController.getReviews(request());
         assertThat(response.getBody()).isEqualTo(reviews);
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(reviewService).getReviews();
@@ -62,7 +86,7 @@ class ReviewControllerTest {
     void testGetReviewById() {
         ReviewDto review = easyRandom.nextObject(ReviewDto.class);
         when(reviewService.getReviewById("123")).thenReturn(review);
-        ResponseEntity<ReviewDto> response = reviewController.getReviewById("123");
+        ResponseEntity<ReviewDto> response = reviewController.getReviewById("123", request());
         assertThat(response.getBody()).isEqualTo(review);
         verify(reviewService).getReviewById(idCaptor.capture());
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -113,4 +137,66 @@ class ReviewControllerTest {
         verify(reviewService).deleteReview(idCaptor.capture());
         assertThat(idCaptor.getValue()).isEqualTo("123");
     }
+
+    @Test
+    void testGetReviewsPage() {
+        CursorPageDto<ReviewDto> page = CursorPageDto.<ReviewDto>builder()
+                .items(easyRandom.objects(ReviewDto.class, 3).toList())
+                .nextCursor("cursor")
+                .build();
+        when(reviewService.getReviewsPage("after", 3)).thenReturn(page);
+        ResponseEntity<CursorPageDto<ReviewDto>> response = reviewController.getReviewsPage("after", 3, request());
+        assertThat(response.getBody()).isEqualTo(page);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(reviewService).getReviewsPage("after", 3);
+    }
+
+    @Test
+    void testInsertBulk() throws Exception {
+        InputStream inputStream = new ByteArrayInputStream("[]".getBytes());
+        List<BulkItemResultDto> results = List.of(BulkItemResultDto.builder().index(0).id("123").build());
+        when(reviewService.insertReviews(inputStream)).thenReturn(results);
+        ResponseEntity<List<BulkItemResultDto>> response = reviewController.insertBulk(inputStream);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(results);
+        verify(reviewService).insertReviews(inputStream);
+    }
+
+    @Test
+    void testSearchReviews() {
+        SearchPageDto<ReviewDto> page = SearchPageDto.<ReviewDto>builder()
+                .items(easyRandom.objects(ReviewDto.class, 2).toList())
+                .page(1)
+                .size(10)
+                .hasNext(true)
+                .build();
+        when(reviewService.searchReviews("great", 1, 10)).thenReturn(page);
+        ResponseEntity<SearchPageDto<ReviewDto>> response = reviewController.searchReviews("great", 1, 10);
+        assertThat(response.getBody()).isEqualTo(page);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(reviewService).searchReviews("great", 1, 10);
+    }
+
+
+    @Test
+    void testGetReviewById_NotModified() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/review");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION.eTag() + "\"");
+        ResponseEntity<ReviewDto> response = reviewController.getReviewById("123", new ServletWebRequest(servletRequest));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=0");
+        verify(reviewService, never()).getReviewById("123");
+    }
+
+    @Test
+    void testGetReviews_ModifiedSinceOlderETag() {
+        List<ReviewDto> reviews = easyRandom.objects(ReviewDto.class, 2).toList();
+        when(reviewService.getReviews()).thenReturn(reviews);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/review/all");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"18d2b7c5a00-1e\"");
+        ResponseEntity<List<ReviewDto>> response = reviewController.getReviews(new ServletWebRequest(servletRequest));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(reviews);
+    }
 }
@@ -4,6 +4,8 @@ import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.utils.MongoCommandBudget;
+import com.stage.mongodb.utils.MongoCommandRecorder;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -28,6 +30,7 @@ import static org.hamcrest.Matchers.*;
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+@MongoCommandBudget
 public class MovieIntegrationContainerTest {
 
     @ServiceConnection
@@ -38,6 +41,8 @@ public class MovieIntegrationContainerTest {
 
     @Autowired
     private MovieRepository movieRepository;
+    @Autowired
+    private MongoCommandRecorder mongoCommandRecorder;
 
     private String baseUrl;
     private MovieDtoInput input;
@@ -69,6 +74,7 @@ public class MovieIntegrationContainerTest {
 
     @Test
     @Order(1)
+    @MongoCommandBudget(commands = 2)
     public void testAddMovie() {
         movieId = given()
                 .contentType(ContentType.JSON)
@@ -87,6 +93,7 @@ public class MovieIntegrationContainerTest {
 
     @Test
     @Order(2)
+    @MongoCommandBudget(commands = 2)
     public void testGetMovies() {
         given()
                 .when()
@@ -98,10 +105,16 @@ public class MovieIntegrationContainerTest {
 
         List<Movie> movies = movieRepository.findAll();
         assertThat(movies).hasSize(1);
+
+        // The collection version is read from its change counter instead of the movies themselves.
+        assertThat(mongoCommandRecorder.lastRequest().commands())
+                .contains("find CollectionVersion")
+                .noneMatch(command -> command.startsWith("aggregate"));
     }
 
     @Test
     @Order(3)
+    @MongoCommandBudget(commands = 1, documents = 1)
     public void testGetMovieById() {
         given()
                 .queryParam("id", movieId)
@@ -115,6 +128,7 @@ public class MovieIntegrationContainerTest {
 
     @Test
     @Order(4)
+    @MongoCommandBudget(commands = 2)
     public void testUpdateMovie() {
         given()
                 .contentType(ContentType.JSON)
@@ -133,6 +147,7 @@ public class MovieIntegrationContainerTest {
 
     @Test
     @Order(5)
+    @MongoCommandBudget(commands = 2)
     public void testUpdateMoviePartial() {
         given()
                 .contentType(ContentType.JSON)
@@ -150,6 +165,7 @@ public class MovieIntegrationContainerTest {
 
     @Test
     @Order(6)
+    @MongoCommandBudget(commands = 4)
     public void testDeleteMovie() {
         given()
                 .queryParam("id", movieId)
@@ -0,0 +1,144 @@
+package com.stage.mongodb.integration_containers;
+
+import com.stage.mongodb.benchmark.DatasetGenerator;
+import com.stage.mongodb.config.MongoIndexManager;
+import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.service.LeaderboardService;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.utils.ExplainQueries;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "scheduling.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+@ExplainQueries(wholeCollectionReads = {"find Movie", "find Review"})
+public class QueryPlanIntegrationContainerTest {
+
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:latest");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+    @Autowired
+    private MongoIndexManager mongoIndexManager;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private LeaderboardService leaderboardService;
+    @Autowired
+    private RatingStatsService ratingStatsService;
+
+    private String movieId;
+    private String reviewId;
+
+    @BeforeAll
+    void setup() throws Exception {
+        RestAssured.baseURI = "http://localhost";
+        RestAssured.port = port;
+
+        mongoIndexManager.ensureIndexes();
+        new DatasetGenerator(mongoTemplate, 42, 1, 1.0).generate(300, 15_000);
+
+        movieId = movieRepository.findAllByOrderByIdAsc(Limit.of(1)).get(0).getId();
+        reviewId = mongoTemplate.findOne(new Query().limit(1), Review.class).getId();
+    }
+
+    @Test
+    @Order(1)
+    public void testMovieAndReviewPagesUseIndexes() {
+        String movieCursor = given().when().get("/api/movie/page?limit=20")
+                .then().statusCode(200).extract().path("nextCursor");
+        given().queryParam("after", movieCursor).when().get("/api/movie/page?limit=20").then().statusCode(200);
+
+        String reviewCursor = given().when().get("/api/review/page?limit=20")
+                .then().statusCode(200).extract().path("nextCursor");
+        given().queryParam("after", reviewCursor).when().get("/api/review/page?limit=20").then().statusCode(200);
+    }
+
+    @Test
+    @Order(2)
+    public void testLookupsByIdUseIndexes() {
+        given().queryParam("id", movieId).when().get("/api/movie").then().statusCode(200);
+        given().queryParam("id", movieId).when().get("/api/movie/stats").then().statusCode(200);
+        given().queryParam("id", reviewId).when().get("/api/review").then().statusCode(200);
+    }
+
+    @Test
+    @Order(3)
+    public void testCollectionVersionsUseIndexes() {
+        given().when().get("/api/movie/all").then().statusCode(200);
+        given().when().get("/api/review/all").then().statusCode(200);
+    }
+
+    @Test
+    @Order(4)
+    public void testSearchesUseTextIndexes() {
+        given().queryParam("q", "night").when().get("/api/movie/search").then().statusCode(200);
+        given().queryParam("q", "great").when().get("/api/review/search").then().statusCode(200);
+    }
+
+    @Test
+    @Order(5)
+    public void testLeaderboardUsesIndexes() {
+        leaderboardService.refresh();
+
+        given().when().get("/api/movie/leaderboard").then().statusCode(200);
+    }
+
+    @Test
+    @Order(6)
+    public void testRatingStatsRebuildUsesIndexes() throws InterruptedException {
+        given().when().post("/api/movie/stats/rebuild").then().statusCode(202);
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (ratingStatsService.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(ratingStatsService.isRebuilding()).isFalse();
+    }
+
+    @Test
+    @Order(7)
+    public void testWritesLocateDocumentsByIndex() {
+        String createdId = given()
+                .contentType(ContentType.JSON)
+                .body(ReviewDtoInput.builder().movieId(movieId).rating(4).comment("Seen twice").build())
+                .when().post("/api/review")
+                .then().statusCode(201).extract().path("id");
+
+        given().contentType(ContentType.JSON).body(ReviewPatchDto.builder().rating(2).build())
+                .queryParam("id", createdId).when().patch("/api/review").then().statusCode(200);
+        given().queryParam("id", createdId).when().delete("/api/review").then().statusCode(200);
+
+        given().contentType(ContentType.JSON).body(MoviePatchDto.builder().title("Renamed").build())
+                .queryParam("id", movieId).when().patch("/api/movie").then().statusCode(200);
+        given().queryParam("id", movieId).when().delete("/api/movie").then().statusCode(200);
+
+        assertThat(mongoTemplate.findById(movieId, Movie.class)).isNull();
+    }
+}
@@ -0,0 +1,138 @@
+package com.stage.mongodb.integration_containers;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.service.RatingStatsService;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the steps of the review writes of ReviewService one by one, with a rebuild in each window between them.
+@SpringBootTest(properties = "scheduling.enabled=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+public class RatingStatsIntegrationContainerTest {
+
+    private static final String MOVIE_ID = "rated-movie";
+
+    @ServiceConnection
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer("mongo:latest");
+
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private ReviewRepository reviewRepository;
+    @Autowired
+    private RatingStatsService ratingStatsService;
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @BeforeAll
+    void setup() throws InterruptedException {
+        reviewRepository.deleteAll();
+        movieRepository.deleteAll();
+
+        movieRepository.save(Movie.builder()
+                .id(MOVIE_ID)
+                .title("Rated Movie")
+                .releaseDate("2024-01-01")
+                .insertDate(Instant.now())
+                .updateDate(Instant.now())
+                .build());
+        reviewRepository.save(review("First", 3));
+        rebuild();
+    }
+
+    @Test
+    @Order(1)
+    public void testRebuildDuringAnInsertKeepsTheReviewCountedOnce() throws InterruptedException {
+        assertThat(movieRepository.startRatingStatsWrite(MOVIE_ID)).isTrue();
+        rebuild();
+        reviewRepository.save(review("Written during the rebuild", 5));
+        rebuild();
+        movieRepository.finishRatingStatsWrite(MOVIE_ID, Map.of(5, 1));
+
+        assertThat(stats().getReviewCount()).isEqualTo(2);
+        assertThat(stats().getRatingSum()).isEqualTo(8);
+
+        rebuild();
+        assertThat(stats().getReviewCount()).isEqualTo(2);
+        assertThat(stats().getPendingWrites()).isZero();
+    }
+
+    @Test
+    @Order(2)
+    public void testRebuildDuringADeleteKeepsTheReviewUncountedOnce() throws InterruptedException {
+        Review deleted = reviewRepository.findAll().stream()
+                .filter(review -> review.getRating() == 5)
+                .findFirst().orElseThrow();
+
+        movieRepository.startRatingStatsWrite(MOVIE_ID);
+        rebuild();
+        assertThat(reviewRepository.findAndRemoveById(deleted.getId())).isPresent();
+        rebuild();
+        movieRepository.finishRatingStatsWrite(MOVIE_ID, Map.of(5, -1));
+
+        assertThat(stats().getReviewCount()).isEqualTo(1);
+        assertThat(stats().getRatingSum()).isEqualTo(3);
+        assertThat(stats().getHistogram()).containsEntry("5", 0L).containsEntry("3", 1L);
+    }
+
+    @Test
+    @Order(3)
+    public void testAnAbandonedWriteHoldsTheRebuildOffUntilItsLeaseRunsOut() throws InterruptedException {
+        movieRepository.startRatingStatsWrite(MOVIE_ID);
+        reviewRepository.save(review("Its write never finished", 4));
+
+        rebuild();
+        assertThat(stats().getReviewCount()).isEqualTo(1);
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(MOVIE_ID)),
+                Update.update("stats.pendingUntil", Instant.now().minusSeconds(1)), Movie.class);
+        rebuild();
+        assertThat(stats().getReviewCount()).isEqualTo(2);
+        assertThat(stats().getRatingSum()).isEqualTo(7);
+    }
+
+    private Review review(String comment, int rating) {
+        return Review.builder()
+                .movieId(MOVIE_ID)
+                .rating(rating)
+                .comment(comment)
+                .insertDate(Instant.now())
+                .updateDate(Instant.now())
+                .build();
+    }
+
+    private RatingStats stats() {
+        return movieRepository.findById(MOVIE_ID).orElseThrow().getStats();
+    }
+
+    private void rebuild() throws InterruptedException {
+        assertThat(ratingStatsService.startRebuild()).isTrue();
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        while (ratingStatsService.isRebuilding() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(ratingStatsService.isRebuilding()).isFalse();
+    }
+}
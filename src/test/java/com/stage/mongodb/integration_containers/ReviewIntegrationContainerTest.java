@@ -6,6 +6,8 @@ import com.stage.mongodb.dto.ReviewPatchDto;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.MongoCommandBudget;
+import com.stage.mongodb.utils.MongoCommandRecorder;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
@@ -28,6 +30,7 @@ import static org.hamcrest.Matchers.*;
 @Testcontainers
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+@MongoCommandBudget
 public class ReviewIntegrationContainerTest {
 
     @ServiceConnection
@@ -40,6 +43,8 @@ public class ReviewIntegrationContainerTest {
     private ReviewRepository reviewRepository;
     @Autowired
     private MovieRepository movieRepository;
+    @Autowired
+    private MongoCommandRecorder mongoCommandRecorder;
 
     private ReviewDtoInput input;
     private ReviewDtoUpdate update;
@@ -82,6 +87,7 @@ public class ReviewIntegrationContainerTest {
 
     @Test
     @Order(1)
+    @MongoCommandBudget(commands = 4)
     public void testAddReview() {
         reviewId = given()
                 .contentType(ContentType.JSON)
@@ -101,6 +107,7 @@ public class ReviewIntegrationContainerTest {
 
     @Test
     @Order(2)
+    @MongoCommandBudget(commands = 3)
     public void testGetReviews() {
         given()
                 .when()
@@ -110,10 +117,15 @@ public class ReviewIntegrationContainerTest {
                 .body("$.size()", greaterThan(0))
                 .body("[0].rating", equalTo(5))
                 .body("[0].comment", equalTo("Nice!"));
+
+        assertThat(mongoCommandRecorder.lastRequest().commands())
+                .contains("find CollectionVersion")
+                .noneMatch(command -> command.startsWith("aggregate"));
     }
 
     @Test
     @Order(3)
+    @MongoCommandBudget(commands = 2, documents = 2)
     public void testGetReviewById() {
         given()
                 .queryParam("id", reviewId)
@@ -128,6 +140,7 @@ public class ReviewIntegrationContainerTest {
 
     @Test
     @Order(4)
+    @MongoCommandBudget(commands = 5)
     public void testUpdateReview() {
         given()
                 .contentType(ContentType.JSON)
@@ -142,6 +155,7 @@ public class ReviewIntegrationContainerTest {
 
     @Test
     @Order(5)
+    @MongoCommandBudget(commands = 3)
     public void testUpdateReviewPartial() {
         given()
                 .contentType(ContentType.JSON)
@@ -155,6 +169,7 @@ public class ReviewIntegrationContainerTest {
 
     @Test
     @Order(6)
+    @MongoCommandBudget(commands = 5)
     public void testDeleteReview() {
         given()
                 .queryParam("id", reviewId)
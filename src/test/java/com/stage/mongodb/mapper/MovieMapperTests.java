@@ -1,17 +1,28 @@
 package com.stage.mongodb.mapper;
 
+import com.stage.mongodb.dto.LeaderboardEntryDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.model.LeaderboardEntry;
 import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.bson.Document;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.mongodb.core.query.Update;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -72,5 +83,63 @@ class MovieMapperTests {
         assertThat(stringData).matches("\\d{4}-\\d{2}-\\d{2}.*");
     }
 
+    @Test
+    void testFormatData_SameMinuteAndCollidingSlots() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+        Instant data = Instant.parse("2025-03-30T00:59:10Z");
+        Instant sameMinute = data.plusSeconds(45);
+        Instant sameSlot = data.plus(Duration.ofMinutes(4096));
+        Instant beforeEpoch = Instant.parse("1969-12-31T23:59:30Z");
+
+        for (Instant instant : List.of(data, sameMinute, sameSlot, data, beforeEpoch)) {
+            assertThat(movieMapper.formatData(instant)).isEqualTo(formatter.format(instant));
+        }
+    }
+
+    @Test
+    void testToUpdateFromDtoInput() {
+        MovieDtoInput movieDtoInput = easyRandom.nextObject(MovieDtoInput.class);
+        Update update = movieMapper.toUpdateFromDtoInput(movieDtoInput);
+        assertThat(update.getUpdateObject().get("$set", Document.class))
+                .containsEntry("title", movieDtoInput.getTitle())
+                .containsEntry("releaseDate", movieDtoInput.getReleaseDate());
+    }
+
+    @Test
+    void testToUpdateFromPatchDto() {
+        MoviePatchDto patchDto = MoviePatchDto.builder().title("New title").build();
+        Update update = movieMapper.toUpdateFromPatchDto(patchDto);
+        assertThat(update.getUpdateObject().get("$set", Document.class))
+                .containsEntry("title", "New title")
+                .doesNotContainKey("releaseDate");
+    }
 
+    @Test
+    void testToRatingStatsDto() {
+        RatingStats stats = RatingStats.builder()
+                .reviewCount(4).ratingSum(14).histogram(Map.of("3", 2L, "4", 1L, "5", 1L)).build();
+        RatingStatsDto ratingStatsDto = movieMapper.toRatingStatsDto(stats);
+        assertThat(ratingStatsDto.getReviewCount()).isEqualTo(4);
+        assertThat(ratingStatsDto.getAverageRating()).isEqualTo(3.5);
+        assertThat(ratingStatsDto.getHistogram()).containsExactly(
+                Map.entry(1, 0L), Map.entry(2, 0L), Map.entry(3, 2L), Map.entry(4, 1L), Map.entry(5, 1L));
+    }
+
+    @Test
+    void testToRatingStatsDto_NoReviews() {
+        RatingStatsDto ratingStatsDto = movieMapper.toRatingStatsDto(null);
+        assertThat(ratingStatsDto.getReviewCount()).isZero();
+        assertThat(ratingStatsDto.getAverageRating()).isNull();
+        assertThat(ratingStatsDto.getHistogram()).hasSize(5).containsValue(0L);
+    }
+
+    @Test
+    void testToLeaderboardEntryDto() {
+        LeaderboardEntry entry = easyRandom.nextObject(LeaderboardEntry.class);
+        LeaderboardEntryDto entryDto = movieMapper.toLeaderboardEntryDto(entry);
+        assertThat(entryDto.getId()).isEqualTo(entry.getId());
+        assertThat(entryDto.getTitle()).isEqualTo(entry.getTitle());
+        assertThat(entryDto.getAverageRating()).isEqualTo(entry.getAverageRating());
+        assertThat(entryDto.getWeeklyReviewCount()).isEqualTo(entry.getWeeklyReviewCount());
+    }
 }
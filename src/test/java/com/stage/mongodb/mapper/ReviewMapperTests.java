@@ -6,12 +6,15 @@ import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.bson.Document;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.time.Instant;
 import java.util.List;
@@ -139,4 +142,54 @@ class ReviewMapperTests {
         assertThat(stringData).matches("\\d{4}-\\d{2}-\\d{2}.*");
     }
 
+    @Test
+    void testToReviewDtoFromReviewWithMovie() {
+
+        ReviewWithMovie reviewWithMovie = easyRandom.nextObject(ReviewWithMovie.class);
+        ReviewDto reviewDto = reviewMapper.toReviewDto(reviewWithMovie);
+        assertThat(reviewDto.getId()).isEqualTo(reviewWithMovie.getId());
+        assertThat(reviewDto.getRating()).isEqualTo(reviewWithMovie.getRating());
+        assertThat(reviewDto.getComment()).isEqualTo(reviewWithMovie.getComment());
+        assertThat(reviewDto.getMovieDto().getId()).isEqualTo(reviewWithMovie.getMovie().getId());
+        assertThat(reviewDto.getMovieDto().getTitle()).isEqualTo(reviewWithMovie.getMovie().getTitle());
+    }
+
+    @Test
+    void testToReviewDtoFromReviewWithoutMovie() {
+
+        ReviewWithMovie reviewWithMovie = easyRandom.nextObject(ReviewWithMovie.class);
+        reviewWithMovie.setMovie(null);
+        ReviewDto reviewDto = reviewMapper.toReviewDto(reviewWithMovie);
+        assertThat(reviewDto.getId()).isEqualTo(reviewWithMovie.getId());
+        assertThat(reviewDto.getMovieDto()).isNull();
+    }
+
+    @Test
+    void testUpdateReviewFromPatchDto_RatingNotSet() {
+
+        Review existingReview = easyRandom.nextObject(Review.class);
+        int rating = existingReview.getRating();
+        reviewMapper.updateReviewFromPatchDto(ReviewPatchDto.builder().comment("New comment").build(), existingReview);
+        assertThat(existingReview.getRating()).isEqualTo(rating);
+        assertThat(existingReview.getComment()).isEqualTo("New comment");
+    }
+
+    @Test
+    void testToUpdateFromDtoUpdate() {
+
+        ReviewDtoUpdate reviewDtoUpdate = easyRandom.nextObject(ReviewDtoUpdate.class);
+        Update update = reviewMapper.toUpdateFromDtoUpdate(reviewDtoUpdate);
+        assertThat(update.getUpdateObject().get("$set", Document.class))
+                .containsEntry("rating", reviewDtoUpdate.getRating())
+                .containsEntry("comment", reviewDtoUpdate.getComment());
+    }
+
+    @Test
+    void testToUpdateFromPatchDto() {
+
+        Update update = reviewMapper.toUpdateFromPatchDto(ReviewPatchDto.builder().comment("New comment").build());
+        assertThat(update.getUpdateObject().get("$set", Document.class))
+                .containsEntry("comment", "New comment")
+                .doesNotContainKey("rating");
+    }
 }
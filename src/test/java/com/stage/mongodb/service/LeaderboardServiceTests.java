@@ -0,0 +1,132 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.LeaderboardDto;
+import com.stage.mongodb.dto.LeaderboardEntryDto;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.LeaderboardEntry;
+import com.stage.mongodb.model.LeaderboardState;
+import com.stage.mongodb.repository.LeaderboardRepository;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class LeaderboardServiceTest {
+
+    @Mock
+    private LeaderboardRepository leaderboardRepository;
+
+    @Spy
+    private MovieMapper movieMapper = new MovieMapper();
+
+    @InjectMocks
+    private LeaderboardService leaderboardService;
+
+    private EasyRandom easyRandom;
+    private Instant persistedRefresh;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        easyRandom = new EasyRandom();
+        persistedRefresh = null;
+        when(leaderboardRepository.lockRefresh(anyString(), any(), eq(LeaderboardService.REFRESH_LEASE)))
+                .thenAnswer(invocation -> Optional.of(LeaderboardState.builder().lastRefresh(persistedRefresh).build()));
+        doAnswer(invocation -> {
+            if (invocation.getArgument(1) != null) {
+                persistedRefresh = invocation.getArgument(1);
+            }
+            return null;
+        }).when(leaderboardRepository).unlockRefresh(anyString(), any());
+    }
+
+    @Test
+    void testGetLeaderboard() {
+        List<LeaderboardEntry> topRated = easyRandom.objects(LeaderboardEntry.class, 2).toList();
+        List<LeaderboardEntry> mostReviewed = easyRandom.objects(LeaderboardEntry.class, 1).toList();
+        when(leaderboardRepository.findByReviewCountGreaterThanEqualOrderByAverageRatingDescReviewCountDesc(5, Limit.of(10)))
+                .thenReturn(topRated);
+        when(leaderboardRepository.findByWeeklyReviewCountGreaterThanOrderByWeeklyReviewCountDesc(0, Limit.of(10)))
+                .thenReturn(mostReviewed);
+
+        LeaderboardDto result = leaderboardService.getLeaderboard(5, 10);
+
+        assertThat(result.getTopRated()).extracting(LeaderboardEntryDto::getId)
+                .containsExactly(topRated.get(0).getId(), topRated.get(1).getId());
+        assertThat(result.getMostReviewedThisWeek()).extracting(LeaderboardEntryDto::getId)
+                .containsExactly(mostReviewed.get(0).getId());
+        assertThat(result.getRefreshedAt()).isNull();
+    }
+
+    @Test
+    void testGetLeaderboard_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(5, 0));
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(5, 101));
+        assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(0, 10));
+        verifyNoInteractions(leaderboardRepository);
+    }
+
+    @Test
+    void testRefreshMergesOnlyMoviesChangedSinceThePreviousRun() {
+        Instant first = Instant.parse("2025-01-01T10:00:00Z");
+        Instant second = Instant.parse("2025-01-01T10:05:00Z");
+
+        leaderboardService.refresh(first);
+        leaderboardService.refresh(second);
+
+        InOrder inOrder = inOrder(leaderboardRepository);
+        inOrder.verify(leaderboardRepository).mergeMoviesChangedSince(Instant.EPOCH, first);
+        inOrder.verify(leaderboardRepository).mergeWeeklyReviewCounts(first.minus(LeaderboardService.WEEK), first);
+        inOrder.verify(leaderboardRepository).mergeMoviesChangedSince(first.minus(LeaderboardService.WATERMARK_OVERLAP), second);
+        inOrder.verify(leaderboardRepository).mergeWeeklyReviewCounts(second.minus(LeaderboardService.WEEK), second);
+    }
+
+    @Test
+    void testRefreshFailureKeepsThePreviousWatermark() {
+        Instant first = Instant.parse("2025-01-01T10:00:00Z");
+        doThrow(new IllegalStateException("timeout")).doNothing()
+                .when(leaderboardRepository).mergeWeeklyReviewCounts(any(), any());
+
+        leaderboardService.refresh();
+        leaderboardService.refresh(first);
+
+        verify(leaderboardRepository, times(2)).mergeMoviesChangedSince(eq(Instant.EPOCH), any());
+        verify(leaderboardRepository).unlockRefresh(anyString(), isNull());
+        verify(leaderboardRepository).unlockRefresh(anyString(), eq(first));
+    }
+
+    @Test
+    void testRefreshResumesFromThePersistedWatermark() {
+        Instant persisted = Instant.parse("2025-01-01T09:00:00Z");
+        Instant now = Instant.parse("2025-01-01T10:00:00Z");
+        persistedRefresh = persisted;
+
+        leaderboardService.refresh(now);
+
+        verify(leaderboardRepository).mergeMoviesChangedSince(persisted.minus(LeaderboardService.WATERMARK_OVERLAP), now);
+        assertThat(persistedRefresh).isEqualTo(now);
+    }
+
+    @Test
+    void testRefreshSkippedWhileAnotherInstanceHoldsTheLock() {
+        when(leaderboardRepository.lockRefresh(anyString(), any(), any())).thenReturn(Optional.empty());
+
+        leaderboardService.refresh(Instant.parse("2025-01-01T10:00:00Z"));
+
+        verify(leaderboardRepository, never()).mergeMoviesChangedSince(any(), any());
+        verify(leaderboardRepository, never()).mergeWeeklyReviewCounts(any(), any());
+        verify(leaderboardRepository, never()).unlockRefresh(anyString(), any());
+    }
+}
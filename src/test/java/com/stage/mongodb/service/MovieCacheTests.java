@@ -0,0 +1,92 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class MovieCacheTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private MovieCache movieCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        movieCache = new MovieCache(movieRepository, meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    private static Movie movie(String id) {
+        return Movie.builder().id(id).title("Movie " + id).build();
+    }
+
+    @Test
+    void testFindByIdLoadsOnlyOnce() {
+        Movie movie = movie("m1");
+        when(movieRepository.findById("m1")).thenReturn(Optional.of(movie));
+
+        assertThat(movieCache.findById("m1")).contains(movie);
+        assertThat(movieCache.findById("m1")).contains(movie);
+
+        verify(movieRepository, times(1)).findById("m1");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", MovieCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testMissingMovieIsNotCached() {
+        when(movieRepository.findById("m1")).thenReturn(Optional.empty());
+
+        assertThat(movieCache.findById("m1")).isEmpty();
+        assertThat(movieCache.findById("m1")).isEmpty();
+
+        verify(movieRepository, times(2)).findById("m1");
+    }
+
+    @Test
+    void testFindAllByIdLoadsOnlyMissingMovies() {
+        movieCache.put(movie("m1"));
+        when(movieRepository.findAllById(Set.of("m2", "m3"))).thenReturn(List.of(movie("m2")));
+
+        List<Movie> movies = movieCache.findAllById(List.of("m1", "m2", "m3"));
+
+        assertThat(movies).extracting(Movie::getId).containsExactlyInAnyOrder("m1", "m2");
+        verify(movieRepository).findAllById(Set.of("m2", "m3"));
+    }
+
+    @Test
+    void testPutReplacesAndEvictRemoves() {
+        Movie stale = movie("m1");
+        Movie fresh = movie("m1");
+        fresh.setTitle("Updated");
+        when(movieRepository.findById("m1")).thenReturn(Optional.of(stale));
+        movieCache.findById("m1");
+
+        movieCache.put(fresh);
+        assertThat(movieCache.findById("m1")).contains(fresh);
+
+        movieCache.evict("m1");
+        assertThat(movieCache.findById("m1")).contains(stale);
+        verify(movieRepository, times(2)).findById("m1");
+    }
+}
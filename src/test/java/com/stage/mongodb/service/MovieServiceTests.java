@@ -1,22 +1,56 @@
 package com.stage.mongodb.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.MovieDto;
 import com.stage.mongodb.dto.MovieDtoInput;
 import com.stage.mongodb.dto.MoviePatchDto;
+import com.stage.mongodb.dto.RatingStatsDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.SearchTimeoutException;
 import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.CollectionVersion;
 import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.LeaderboardRepository;
 import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import com.stage.mongodb.utils.TextSearch;
+import com.mongodb.MongoExecutionTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.Document;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -33,23 +67,48 @@ class MovieServiceTest {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private LeaderboardRepository leaderboardRepository;
+
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
+    @Mock
+    private MovieSuggestService movieSuggestService;
+
+    @Mock
+    private ReviewDtoCache reviewDtoCache;
+
     @Mock
     private MovieMapper movieMapper;
 
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private MovieService movieService;
 
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
     @Captor
     private ArgumentCaptor<Movie> movieCaptor;
 
     @Captor
     private ArgumentCaptor<String> idCaptor;
 
+    private MovieCache movieCache;
+
     private EasyRandom easyRandom;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        movieCache = new MovieCache(movieRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(movieService, "movieCache", movieCache);
         easyRandom = new EasyRandom();
     }
 
@@ -97,6 +156,7 @@ class MovieServiceTest {
         assertThat(result).isEqualTo(movieDto);
         verify(movieRepository).save(movieCaptor.capture());
         assertThat(movieCaptor.getValue()).isEqualTo(movie);
+        verify(movieSuggestService).put(movie.getId(), movie.getTitle());
     }
 
     @Test
@@ -104,14 +164,18 @@ class MovieServiceTest {
         Movie existingMovie = easyRandom.nextObject(Movie.class);
         MovieDtoInput input = easyRandom.nextObject(MovieDtoInput.class);
         MovieDto movieDto = easyRandom.nextObject(MovieDto.class);
-        when(movieRepository.findById(existingMovie.getId())).thenReturn(Optional.of(existingMovie));
-        doNothing().when(movieMapper).updateMovieFromDtoInput(input, existingMovie);
-        when(movieRepository.save(existingMovie)).thenReturn(existingMovie);
+        when(movieMapper.toUpdateFromDtoInput(input)).thenReturn(new Update().set("title", input.getTitle()));
+        when(movieRepository.findAndModifyById(eq(existingMovie.getId()), any(Update.class))).thenReturn(Optional.of(existingMovie));
         when(movieMapper.toMovieDto(existingMovie)).thenReturn(movieDto);
         MovieDto result = movieService.updateMovie(input, existingMovie.getId());
         assertThat(result).isEqualTo(movieDto);
-        verify(movieRepository).save(movieCaptor.capture());
-        assertThat(movieCaptor.getValue()).isEqualTo(existingMovie);
+        verify(movieRepository).findAndModifyById(eq(existingMovie.getId()), updateCaptor.capture());
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("title", input.getTitle())
+                .containsKey("updateDate");
+        verify(movieRepository, never()).findById(anyString());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(reviewDtoCache).invalidateMovie(existingMovie.getId());
     }
 
     @Test
@@ -127,9 +191,10 @@ class MovieServiceTest {
     void testUpdateMovie_NotFound() {
         String id = "invalid-id";
         MovieDtoInput input = easyRandom.nextObject(MovieDtoInput.class);
-        when(movieRepository.findById(id)).thenReturn(Optional.empty());
+        when(movieMapper.toUpdateFromDtoInput(input)).thenReturn(new Update());
+        when(movieRepository.findAndModifyById(eq(id), any(Update.class))).thenReturn(Optional.empty());
         assertThrows(MovieNotFoundException.class, () -> movieService.updateMovie(input, id));
-        verify(movieRepository).findById(id);
+        verify(movieRepository).findAndModifyById(eq(id), any(Update.class));
     }
 
     @Test
@@ -137,42 +202,313 @@ class MovieServiceTest {
         Movie existingMovie = easyRandom.nextObject(Movie.class);
         MoviePatchDto patchDto = easyRandom.nextObject(MoviePatchDto.class);
         MovieDto movieDto = easyRandom.nextObject(MovieDto.class);
-        when(movieRepository.findById(existingMovie.getId())).thenReturn(Optional.of(existingMovie));
-        doNothing().when(movieMapper).updateMovieFromPatchDto(patchDto, existingMovie);
-        when(movieRepository.save(existingMovie)).thenReturn(existingMovie);
+        when(movieMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update().set("title", patchDto.getTitle()));
+        when(movieRepository.findAndModifyById(eq(existingMovie.getId()), any(Update.class))).thenReturn(Optional.of(existingMovie));
         when(movieMapper.toMovieDto(existingMovie)).thenReturn(movieDto);
         MovieDto result = movieService.updateMoviePartial(existingMovie.getId(), patchDto);
         assertThat(result).isEqualTo(movieDto);
-        verify(movieRepository).save(movieCaptor.capture());
-        assertThat(movieCaptor.getValue()).isEqualTo(existingMovie);
+        verify(movieRepository).findAndModifyById(eq(existingMovie.getId()), updateCaptor.capture());
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("title", patchDto.getTitle())
+                .containsKey("updateDate")
+                .doesNotContainKey("releaseDate");
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(reviewDtoCache).invalidateMovie(existingMovie.getId());
+        verify(movieSuggestService).put(existingMovie.getId(), existingMovie.getTitle());
+    }
+
+    @Test
+    void testUpdateMoviePartial_WithoutTitleLeavesTheSuggestIndex() {
+        Movie existingMovie = easyRandom.nextObject(Movie.class);
+        MoviePatchDto patchDto = MoviePatchDto.builder().releaseDate("2024-01-01").build();
+        when(movieMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update().set("releaseDate", patchDto.getReleaseDate()));
+        when(movieRepository.findAndModifyById(eq(existingMovie.getId()), any(Update.class))).thenReturn(Optional.of(existingMovie));
+        movieService.updateMoviePartial(existingMovie.getId(), patchDto);
+        verify(reviewDtoCache).invalidateMovie(existingMovie.getId());
+        verifyNoInteractions(movieSuggestService);
     }
 
     @Test
     void testUpdateMoviePartial_NotFound() {
         String id = "invalid-id";
         MoviePatchDto patchDto = easyRandom.nextObject(MoviePatchDto.class);
-        when(movieRepository.findById(id)).thenReturn(Optional.empty());
+        when(movieMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update());
+        when(movieRepository.findAndModifyById(eq(id), any(Update.class))).thenReturn(Optional.empty());
         assertThrows(MovieNotFoundException.class, () -> movieService.updateMoviePartial(id, patchDto));
-        verify(movieRepository).findById(id);
+        verify(movieRepository).findAndModifyById(eq(id), any(Update.class));
     }
 
     @Test
     void testDeleteMovie() {
         String id = "123";
-        when(movieRepository.existsById(id)).thenReturn(true);
-        doNothing().when(movieRepository).deleteById(id);
+        when(movieRepository.removeById(id)).thenReturn(1L);
         doNothing().when(reviewRepository).deleteByMovieId(id);
         movieService.deleteMovie(id);
-        verify(movieRepository).deleteById(idCaptor.capture());
+        verify(movieRepository).removeById(idCaptor.capture());
+        verify(movieRepository, never()).existsById(id);
         verify(reviewRepository).deleteByMovieId(id);
+        verify(leaderboardRepository).deleteById(id);
+        verify(movieSuggestService).remove(id);
+        verify(reviewDtoCache).invalidateMovie(id);
+        verify(collectionVersionRepository).increment(CollectionVersion.MOVIES, CollectionVersion.REVIEWS);
         assertThat(idCaptor.getValue()).isEqualTo(id);
     }
 
+    @Test
+    void testDeleteMoviesClearsCachesAndIndexes() {
+        movieService.deleteMovies();
+
+        verify(movieRepository).deleteAll();
+        verify(leaderboardRepository).deleteAll();
+        verify(reviewDtoCache).clear();
+        verify(movieSuggestService).clear();
+    }
+
     @Test
     void testDeleteMovie_NotFound() {
         String id = "non-existent-id";
-        when(movieRepository.existsById(id)).thenReturn(false);
+        when(movieRepository.removeById(id)).thenReturn(0L);
         assertThrows(MovieNotFoundException.class, () -> movieService.deleteMovie(id));
-        verify(movieRepository).existsById(id);
+        verify(movieRepository).removeById(id);
+        verifyNoInteractions(reviewRepository, leaderboardRepository);
+    }
+
+    @Test
+    void testGetMoviesPage() {
+        List<Movie> movies = easyRandom.objects(Movie.class, 3).collect(Collectors.toList());
+        when(movieRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(movies);
+        when(movieMapper.toMovieDto(any(Movie.class))).thenReturn(easyRandom.nextObject(MovieDto.class));
+        CursorPageDto<MovieDto> result = movieService.getMoviesPage(null, 2);
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getNextCursor()).isEqualTo(CursorCodec.encode(movies.get(1).getId()));
+        verify(movieMapper, times(2)).toMovieDto(any(Movie.class));
+    }
+
+    @Test
+    void testGetMoviesPage_AfterCursor() {
+        List<Movie> movies = easyRandom.objects(Movie.class, 2).collect(Collectors.toList());
+        String cursor = CursorCodec.encode("123");
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc("123", Limit.of(3))).thenReturn(movies);
+        CursorPageDto<MovieDto> result = movieService.getMoviesPage(cursor, 2);
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getNextCursor()).isNull();
+        verify(movieRepository).findByIdGreaterThanOrderByIdAsc(idCaptor.capture(), eq(Limit.of(3)));
+        assertThat(idCaptor.getValue()).isEqualTo("123");
+    }
+
+    @Test
+    void testGetMoviesPage_InvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesPage(null, MovieService.MAX_PAGE_SIZE + 1));
+        verify(movieRepository, never()).findAllByOrderByIdAsc(any(Limit.class));
+    }
+
+    @Test
+    void testGetMoviesPage_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> movieService.getMoviesPage("not a cursor!", 2));
+    }
+
+    @Test
+    void testExportMovies() throws Exception {
+        List<Movie> movies = easyRandom.objects(Movie.class, 3).collect(Collectors.toList());
+        List<MovieDto> movieDtos = easyRandom.objects(MovieDto.class, 3).collect(Collectors.toList());
+        when(movieRepository.streamAllBy()).thenReturn(movies.stream());
+        when(movieMapper.toMovieDto(any(Movie.class))).thenReturn(movieDtos.get(0), movieDtos.get(1), movieDtos.get(2));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        movieService.exportMovies(outputStream);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[2]).get("id").asText()).isEqualTo(movieDtos.get(2).getId());
+        verify(movieRepository, never()).findAll();
+    }
+
+    @Test
+    void testInsertMovies() throws Exception {
+        String json = """
+                [{"title": "First", "releaseDate": "2024-01-01"},
+                 {"title": " ", "releaseDate": "2024-01-01"},
+                 {"title": "Second", "releaseDate": "2024-01-02"},
+                 {"title": "Third", "releaseDate": "2024-01-03"},
+                 {"title": 5, "releaseDate": {"year": 2024}},
+                 null]
+                """;
+        ReflectionTestUtils.setField(movieService, "bulkChunkSize", 2);
+        when(movieMapper.toMovieFromDtoInput(any(MovieDtoInput.class)))
+                .thenAnswer(invocation -> Movie.builder().title(invocation.<MovieDtoInput>getArgument(0).getTitle()).build());
+        when(movieRepository.insertUnordered(anyList())).thenReturn(Map.of())
+                .thenReturn(Map.of(0, "duplicate key"));
+
+        List<BulkItemResultDto> results = movieService.insertMovies(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(results).extracting(BulkItemResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).contains("The title cannot be empty or contain only spaces");
+        assertThat(results.get(2).getId()).isNotNull();
+        assertThat(results.get(3).getError()).isEqualTo("duplicate key");
+        assertThat(results.get(4).getError()).isEqualTo("The element is not a valid movie");
+        assertThat(results.get(5).getError()).isEqualTo("The element cannot be null");
+        verify(movieRepository, times(2)).insertUnordered(anyList());
+        verify(movieRepository, never()).save(any(Movie.class));
+        verify(movieSuggestService, times(2)).putAll(anyMap());
+        verify(movieSuggestService, never()).put(anyString(), any());
+    }
+
+    @Test
+    void testInsertMovies_MalformedJson() {
+        String json = "[{\"title\": \"First\", \"releaseDate\": \"2024-01-01\"}, {\"title\": ";
+        ReflectionTestUtils.setField(movieService, "bulkChunkSize", 10);
+        when(movieMapper.toMovieFromDtoInput(any(MovieDtoInput.class))).thenAnswer(invocation -> Movie.builder().build());
+
+        assertThrows(IllegalArgumentException.class, () -> movieService.insertMovies(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        verify(movieRepository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void testInsertMovies_UnparseableBody() {
+        assertThrows(IllegalArgumentException.class, () -> movieService.insertMovies(
+                new ByteArrayInputStream("not json".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testInsertMovies_NotAnArray() {
+        assertThrows(IllegalArgumentException.class, () -> movieService.insertMovies(
+                new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void testGetMovieStats() {
+        Movie movie = easyRandom.nextObject(Movie.class);
+        RatingStatsDto ratingStatsDto = easyRandom.nextObject(RatingStatsDto.class);
+        when(movieRepository.findStatsById(movie.getId())).thenReturn(Optional.of(movie));
+        when(movieMapper.toRatingStatsDto(movie.getStats())).thenReturn(ratingStatsDto);
+        RatingStatsDto result = movieService.getMovieStats(movie.getId());
+        assertThat(result).isEqualTo(ratingStatsDto);
+        verify(movieRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetMovieStats_NotFound() {
+        when(movieRepository.findStatsById("invalid-id")).thenReturn(Optional.empty());
+        assertThrows(MovieNotFoundException.class, () -> movieService.getMovieStats("invalid-id"));
+    }
+
+    @Test
+    void testSearchMovies() {
+        List<Movie> movies = easyRandom.objects(Movie.class, 2).collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(1, 2, Sort.by("score"));
+        when(movieRepository.findAllBy(any(TextCriteria.class), eq(pageable))).thenReturn(new SliceImpl<>(movies, pageable, true));
+        when(movieMapper.toMovieDto(any(Movie.class))).thenReturn(easyRandom.nextObject(MovieDto.class));
+
+        SearchPageDto<MovieDto> result = movieService.searchMovies("matrix", 1, 2);
+
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getPage()).isEqualTo(1);
+        assertThat(result.isHasNext()).isTrue();
+        ArgumentCaptor<TextCriteria> criteriaCaptor = ArgumentCaptor.forClass(TextCriteria.class);
+        verify(movieRepository).findAllBy(criteriaCaptor.capture(), eq(pageable));
+        assertThat(criteriaCaptor.getValue().getCriteriaObject().get("$text", Document.class).getString("$search"))
+                .isEqualTo("matrix");
+    }
+
+    @Test
+    void testSearchMovies_NoNextPageBeyondResultCap() {
+        int size = 50;
+        int lastPage = TextSearch.MAX_RESULTS / size - 1;
+        Pageable pageable = PageRequest.of(lastPage, size, Sort.by("score"));
+        when(movieRepository.findAllBy(any(TextCriteria.class), eq(pageable)))
+                .thenReturn(new SliceImpl<>(easyRandom.objects(Movie.class, size).toList(), pageable, true));
+
+        SearchPageDto<MovieDto> result = movieService.searchMovies("matrix", lastPage, size);
+
+        assertThat(result.isHasNext()).isFalse();
+        assertThrows(IllegalArgumentException.class, () -> movieService.searchMovies("matrix", lastPage + 1, size));
+    }
+
+    @Test
+    void testSearchMovies_InvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> movieService.searchMovies(" ", 0, 20));
+        assertThrows(IllegalArgumentException.class,
+                () -> movieService.searchMovies("a".repeat(TextSearch.MAX_QUERY_LENGTH + 1), 0, 20));
+        assertThrows(IllegalArgumentException.class, () -> movieService.searchMovies("matrix", -1, 20));
+        assertThrows(IllegalArgumentException.class, () -> movieService.searchMovies("matrix", 0, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> movieService.searchMovies("matrix", 0, TextSearch.MAX_PAGE_SIZE + 1));
+        verify(movieRepository, never()).findAllBy(any(TextCriteria.class), any(Pageable.class));
+    }
+
+    @Test
+    void testSearchMovies_Timeout() {
+        when(movieRepository.findAllBy(any(TextCriteria.class), any(Pageable.class))).thenThrow(
+                new DataAccessResourceFailureException("timeout", new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        assertThrows(SearchTimeoutException.class, () -> movieService.searchMovies("matrix", 0, 20));
+    }
+
+
+    @Test
+    void testDeleteMovie_EvictsCachedMovie() {
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movieCache.put(movie);
+        when(movieRepository.removeById(movie.getId())).thenReturn(1L);
+        when(movieRepository.findById(movie.getId())).thenReturn(Optional.empty());
+        movieService.deleteMovie(movie.getId());
+        assertThrows(MovieNotFoundException.class, () -> movieService.getMovieById(movie.getId()));
+    }
+
+
+    @Test
+    void testGetMovieVersion_IgnoresSubMillisecondPrecision() {
+        Movie stored = easyRandom.nextObject(Movie.class);
+        stored.setUpdateDate(Instant.parse("2024-12-24T10:00:00.123Z"));
+        Movie cached = Movie.builder().id(stored.getId()).title(stored.getTitle()).releaseDate(stored.getReleaseDate())
+                .insertDate(stored.getInsertDate()).updateDate(Instant.parse("2024-12-24T10:00:00.123456Z"))
+                .stats(stored.getStats()).build();
+        movieCache.put(cached);
+        ResourceVersion cachedVersion = movieService.getMovieVersion(stored.getId());
+
+        movieCache.put(stored);
+        assertThat(movieService.getMovieVersion(stored.getId())).isEqualTo(cachedVersion);
+        verify(movieRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testGetMovieVersion_ChangesWithRatingStats() {
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movieCache.put(movie);
+        ResourceVersion before = movieService.getMovieVersion(movie.getId());
+
+        movie.setStats(RatingStats.builder().reviewCount(movie.getStats().getReviewCount() + 1)
+                .ratingSum(movie.getStats().getRatingSum()).histogram(movie.getStats().getHistogram())
+                .updateDate(movie.getStats().getUpdateDate()).build());
+        movieCache.put(movie);
+
+        assertThat(movieService.getMovieVersion(movie.getId()).eTag()).isNotEqualTo(before.eTag());
+    }
+
+    @Test
+    void testGetMoviesVersion() {
+        Instant updateDate = Instant.parse("2024-12-24T10:00:00Z");
+        when(collectionVersionRepository.findAllById(List.of(CollectionVersion.MOVIES))).thenReturn(List.of(
+                CollectionVersion.builder().id(CollectionVersion.MOVIES).version(3).updateDate(updateDate).build()));
+
+        ResourceVersion version = movieService.getMoviesVersion();
+
+        assertThat(version.lastModified()).isEqualTo(updateDate);
+        when(collectionVersionRepository.findAllById(List.of(CollectionVersion.MOVIES))).thenReturn(List.of(
+                CollectionVersion.builder().id(CollectionVersion.MOVIES).version(4).updateDate(updateDate).build()));
+        assertThat(movieService.getMoviesVersion().eTag()).isNotEqualTo(version.eTag());
+        verify(movieRepository, never()).findAll();
+        verify(movieRepository, never()).count();
+    }
+
+    @Test
+    void testGetMoviesVersion_BeforeAnyWrite() {
+        when(collectionVersionRepository.findAllById(List.of(CollectionVersion.MOVIES))).thenReturn(List.of());
+
+        ResourceVersion version = movieService.getMoviesVersion();
+
+        assertThat(version.lastModified()).isEqualTo(Instant.EPOCH);
+        assertThat(version.eTag()).isNotBlank();
     }
 }
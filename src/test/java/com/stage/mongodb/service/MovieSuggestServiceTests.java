@@ -0,0 +1,236 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.MovieMatchDto;
+import com.stage.mongodb.dto.MovieSuggestionDto;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class MovieSuggestServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private MovieSuggestService movieSuggestService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        movieSuggestService = new MovieSuggestService(movieRepository, new SyncTaskExecutor(), meterRegistry, true);
+        when(movieRepository.streamTitlesBy()).thenReturn(Stream.of(
+                Movie.builder().id("m1").title("The Matrix").build(),
+                Movie.builder().id("m2").title("Amélie").build(),
+                Movie.builder().id("m3").title("The  Matrix Reloaded").build(),
+                Movie.builder().id("m4").title("Inception").build(),
+                Movie.builder().id("m5").build()));
+    }
+
+    @Test
+    void testRebuild() {
+        movieSuggestService.onApplicationStarted();
+
+        assertThat(movieSuggestService.getIndexedTitles()).isEqualTo(4);
+        assertThat(movieSuggestService.getEstimatedBytes()).isPositive();
+        assertThat(movieSuggestService.suggest("the ma", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m1", "m3");
+    }
+
+    @Test
+    void testReportsTheIndexFootprintAsGauges() {
+        movieSuggestService.rebuild();
+        double rebuiltBytes = meterRegistry.get(MovieSuggestService.INDEX_BYTES_METRIC).gauge().value();
+
+        movieSuggestService.put("m6", "Interstellar");
+
+        assertThat(rebuiltBytes).isPositive();
+        assertThat(meterRegistry.get(MovieSuggestService.INDEX_BYTES_METRIC).gauge().value())
+                .isGreaterThan(rebuiltBytes)
+                .isEqualTo((double) movieSuggestService.getEstimatedBytes());
+        assertThat(meterRegistry.get(MovieSuggestService.INDEX_TITLES_METRIC).gauge().value()).isEqualTo(5.0);
+    }
+
+    @Test
+    void testSuggestIgnoresCaseAccentsAndSpacing() {
+        movieSuggestService.rebuild();
+
+        assertThat(movieSuggestService.suggest("AME", 10)).extracting(MovieSuggestionDto::getTitle)
+                .containsExactly("Amélie");
+        assertThat(movieSuggestService.suggest("  the   matrix r", 10)).extracting(MovieSuggestionDto::getTitle)
+                .containsExactly("The  Matrix Reloaded");
+        assertThat(movieSuggestService.suggest("the", 1)).hasSize(1);
+        assertThat(movieSuggestService.suggest("xyz", 10)).isEmpty();
+        assertThat(movieSuggestService.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void testPutAndRemoveKeepTheIndexCurrent() {
+        movieSuggestService.rebuild();
+
+        movieSuggestService.put("m1", "Interstellar");
+        movieSuggestService.put("m6", "Insomnia");
+        movieSuggestService.remove("m4");
+
+        assertThat(movieSuggestService.suggest("in", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m6", "m1");
+        assertThat(movieSuggestService.suggest("the ma", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m3");
+        assertThat(movieSuggestService.getIndexedTitles()).isEqualTo(4);
+    }
+
+    @Test
+    void testPutWithTheIndexedTitleChangesNothing() {
+        movieSuggestService.rebuild();
+        long bytes = movieSuggestService.getEstimatedBytes();
+
+        movieSuggestService.put("m1", "The Matrix");
+
+        assertThat(movieSuggestService.getEstimatedBytes()).isEqualTo(bytes);
+        assertThat(movieSuggestService.suggest("the ma", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m1", "m3");
+    }
+
+    @Test
+    void testPutAllMergesABatchIntoTheIndex() {
+        movieSuggestService.rebuild();
+
+        Map<String, String> titles = new LinkedHashMap<>();
+        titles.put("m6", "Insomnia");
+        titles.put("m1", "Interstellar");
+        titles.put("m7", "Amadeus");
+        titles.put("m8", null);
+        movieSuggestService.putAll(titles);
+
+        assertThat(movieSuggestService.suggest("in", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m4", "m6", "m1");
+        assertThat(movieSuggestService.suggest("am", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m7", "m2");
+        assertThat(movieSuggestService.suggest("the ma", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m3");
+        assertThat(movieSuggestService.fuzzySearch("intersteller", 5)).extracting(MovieMatchDto::getId)
+                .containsExactly("m1");
+        assertThat(movieSuggestService.getIndexedTitles()).isEqualTo(6);
+    }
+
+    @Test
+    void testWritesPastTheMergeThresholdKeepTheIndexCurrent() {
+        movieSuggestService.rebuild();
+
+        for (int i = 0; i < 3000; i++) {
+            movieSuggestService.put("n" + i, "Night " + i);
+        }
+        for (int i = 0; i < 3000; i += 2) {
+            movieSuggestService.remove("n" + i);
+        }
+        movieSuggestService.put("m1", "Nightcrawler");
+
+        assertThat(movieSuggestService.getIndexedTitles()).isEqualTo(4 + 1500);
+        assertThat(movieSuggestService.suggest("night 299", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("n299", "n2991", "n2993", "n2995", "n2997", "n2999");
+        assertThat(movieSuggestService.suggest("nightc", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m1");
+        assertThat(movieSuggestService.suggest("the ma", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m3");
+    }
+
+    @Test
+    void testChangesDuringRebuildAreNotLost() {
+        when(movieRepository.streamTitlesBy()).thenAnswer(invocation -> {
+            movieSuggestService.put("m9", "Inside Out");
+            movieSuggestService.remove("m4");
+            return Stream.of(Movie.builder().id("m4").title("Inception").build());
+        });
+
+        movieSuggestService.rebuild();
+
+        assertThat(movieSuggestService.suggest("ins", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m9");
+        assertThat(movieSuggestService.suggest("inc", 10)).isEmpty();
+    }
+
+    @Test
+    void testClearEmptiesBothIndexes() {
+        movieSuggestService.rebuild();
+
+        movieSuggestService.clear();
+
+        assertThat(movieSuggestService.getIndexedTitles()).isZero();
+        assertThat(movieSuggestService.suggest("the", 10)).isEmpty();
+        assertThat(movieSuggestService.fuzzySearch("matrix", 10)).isEmpty();
+    }
+
+    @Test
+    void testClearDuringRebuildDiscardsStreamedTitles() {
+        when(movieRepository.streamTitlesBy()).thenAnswer(invocation -> {
+            movieSuggestService.clear();
+            movieSuggestService.put("m9", "Inside Out");
+            return Stream.of(Movie.builder().id("m4").title("Inception").build());
+        });
+
+        movieSuggestService.rebuild();
+
+        assertThat(movieSuggestService.suggest("in", 10)).extracting(MovieSuggestionDto::getId)
+                .containsExactly("m9");
+    }
+
+    @Test
+    void testSuggestInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> movieSuggestService.suggest("the", 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> movieSuggestService.suggest("the", MovieSuggestService.MAX_LIMIT + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> movieSuggestService.suggest("a".repeat(MovieSuggestService.MAX_PREFIX_LENGTH + 1), 5));
+    }
+
+    @Test
+    void testFuzzySearchToleratesTypos() {
+        movieSuggestService.rebuild();
+        movieSuggestService.put("m6", "The Godfather");
+
+        List<MovieMatchDto> matches = movieSuggestService.fuzzySearch("Godfater", 10);
+
+        assertThat(matches).extracting(MovieMatchDto::getId).containsExactly("m6");
+        assertThat(matches.get(0).getSimilarity()).isBetween(MovieSuggestService.MIN_SIMILARITY, 1.0);
+        assertThat(movieSuggestService.fuzzySearch("the matrx", 10)).extracting(MovieMatchDto::getId)
+                .containsExactly("m1", "m3");
+        assertThat(movieSuggestService.fuzzySearch("amelie", 10)).extracting(MovieMatchDto::getTitle)
+                .containsExactly("Amélie");
+    }
+
+    @Test
+    void testFuzzySearchFollowsWrites() {
+        movieSuggestService.rebuild();
+
+        movieSuggestService.put("m4", "Interstellar");
+        movieSuggestService.remove("m1");
+
+        assertThat(movieSuggestService.fuzzySearch("inceptoin", 10)).isEmpty();
+        assertThat(movieSuggestService.fuzzySearch("intersteller", 10)).extracting(MovieMatchDto::getId)
+                .containsExactly("m4");
+        assertThat(movieSuggestService.fuzzySearch("the matrix", 10)).extracting(MovieMatchDto::getId)
+                .containsExactly("m3");
+    }
+
+    @Test
+    void testFuzzySearchInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> movieSuggestService.fuzzySearch(" ", 5));
+        assertThrows(IllegalArgumentException.class, () -> movieSuggestService.fuzzySearch("godfather", 0));
+    }
+}
@@ -0,0 +1,150 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.RatingStats;
+import com.stage.mongodb.repository.CollectionVersionRepository;
+import com.stage.mongodb.repository.MovieRepository;
+import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class RatingStatsServiceTest {
+
+    @Mock
+    private MovieRepository movieRepository;
+
+    @Mock
+    private ReviewRepository reviewRepository;
+
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
+    @Mock
+    private MovieCache movieCache;
+
+    @Mock
+    private ReviewDtoCache reviewDtoCache;
+
+    @Captor
+    private ArgumentCaptor<Map<String, RatingStats>> statsCaptor;
+
+    private RatingStatsService ratingStatsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ratingStatsService = new RatingStatsService(movieRepository, reviewRepository, collectionVersionRepository,
+                movieCache, reviewDtoCache, new SyncTaskExecutor(), 2, 2);
+    }
+
+    @Test
+    void testRebuild() {
+        stubRatingStatsVersions(Map.of("m1", 4L));
+        when(movieRepository.streamIdsBy()).thenReturn(Stream.of("m1", "m2", "m3")
+                .map(id -> Movie.builder().id(id).build()));
+        when(reviewRepository.countRatingsByMovie(anyCollection()))
+                .thenReturn(Map.of("m1", Map.of(5, 2L, 3, 1L)))
+                .thenReturn(Map.of());
+
+        long rebuilt = ratingStatsService.rebuild();
+
+        assertThat(rebuilt).isEqualTo(3);
+        verify(reviewRepository).countRatingsByMovie(Set.of("m1", "m2"));
+        verify(reviewRepository).countRatingsByMovie(Set.of("m3"));
+        verify(movieRepository, times(2)).replaceRatingStats(statsCaptor.capture());
+        RatingStats m1 = statsCaptor.getAllValues().get(0).get("m1");
+        assertThat(m1.getVersion()).isEqualTo(5);
+        assertThat(statsCaptor.getAllValues().get(0).get("m2").getVersion()).isEqualTo(1);
+        assertThat(m1.getReviewCount()).isEqualTo(3);
+        assertThat(m1.getRatingSum()).isEqualTo(13);
+        assertThat(m1.getHistogram()).isEqualTo(Map.of("5", 2L, "3", 1L));
+        assertThat(statsCaptor.getAllValues().get(0).get("m2").getReviewCount()).isZero();
+        assertThat(statsCaptor.getAllValues().get(1)).containsOnlyKeys("m3");
+        verify(movieCache).evictAll(Set.of("m1", "m2"));
+        verify(movieCache).evictAll(Set.of("m3"));
+        verify(reviewDtoCache).invalidateMovies(Set.of("m1", "m2"));
+        verify(reviewDtoCache).invalidateMovies(Set.of("m3"));
+        verify(collectionVersionRepository, times(2)).increment(CollectionVersion.MOVIES);
+    }
+
+    @Test
+    void testRebuildBatchCountsChangedMoviesAgain() {
+        stubRatingStatsVersions(Map.of());
+        when(reviewRepository.countRatingsByMovie(anyCollection())).thenReturn(Map.of());
+        when(movieRepository.replaceRatingStats(anyMap())).thenReturn(Set.of("m1")).thenReturn(Set.of());
+
+        int rebuilt = ratingStatsService.rebuildBatch(List.of("m1", "m2"));
+
+        assertThat(rebuilt).isEqualTo(2);
+        verify(reviewRepository).countRatingsByMovie(Set.of("m1", "m2"));
+        verify(reviewRepository).countRatingsByMovie(Set.of("m1"));
+        verify(movieRepository, times(2)).replaceRatingStats(statsCaptor.capture());
+        assertThat(statsCaptor.getAllValues().get(1)).containsOnlyKeys("m1");
+    }
+
+    @Test
+    void testRebuildBatchGivesUpOnMoviesThatKeepChanging() {
+        stubRatingStatsVersions(Map.of());
+        when(reviewRepository.countRatingsByMovie(anyCollection())).thenReturn(Map.of());
+        when(movieRepository.replaceRatingStats(anyMap())).thenReturn(Set.of("m1"));
+
+        int rebuilt = ratingStatsService.rebuildBatch(List.of("m1", "m2"));
+
+        assertThat(rebuilt).isEqualTo(1);
+        verify(movieRepository, times(RatingStatsService.MAX_ATTEMPTS)).replaceRatingStats(anyMap());
+    }
+
+    @Test
+    void testStartRebuild() {
+        when(movieRepository.streamIdsBy()).thenReturn(Stream.empty());
+
+        assertThat(ratingStatsService.startRebuild()).isTrue();
+        assertThat(ratingStatsService.isRebuilding()).isFalse();
+        verify(movieRepository, never()).replaceRatingStats(anyMap());
+        verify(collectionVersionRepository, never()).increment(any(String[].class));
+    }
+
+    @Test
+    void testToRatingStats() {
+        Instant updateDate = Instant.now();
+        RatingStats stats = RatingStatsService.toRatingStats(Map.of(1, 1L, 4, 3L), updateDate);
+
+        assertThat(stats.getReviewCount()).isEqualTo(4);
+        assertThat(stats.getRatingSum()).isEqualTo(13);
+        assertThat(stats.getHistogram()).isEqualTo(Map.of("1", 1L, "4", 3L));
+        assertThat(stats.getUpdateDate()).isEqualTo(updateDate);
+    }
+
+    private void stubRatingStatsVersions(Map<String, Long> versions) {
+        when(movieRepository.findRatingStatsVersions(anyCollection())).thenAnswer(invocation -> {
+            Map<String, Long> found = new HashMap<>();
+            for (Object id : invocation.getArgument(0, Collection.class)) {
+                found.put((String) id, versions.getOrDefault(id, 0L));
+            }
+            return found;
+        });
+    }
+
+
+}
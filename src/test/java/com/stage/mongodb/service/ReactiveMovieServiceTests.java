@@ -0,0 +1,157 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.MovieDtoInput;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.mapper.MovieMapper;
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.repository.ReactiveCollectionVersionRepository;
+import com.stage.mongodb.repository.ReactiveLeaderboardRepository;
+import com.stage.mongodb.repository.ReactiveMovieRepository;
+import com.stage.mongodb.repository.ReactiveReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class ReactiveMovieServiceTest {
+
+    @Mock
+    private ReactiveMovieRepository movieRepository;
+
+    @Mock
+    private ReactiveReviewRepository reviewRepository;
+
+    @Mock
+    private ReactiveLeaderboardRepository leaderboardRepository;
+
+    @Mock
+    private ReactiveCollectionVersionRepository collectionVersionRepository;
+
+    @Mock
+    private MovieCache movieCache;
+
+    @Mock
+    private MovieSuggestService movieSuggestService;
+
+    @Mock
+    private MovieMapper movieMapper;
+
+    @InjectMocks
+    private ReactiveMovieService movieService;
+
+    private EasyRandom easyRandom;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(collectionVersionRepository.increment(any(String[].class))).thenReturn(Mono.empty());
+        easyRandom = new EasyRandom();
+    }
+
+    @Test
+    void testGetMovies() {
+        List<Movie> movies = easyRandom.objects(Movie.class, 3).collect(Collectors.toList());
+        List<MovieDto> movieDtos = easyRandom.objects(MovieDto.class, 3).collect(Collectors.toList());
+        when(movieRepository.findAll()).thenReturn(Flux.fromIterable(movies));
+        when(movieMapper.toMovieDto(any(Movie.class))).thenReturn(movieDtos.get(0), movieDtos.get(1), movieDtos.get(2));
+        StepVerifier.create(movieService.getMovies())
+                .expectNextSequence(movieDtos)
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetMoviesPage() {
+        List<Movie> movies = easyRandom.objects(Movie.class, 3).collect(Collectors.toList());
+        when(movieRepository.findByIdGreaterThanOrderByIdAsc("abc", Limit.of(3))).thenReturn(Flux.fromIterable(movies));
+        when(movieMapper.toMovieDto(any(Movie.class))).thenReturn(easyRandom.nextObject(MovieDto.class));
+        StepVerifier.create(movieService.getMoviesPage(CursorCodec.encode("abc"), 2))
+                .assertNext(page -> {
+                    assertThat(page.getItems()).hasSize(2);
+                    assertThat(page.getNextCursor()).isEqualTo(CursorCodec.encode(movies.get(1).getId()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void testGetMoviesPage_InvalidLimit() {
+        StepVerifier.create(movieService.getMoviesPage(null, 0))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void testGetMovieById_NotFound() {
+        when(movieRepository.findById("missing")).thenReturn(Mono.empty());
+        StepVerifier.create(movieService.getMovieById("missing"))
+                .expectError(MovieNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void testInsertMovie() {
+        MovieDtoInput input = easyRandom.nextObject(MovieDtoInput.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        MovieDto movieDto = easyRandom.nextObject(MovieDto.class);
+        when(movieMapper.toMovieFromDtoInput(input)).thenReturn(movie);
+        when(movieRepository.save(movie)).thenReturn(Mono.just(movie));
+        when(movieMapper.toMovieDto(movie)).thenReturn(movieDto);
+        StepVerifier.create(movieService.insertMovie(input))
+                .expectNext(movieDto)
+                .verifyComplete();
+        assertThat(movie.getInsertDate()).isNotNull();
+        verify(movieSuggestService).put(movie.getId(), movie.getTitle());
+    }
+
+    @Test
+    void testUpdateMovie_NotFound() {
+        MovieDtoInput input = easyRandom.nextObject(MovieDtoInput.class);
+        when(movieMapper.toUpdateFromDtoInput(input)).thenReturn(new Update());
+        when(movieRepository.findAndModifyById(eq("missing"), any(Update.class))).thenReturn(Mono.empty());
+        StepVerifier.create(movieService.updateMovie(input, "missing"))
+                .expectError(MovieNotFoundException.class)
+                .verify();
+        verifyNoInteractions(movieSuggestService);
+    }
+
+    @Test
+    void testDeleteMovie() {
+        when(movieRepository.removeById("id")).thenReturn(Mono.just(1L));
+        when(reviewRepository.deleteByMovieId("id")).thenReturn(Mono.empty());
+        when(leaderboardRepository.deleteById("id")).thenReturn(Mono.empty());
+        StepVerifier.create(movieService.deleteMovie("id")).verifyComplete();
+        verify(reviewRepository).deleteByMovieId("id");
+        verify(leaderboardRepository).deleteById("id");
+        verify(movieSuggestService).remove("id");
+        verify(collectionVersionRepository).increment(CollectionVersion.MOVIES, CollectionVersion.REVIEWS);
+    }
+
+    @Test
+    void testDeleteMovie_NotFound() {
+        when(movieRepository.removeById("missing")).thenReturn(Mono.just(0L));
+        StepVerifier.create(movieService.deleteMovie("missing"))
+                .expectError(MovieNotFoundException.class)
+                .verify();
+        verify(reviewRepository, never()).deleteByMovieId(anyString());
+        verifyNoInteractions(movieSuggestService);
+    }
+}
@@ -0,0 +1,202 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.dto.ReviewDtoInput;
+import com.stage.mongodb.dto.ReviewDtoUpdate;
+import com.stage.mongodb.exceptions.MovieNotFoundException;
+import com.stage.mongodb.exceptions.ReviewNotFoundException;
+import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.CollectionVersion;
+import com.stage.mongodb.model.Movie;
+import com.stage.mongodb.model.Review;
+import com.stage.mongodb.repository.ReactiveCollectionVersionRepository;
+import com.stage.mongodb.repository.ReactiveMovieRepository;
+import com.stage.mongodb.repository.ReactiveReviewRepository;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import org.jeasy.random.EasyRandom;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.*;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class ReactiveReviewServiceTest {
+
+    @Mock
+    private ReactiveReviewRepository reviewRepository;
+
+    @Mock
+    private ReactiveMovieRepository movieRepository;
+
+    @Mock
+    private ReactiveCollectionVersionRepository collectionVersionRepository;
+
+    @Mock
+    private MovieCache movieCache;
+
+    @Mock
+    private ReviewMapper reviewMapper;
+
+    @InjectMocks
+    private ReactiveReviewService reviewService;
+
+    private EasyRandom easyRandom;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(collectionVersionRepository.increment(any(String[].class))).thenReturn(Mono.empty());
+        easyRandom = new EasyRandom();
+    }
+
+    @Test
+    void testGetReviewsResolvesMoviesInBatches() {
+        List<Review> reviews = easyRandom.objects(Review.class, ReviewService.EXPORT_BATCH_SIZE + 1)
+                .collect(Collectors.toList());
+        ReviewDto reviewDto = easyRandom.nextObject(ReviewDto.class);
+        when(reviewRepository.findAll()).thenReturn(Flux.fromIterable(reviews));
+        when(movieRepository.findByIdIn(anyCollection())).thenReturn(Flux.empty());
+        when(reviewMapper.listOfReviewsDto(anyList(), anyList()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(review -> reviewDto).toList());
+        StepVerifier.create(reviewService.getReviews())
+                .expectNextCount(reviews.size())
+                .verifyComplete();
+        verify(movieRepository, times(2)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    void testGetReviewById_NotFound() {
+        when(reviewRepository.findById("missing")).thenReturn(Mono.empty());
+        StepVerifier.create(reviewService.getReviewById("missing"))
+                .expectError(ReviewNotFoundException.class)
+                .verify();
+    }
+
+    private void stubMovieOfReview(Review review) {
+        when(reviewRepository.findMovieIdById(review.getId()))
+                .thenReturn(Mono.just(Review.builder().id(review.getId()).movieId(review.getMovieId()).build()));
+        when(movieRepository.startRatingStatsWrite(review.getMovieId())).thenReturn(Mono.just(true));
+    }
+
+    @Test
+    void testInsertReview() {
+        ReviewDtoInput input = easyRandom.nextObject(ReviewDtoInput.class);
+        Review review = easyRandom.nextObject(Review.class);
+        ReviewDto reviewDto = easyRandom.nextObject(ReviewDto.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        input.setRating(4);
+        review.setRating(4);
+        when(movieRepository.startRatingStatsWrite(input.getMovieId())).thenReturn(Mono.just(true));
+        when(movieRepository.finishRatingStatsWrite(input.getMovieId(), Map.of(4, 1))).thenReturn(Mono.just(movie));
+        when(reviewMapper.toReviewFromDtoInput(input)).thenReturn(review);
+        when(reviewRepository.save(review)).thenReturn(Mono.just(review));
+        when(reviewMapper.toReviewDto(review, movie)).thenReturn(reviewDto);
+        StepVerifier.create(reviewService.insertReview(input))
+                .expectNext(reviewDto)
+                .verifyComplete();
+        InOrder inOrder = inOrder(movieRepository, reviewRepository);
+        inOrder.verify(movieRepository).startRatingStatsWrite(input.getMovieId());
+        inOrder.verify(reviewRepository).save(review);
+        inOrder.verify(movieRepository).finishRatingStatsWrite(input.getMovieId(), Map.of(4, 1));
+    }
+
+    @Test
+    void testInsertReview_SaveFails() {
+        ReviewDtoInput input = easyRandom.nextObject(ReviewDtoInput.class);
+        input.setRating(4);
+        when(movieRepository.startRatingStatsWrite(input.getMovieId())).thenReturn(Mono.just(true));
+        when(movieRepository.finishRatingStatsWrite(input.getMovieId(), Map.of()))
+                .thenReturn(Mono.just(easyRandom.nextObject(Movie.class)));
+        when(reviewMapper.toReviewFromDtoInput(input)).thenReturn(easyRandom.nextObject(Review.class));
+        when(reviewRepository.save(any(Review.class))).thenReturn(Mono.error(new IllegalStateException("write failed")));
+        StepVerifier.create(reviewService.insertReview(input))
+                .expectError(IllegalStateException.class)
+                .verify();
+        verify(movieRepository).finishRatingStatsWrite(input.getMovieId(), Map.of());
+    }
+
+    @Test
+    void testInsertReview_MovieNotFound() {
+        ReviewDtoInput input = easyRandom.nextObject(ReviewDtoInput.class);
+        when(movieRepository.startRatingStatsWrite(input.getMovieId())).thenReturn(Mono.just(false));
+        StepVerifier.create(reviewService.insertReview(input))
+                .expectError(MovieNotFoundException.class)
+                .verify();
+        verify(reviewRepository, never()).save(any(Review.class));
+    }
+
+    @Test
+    void testUpdateReview_RatingChanged() {
+        ReviewDtoUpdate reviewDtoUpdate = easyRandom.nextObject(ReviewDtoUpdate.class);
+        Review existingReview = easyRandom.nextObject(Review.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        existingReview.setRating(2);
+        reviewDtoUpdate.setRating(5);
+        stubMovieOfReview(existingReview);
+        when(reviewMapper.toUpdateFromDtoUpdate(reviewDtoUpdate)).thenReturn(new Update());
+        when(reviewRepository.findAndModifyById(eq(existingReview.getId()), any(Update.class), eq(false)))
+                .thenReturn(Mono.just(existingReview));
+        doAnswer(invocation -> {
+            existingReview.setRating(5);
+            return null;
+        }).when(reviewMapper).updateReviewFromDtoUpdate(reviewDtoUpdate, existingReview);
+        when(movieRepository.finishRatingStatsWrite(existingReview.getMovieId(), Map.of(2, -1, 5, 1)))
+                .thenReturn(Mono.just(movie));
+        when(reviewMapper.toReviewDto(existingReview, movie)).thenReturn(easyRandom.nextObject(ReviewDto.class));
+        StepVerifier.create(reviewService.updateReview(reviewDtoUpdate, existingReview.getId()))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(movieRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testDeleteReview() {
+        Review review = easyRandom.nextObject(Review.class);
+        review.setRating(3);
+        stubMovieOfReview(review);
+        when(reviewRepository.findAndRemoveById(review.getId())).thenReturn(Mono.just(review));
+        when(movieRepository.finishRatingStatsWrite(review.getMovieId(), Map.of(3, -1)))
+                .thenReturn(Mono.just(easyRandom.nextObject(Movie.class)));
+        StepVerifier.create(reviewService.deleteReview(review.getId())).verifyComplete();
+        InOrder inOrder = inOrder(movieRepository, reviewRepository);
+        inOrder.verify(movieRepository).startRatingStatsWrite(review.getMovieId());
+        inOrder.verify(reviewRepository).findAndRemoveById(review.getId());
+        inOrder.verify(movieRepository).finishRatingStatsWrite(review.getMovieId(), Map.of(3, -1));
+        verify(collectionVersionRepository).increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+    }
+
+    @Test
+    void testDeleteReview_RemovedInBetweenEndsThePendingWrite() {
+        Review review = easyRandom.nextObject(Review.class);
+        stubMovieOfReview(review);
+        when(reviewRepository.findAndRemoveById(review.getId())).thenReturn(Mono.empty());
+        when(movieRepository.finishRatingStatsWrite(review.getMovieId(), Map.of()))
+                .thenReturn(Mono.just(easyRandom.nextObject(Movie.class)));
+        StepVerifier.create(reviewService.deleteReview(review.getId()))
+                .expectError(ReviewNotFoundException.class)
+                .verify();
+        verify(movieRepository).finishRatingStatsWrite(review.getMovieId(), Map.of());
+    }
+
+    @Test
+    void testDeleteReview_NotFound() {
+        when(reviewRepository.findMovieIdById("missing")).thenReturn(Mono.empty());
+        StepVerifier.create(reviewService.deleteReview("missing"))
+                .expectError(ReviewNotFoundException.class)
+                .verify();
+        verifyNoInteractions(movieRepository);
+    }
+}
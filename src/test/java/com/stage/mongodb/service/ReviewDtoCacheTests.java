@@ -0,0 +1,123 @@
+package com.stage.mongodb.service;
+
+import com.stage.mongodb.dto.MovieDto;
+import com.stage.mongodb.dto.ReviewDto;
+import com.stage.mongodb.service.ReviewDtoCache.CachedReview;
+import com.stage.mongodb.utils.ResourceVersion;
+import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class ReviewDtoCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ReviewDtoCache reviewDtoCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reviewDtoCache = new ReviewDtoCache(meterRegistry, 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    private Function<String, CachedReview> loader(String movieId) {
+        return reviewId -> {
+            loads.incrementAndGet();
+            reviewDtoCache.dependOn(reviewId, movieId);
+            ReviewDto reviewDto = ReviewDto.builder()
+                    .id(reviewId)
+                    .movieDto(MovieDto.builder().id(movieId).build())
+                    .build();
+            return new CachedReview(reviewDto, new ResourceVersion(reviewId, Instant.EPOCH));
+        };
+    }
+
+    @Test
+    void testGetLoadsOnlyOnce() {
+        CachedReview first = reviewDtoCache.get("r1", loader("m1"));
+        CachedReview second = reviewDtoCache.get("r1", loader("m1"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", ReviewDtoCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testInvalidateMovieDropsOnlyItsReviews() {
+        reviewDtoCache.get("r1", loader("m1"));
+        reviewDtoCache.get("r2", loader("m1"));
+        reviewDtoCache.get("r3", loader("m2"));
+
+        reviewDtoCache.invalidateMovie("m1");
+        assertThat(reviewDtoCache.dependentCount("m1")).isZero();
+
+        reviewDtoCache.get("r1", loader("m1"));
+        reviewDtoCache.get("r2", loader("m1"));
+        reviewDtoCache.get("r3", loader("m2"));
+        assertThat(loads).hasValue(5);
+        assertThat(reviewDtoCache.dependentCount("m1")).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidateDropsSingleReview() {
+        reviewDtoCache.get("r1", loader("m1"));
+        reviewDtoCache.get("r2", loader("m1"));
+
+        reviewDtoCache.invalidate("r1");
+        reviewDtoCache.get("r1", loader("m1"));
+        reviewDtoCache.get("r2", loader("m1"));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void testInvalidateForgetsDependency() {
+        reviewDtoCache.get("r1", loader("m1"));
+        reviewDtoCache.get("r2", loader("m1"));
+        reviewDtoCache.get("r3", loader("m2"));
+
+        reviewDtoCache.invalidate("r1");
+        assertThat(reviewDtoCache.dependentCount("m1")).isEqualTo(1);
+
+        reviewDtoCache.invalidate("r3");
+        assertThat(reviewDtoCache.trackedMovies()).isEqualTo(1);
+
+        reviewDtoCache.clear();
+        assertThat(reviewDtoCache.trackedMovies()).isZero();
+    }
+
+    @Test
+    void testEvictionForgetsDependency() {
+        reviewDtoCache = new ReviewDtoCache(meterRegistry, 0, Duration.ofMinutes(1));
+
+        reviewDtoCache.get("r1", loader("m1"));
+
+        assertThat(reviewDtoCache.dependentCount("m1")).isZero();
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> reviewDtoCache.get("r1", reviewId -> {
+            throw new IllegalStateException("movie missing");
+        }));
+
+        reviewDtoCache.get("r1", loader("m1"));
+        assertThat(loads).hasValue(1);
+    }
+}
@@ -1,25 +1,53 @@
 package com.stage.mongodb.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stage.mongodb.dto.BulkItemResultDto;
+import com.stage.mongodb.dto.CursorPageDto;
 import com.stage.mongodb.dto.ReviewDto;
 import com.stage.mongodb.dto.ReviewDtoInput;
 import com.stage.mongodb.dto.ReviewDtoUpdate;
 import com.stage.mongodb.dto.ReviewPatchDto;
+import com.stage.mongodb.dto.SearchPageDto;
 import com.stage.mongodb.exceptions.MovieNotFoundException;
 import com.stage.mongodb.exceptions.ReviewNotFoundException;
 import com.stage.mongodb.mapper.ReviewMapper;
+import com.stage.mongodb.model.CollectionVersion;
 import com.stage.mongodb.model.Movie;
 import com.stage.mongodb.model.Review;
+import com.stage.mongodb.model.ReviewWithMovie;
+import com.stage.mongodb.repository.CollectionVersionRepository;
 import com.stage.mongodb.repository.MovieRepository;
 import com.stage.mongodb.repository.ReviewRepository;
+import com.stage.mongodb.utils.CursorCodec;
+import com.stage.mongodb.utils.ResourceVersion;
 import com.stage.mongodb.utils.SpacedDisplayNameGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.bson.Document;
 import org.jeasy.random.EasyRandom;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
-
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -35,39 +63,74 @@ class ReviewServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private CollectionVersionRepository collectionVersionRepository;
+
     @Mock
     private ReviewMapper reviewMapper;
 
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private ReviewService reviewService;
 
+    @Captor
+    private ArgumentCaptor<Update> updateCaptor;
+
     @Captor
     private ArgumentCaptor<Review> reviewCaptor;
 
     @Captor
     private ArgumentCaptor<String> idCaptor;
 
+    private MovieCache movieCache;
+
+    private ReviewDtoCache reviewDtoCache;
+
     private EasyRandom easyRandom;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        movieCache = new MovieCache(movieRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(reviewService, "movieCache", movieCache);
+        reviewDtoCache = new ReviewDtoCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(reviewService, "reviewDtoCache", reviewDtoCache);
         easyRandom = new EasyRandom();
     }
 
+    private static void reviewMovies(List<Review> reviews, List<Movie> movies) {
+        for (int i = 0; i < reviews.size(); i++) {
+            reviews.get(i).setMovieId(movies.get(i).getId());
+        }
+    }
+
+    private void stubMovieOfReview(String id, String movieId) {
+        when(reviewRepository.findMovieIdById(id)).thenReturn(Optional.of(Review.builder().id(id).movieId(movieId).build()));
+    }
+
+    private static List<Movie> sameMovies(List<Movie> movies) {
+        return argThat(actual -> actual.size() == movies.size() && actual.containsAll(movies));
+    }
+
     @Test
     void testGetReviews() {
         List<Review> reviews = easyRandom.objects(Review.class, 3).collect(Collectors.toList());
         List<Movie> movies = easyRandom.objects(Movie.class, 3).collect(Collectors.toList());
         List<ReviewDto> reviewDtos = easyRandom.objects(ReviewDto.class, 3).collect(Collectors.toList());
+        reviewMovies(reviews, movies);
         when(reviewRepository.findAll()).thenReturn(reviews);
         when(movieRepository.findAllById(anySet())).thenReturn(movies);
-        when(reviewMapper.listOfReviewsDto(reviews, movies)).thenReturn(reviewDtos);
+        when(reviewMapper.listOfReviewsDto(eq(reviews), sameMovies(movies))).thenReturn(reviewDtos);
         List<ReviewDto> result = reviewService.getReviews();
         assertThat(result).hasSize(3).isEqualTo(reviewDtos);
         verify(reviewRepository).findAll();
         verify(movieRepository).findAllById(anySet());
-        verify(reviewMapper).listOfReviewsDto(reviews, movies);
+        verify(reviewMapper).listOfReviewsDto(eq(reviews), sameMovies(movies));
     }
 
     @Test
@@ -108,7 +171,11 @@ class ReviewServiceTest {
         Review review = easyRandom.nextObject(Review.class);
         ReviewDto reviewDto = easyRandom.nextObject(ReviewDto.class);
         Movie movie = easyRandom.nextObject(Movie.class);
-        when(movieRepository.findById(input.getMovieId())).thenReturn(Optional.ofNullable(movie));
+        input.setRating(4);
+        movie.setId(input.getMovieId());
+        review.setRating(4);
+        when(movieRepository.startRatingStatsWrite(input.getMovieId())).thenReturn(true);
+        when(movieRepository.finishRatingStatsWrite(input.getMovieId(), Map.of(4, 1))).thenReturn(Optional.of(movie));
         when(reviewMapper.toReviewFromDtoInput(input)).thenReturn(review);
         when(reviewMapper.toReviewDto(review, movie)).thenReturn(reviewDto);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
@@ -117,12 +184,44 @@ class ReviewServiceTest {
         verify(reviewRepository).save(reviewCaptor.capture());
         Review capturedReview = reviewCaptor.getValue();
         assertThat(capturedReview).isEqualTo(review);
+        verify(movieRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void testInsertReview_PendingFromBeforeTheSaveUntilTheStatsAreUpdated() {
+        ReviewDtoInput input = ReviewDtoInput.builder().movieId("movie-id").rating(4).comment("Good").build();
+        Review review = Review.builder().movieId("movie-id").rating(4).build();
+        when(movieRepository.startRatingStatsWrite("movie-id")).thenReturn(true);
+        when(movieRepository.finishRatingStatsWrite("movie-id", Map.of(4, 1)))
+                .thenReturn(Optional.of(Movie.builder().id("movie-id").build()));
+        when(reviewMapper.toReviewFromDtoInput(input)).thenReturn(review);
+        when(reviewRepository.save(review)).thenReturn(review);
+
+        reviewService.insertReview(input);
+
+        InOrder inOrder = inOrder(movieRepository, reviewRepository);
+        inOrder.verify(movieRepository).startRatingStatsWrite("movie-id");
+        inOrder.verify(reviewRepository).save(review);
+        inOrder.verify(movieRepository).finishRatingStatsWrite("movie-id", Map.of(4, 1));
+    }
+
+    @Test
+    void testInsertReview_SaveFails() {
+        ReviewDtoInput input = easyRandom.nextObject(ReviewDtoInput.class);
+        input.setRating(4);
+        when(movieRepository.startRatingStatsWrite(input.getMovieId())).thenReturn(true);
+        when(reviewMapper.toReviewFromDtoInput(input)).thenReturn(easyRandom.nextObject(Review.class));
+        when(reviewRepository.save(any(Review.class))).thenThrow(new IllegalStateException("write failed"));
+        assertThrows(IllegalStateException.class, () -> reviewService.insertReview(input));
+        verify(movieRepository).finishRatingStatsWrite(input.getMovieId(), Map.of());
     }
 
     @Test
     void testInsertReview_MovieNotFound() {
         ReviewDtoInput input = easyRandom.nextObject(ReviewDtoInput.class);
         assertThrows(MovieNotFoundException.class, () -> reviewService.insertReview(input));
+        verify(reviewRepository, never()).save(any(Review.class));
+        verify(movieRepository, never()).finishRatingStatsWrite(anyString(), anyMap());
     }
 
     @Test
@@ -132,22 +231,29 @@ class ReviewServiceTest {
         Review existingReview = easyRandom.nextObject(Review.class);
         Movie movie = easyRandom.nextObject(Movie.class);
         ReviewDto reviewDto = easyRandom.nextObject(ReviewDto.class);
-        when(reviewRepository.findById(id)).thenReturn(Optional.of(existingReview));
+        stubMovieOfReview(id, existingReview.getMovieId());
+        when(reviewMapper.toUpdateFromDtoUpdate(updateDto)).thenReturn(new Update().set("rating", updateDto.getRating()));
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
         when(movieRepository.findById(existingReview.getMovieId())).thenReturn(Optional.of(movie));
         when(reviewMapper.toReviewDto(existingReview, movie)).thenReturn(reviewDto);
         ReviewDto result = reviewService.updateReview(updateDto, id);
         assertThat(result).isEqualTo(reviewDto);
-        verify(reviewRepository).save(reviewCaptor.capture());
-        Review capturedReview = reviewCaptor.getValue();
-        assertThat(capturedReview).isEqualTo(existingReview);
+        verify(reviewRepository).findAndModifyById(eq(id), updateCaptor.capture(), eq(false));
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("rating", updateDto.getRating())
+                .containsKey("updateDate");
+        verify(reviewRepository, never()).findById(anyString());
+        verify(reviewRepository, never()).save(any(Review.class));
     }
 
     @Test
     void testUpdateReview_NotFound() {
         String id = "invalid-id";
         ReviewDtoUpdate updateDto = easyRandom.nextObject(ReviewDtoUpdate.class);
-        when(reviewRepository.findById(id)).thenReturn(Optional.empty());
+        when(reviewMapper.toUpdateFromDtoUpdate(updateDto)).thenReturn(new Update());
         assertThrows(ReviewNotFoundException.class, () -> reviewService.updateReview(updateDto, id));
+        verify(reviewRepository, never()).findAndModifyById(anyString(), any(Update.class), anyBoolean());
+        verify(movieRepository, never()).startRatingStatsWrite(anyString());
     }
 
     @Test
@@ -156,7 +262,9 @@ class ReviewServiceTest {
         ReviewDtoUpdate updateDto = easyRandom.nextObject(ReviewDtoUpdate.class);
         Review existingReview = easyRandom.nextObject(Review.class);
 
-        when(reviewRepository.findById(id)).thenReturn(Optional.of(existingReview));
+        stubMovieOfReview(id, existingReview.getMovieId());
+        when(reviewMapper.toUpdateFromDtoUpdate(updateDto)).thenReturn(new Update());
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
         when(movieRepository.findById(existingReview.getMovieId())).thenReturn(Optional.empty());
 
         assertThrows(ReviewNotFoundException.class, () -> reviewService.updateReview(updateDto, id)); // Lancia eccezione
@@ -167,18 +275,23 @@ class ReviewServiceTest {
         String id = "review-id";
         ReviewPatchDto patchDto = easyRandom.nextObject(ReviewPatchDto.class);
         patchDto.setComment(null);
+        patchDto.setRating(4);
         Review existingReview = easyRandom.nextObject(Review.class);
         Movie existingMovie = easyRandom.nextObject(Movie.class);
         ReviewDto updatedReviewDto = easyRandom.nextObject(ReviewDto.class);
-        when(reviewRepository.findById(id)).thenReturn(Optional.of(existingReview));
+        stubMovieOfReview(id, existingReview.getMovieId());
+        when(reviewMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update().set("rating", patchDto.getRating()));
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
         when(movieRepository.findById(existingReview.getMovieId())).thenReturn(Optional.of(existingMovie));
-        when(reviewRepository.save(existingReview)).thenReturn(existingReview);
         when(reviewMapper.toReviewDto(existingReview, existingMovie)).thenReturn(updatedReviewDto);
         ReviewDto result = reviewService.updateReviewPartial(id, patchDto);
         assertThat(result).isEqualTo(updatedReviewDto);
-        verify(reviewRepository).findById(id);
-        verify(reviewMapper).updateReviewFromPatchDto(patchDto, existingReview);
-        verify(reviewRepository).save(existingReview);
+        verify(reviewMapper).toUpdateFromPatchDto(patchDto);
+        verify(reviewRepository).findAndModifyById(eq(id), updateCaptor.capture(), eq(false));
+        assertThat(updateCaptor.getValue().getUpdateObject().get("$set", Document.class))
+                .containsKey("updateDate")
+                .doesNotContainKey("comment");
+        verify(reviewRepository, never()).save(any(Review.class));
         verify(movieRepository).findById(existingReview.getMovieId());
         verify(reviewMapper).toReviewDto(existingReview, existingMovie);
     }
@@ -188,33 +301,104 @@ class ReviewServiceTest {
         String id = "review-id";
         ReviewPatchDto patchDto = easyRandom.nextObject(ReviewPatchDto.class);
         patchDto.setComment(null); // Impostiamo un campo null per il test
+        patchDto.setRating(4);
         Review existingReview = easyRandom.nextObject(Review.class);
 
         // Simula il caso in cui la recensione esista, ma il film non venga trovato
-        when(reviewRepository.findById(id)).thenReturn(Optional.of(existingReview));
+        stubMovieOfReview(id, existingReview.getMovieId());
+        when(reviewMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update());
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
         when(movieRepository.findById(existingReview.getMovieId())).thenReturn(Optional.empty());
 
         assertThrows(ReviewNotFoundException.class, () -> reviewService.updateReviewPartial(id, patchDto)); // Lancia eccezione
     }
 
+    @Test
+    void testUpdateReviewFromPatchDto_RatingNotSetLeavesTheStats() {
+        String id = "review-id";
+        ReviewPatchDto patchDto = ReviewPatchDto.builder().comment("New comment").build();
+        Review existingReview = easyRandom.nextObject(Review.class);
+        Movie existingMovie = easyRandom.nextObject(Movie.class);
+        when(reviewMapper.toUpdateFromPatchDto(patchDto)).thenReturn(new Update().set("comment", "New comment"));
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
+        when(movieRepository.findById(existingReview.getMovieId())).thenReturn(Optional.of(existingMovie));
+
+        reviewService.updateReviewPartial(id, patchDto);
+
+        verify(reviewRepository, never()).findMovieIdById(anyString());
+        verify(movieRepository, never()).startRatingStatsWrite(anyString());
+        verify(movieRepository, never()).finishRatingStatsWrite(anyString(), anyMap());
+        verify(collectionVersionRepository).increment(CollectionVersion.REVIEWS);
+    }
+
+    @Test
+    void testDeleteReviewsResetsMovieStats() {
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movieCache.put(movie);
+
+        reviewService.deleteReviews();
+
+        InOrder inOrder = inOrder(reviewRepository, movieRepository);
+        inOrder.verify(reviewRepository).deleteAll();
+        inOrder.verify(movieRepository).resetRatingStats();
+        verify(collectionVersionRepository).increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        when(movieRepository.findById(movie.getId())).thenReturn(Optional.empty());
+        assertThat(movieCache.findById(movie.getId())).isEmpty();
+    }
+
     @Test
     void testDeleteReview() {
         String id = "review-id";
-        when(reviewRepository.existsById(id)).thenReturn(true);
-        doNothing().when(reviewRepository).deleteById(id);
+        Review review = Review.builder().id(id).movieId("movie-id").rating(3).build();
+        stubMovieOfReview(id, "movie-id");
+        when(reviewRepository.findAndRemoveById(id)).thenReturn(Optional.of(review));
 
         reviewService.deleteReview(id);
 
-        verify(reviewRepository).deleteById(idCaptor.capture());
+        verify(reviewRepository).findAndRemoveById(idCaptor.capture());
         String capturedId = idCaptor.getValue();
         assertThat(capturedId).isEqualTo(id);
+        InOrder inOrder = inOrder(movieRepository, reviewRepository);
+        inOrder.verify(movieRepository).startRatingStatsWrite("movie-id");
+        inOrder.verify(reviewRepository).findAndRemoveById(id);
+        inOrder.verify(movieRepository).finishRatingStatsWrite("movie-id", Map.of(3, -1));
+        verify(collectionVersionRepository).increment(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
     }
 
     @Test
     void testDeleteReview_NotFound() {
         String id = "invalid-id";
-        when(reviewRepository.existsById(id)).thenReturn(false);
         assertThrows(ReviewNotFoundException.class, () -> reviewService.deleteReview(id));
+        verify(reviewRepository, never()).findAndRemoveById(anyString());
+        verify(movieRepository, never()).startRatingStatsWrite(anyString());
+    }
+
+    @Test
+    void testDeleteReview_RemovedInBetweenEndsThePendingWrite() {
+        String id = "review-id";
+        stubMovieOfReview(id, "movie-id");
+        when(reviewRepository.findAndRemoveById(id)).thenReturn(Optional.empty());
+
+        assertThrows(ReviewNotFoundException.class, () -> reviewService.deleteReview(id));
+
+        verify(movieRepository).startRatingStatsWrite("movie-id");
+        verify(movieRepository).finishRatingStatsWrite("movie-id", Map.of());
+    }
+
+    @Test
+    void testGetReviewsVersion_ChangesWithTheMovies() {
+        List<String> ids = List.of(CollectionVersion.REVIEWS, CollectionVersion.MOVIES);
+        Instant updateDate = Instant.parse("2024-12-24T10:00:00Z");
+        CollectionVersion reviews = CollectionVersion.builder().id(CollectionVersion.REVIEWS).version(2).updateDate(updateDate).build();
+        when(collectionVersionRepository.findAllById(ids)).thenReturn(List.of(reviews,
+                CollectionVersion.builder().id(CollectionVersion.MOVIES).version(5).updateDate(updateDate.plusSeconds(1)).build()));
+
+        ResourceVersion version = reviewService.getReviewsVersion();
+
+        assertThat(version.lastModified()).isEqualTo(updateDate.plusSeconds(1));
+        when(collectionVersionRepository.findAllById(ids)).thenReturn(List.of(reviews,
+                CollectionVersion.builder().id(CollectionVersion.MOVIES).version(6).updateDate(updateDate.plusSeconds(1)).build()));
+        assertThat(reviewService.getReviewsVersion().eTag()).isNotEqualTo(version.eTag());
     }
 
     @Test
@@ -226,4 +410,282 @@ class ReviewServiceTest {
         verify(reviewRepository).findAll();
         verify(reviewMapper, never()).toReviewDto(any(Review.class));
     }
+
+    @Test
+    void testGetReviewsPage() {
+        List<ReviewWithMovie> reviews = easyRandom.objects(ReviewWithMovie.class, 3).collect(Collectors.toList());
+        when(reviewRepository.findPageWithMovie(null, 3)).thenReturn(reviews);
+        when(reviewMapper.toReviewDto(any(ReviewWithMovie.class))).thenReturn(easyRandom.nextObject(ReviewDto.class));
+        CursorPageDto<ReviewDto> result = reviewService.getReviewsPage(null, 2);
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getNextCursor()).isEqualTo(CursorCodec.encode(reviews.get(1).getId()));
+        verify(reviewMapper, times(2)).toReviewDto(any(ReviewWithMovie.class));
+        verify(movieRepository, never()).findAllById(anySet());
+    }
+
+    @Test
+    void testGetReviewsPage_AfterCursor() {
+        List<ReviewWithMovie> reviews = easyRandom.objects(ReviewWithMovie.class, 1).collect(Collectors.toList());
+        when(reviewRepository.findPageWithMovie("123", 3)).thenReturn(reviews);
+        CursorPageDto<ReviewDto> result = reviewService.getReviewsPage(CursorCodec.encode("123"), 2);
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+        verify(reviewRepository).findPageWithMovie(idCaptor.capture(), eq(3));
+        assertThat(idCaptor.getValue()).isEqualTo("123");
+    }
+
+    @Test
+    void testGetReviewsPage_InvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getReviewsPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> reviewService.getReviewsPage(null, ReviewService.MAX_PAGE_SIZE + 1));
+        verify(reviewRepository, never()).findPageWithMovie(any(), anyInt());
+    }
+
+    @Test
+    void testExportReviews() throws Exception {
+        List<Review> reviews = easyRandom.objects(Review.class, 2).collect(Collectors.toList());
+        List<Movie> movies = easyRandom.objects(Movie.class, 2).collect(Collectors.toList());
+        List<ReviewDto> reviewDtos = easyRandom.objects(ReviewDto.class, 2).collect(Collectors.toList());
+        reviewMovies(reviews, movies);
+        when(reviewRepository.streamAllBy()).thenReturn(reviews.stream());
+        when(movieRepository.findAllById(anySet())).thenReturn(movies);
+        when(reviewMapper.listOfReviewsDto(eq(reviews), sameMovies(movies))).thenReturn(reviewDtos);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        reviewService.exportReviews(outputStream);
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(reviewDtos.get(0).getId());
+        verify(reviewRepository, never()).findAll();
+    }
+
+    @Test
+    void testExportReviewsResolvesMoviesInBatches() throws Exception {
+        List<Review> reviews = easyRandom.objects(Review.class, ReviewService.EXPORT_BATCH_SIZE + 1).collect(Collectors.toList());
+        when(reviewRepository.streamAllBy()).thenReturn(reviews.stream());
+        when(movieRepository.findAllById(anySet())).thenReturn(List.of());
+        when(reviewMapper.listOfReviewsDto(anyList(), anyList())).thenReturn(List.of());
+        reviewService.exportReviews(new ByteArrayOutputStream());
+        verify(movieRepository, times(2)).findAllById(anySet());
+    }
+
+    @Test
+    void testInsertReviews() throws Exception {
+        String json = """
+                [{"rating": 5, "comment": "Great", "movieId": "m1"},
+                 {"rating": 9, "comment": "Too high", "movieId": "m1"},
+                 {"rating": 4, "comment": "Unknown movie", "movieId": "m2"},
+                 {"rating": 3, "comment": "Fine", "movieId": "m1"},
+                 {"rating": "five", "comment": "Not a number", "movieId": "m1"},
+                 {"rating": 2, "comment": "Duplicate", "movieId": "m1"}]
+                """;
+        ReflectionTestUtils.setField(reviewService, "bulkChunkSize", 2);
+        when(reviewMapper.toReviewFromDtoInput(any(ReviewDtoInput.class))).thenAnswer(invocation -> {
+            ReviewDtoInput input = invocation.getArgument(0);
+            return Review.builder().movieId(input.getMovieId()).rating(input.getRating()).comment(input.getComment()).build();
+        });
+        when(movieRepository.findIdsByIdIn(anyCollection())).thenReturn(List.of(Movie.builder().id("m1").build()));
+        when(reviewRepository.insertUnordered(anyList())).thenReturn(Map.of())
+                .thenReturn(Map.of(1, "duplicate key"));
+
+        List<BulkItemResultDto> results = reviewService.insertReviews(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(results).extracting(BulkItemResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).isEqualTo("The rating must be at most 5");
+        assertThat(results.get(2).getError()).isEqualTo("Movie with ID m2 does not exist");
+        assertThat(results.get(3).getId()).isNotNull();
+        assertThat(results.get(4).getError()).isEqualTo("The element is not a valid review");
+        assertThat(results.get(5).getError()).isEqualTo("duplicate key");
+        verify(movieRepository).findIdsByIdIn(Set.of("m1", "m2"));
+        verify(movieRepository).findIdsByIdIn(Set.of("m1"));
+        verify(movieRepository, never()).findById(anyString());
+        verify(reviewRepository, times(2)).insertUnordered(anyList());
+    }
+
+    @Test
+    void testInsertReviews_NoKnownMovie() throws Exception {
+        String json = "[{\"rating\": 5, \"comment\": \"Great\", \"movieId\": \"m1\"}]";
+        when(reviewMapper.toReviewFromDtoInput(any(ReviewDtoInput.class)))
+                .thenAnswer(invocation -> Review.builder().movieId(invocation.<ReviewDtoInput>getArgument(0).getMovieId()).build());
+        when(movieRepository.findIdsByIdIn(anyCollection())).thenReturn(List.of());
+
+        List<BulkItemResultDto> results = reviewService.insertReviews(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getError()).isEqualTo("Movie with ID m1 does not exist");
+        verify(reviewRepository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void testInsertReviews_MalformedJson() {
+        String json = "[{\"rating\": 5, \"comment\": \"Great\", \"movieId\": \"m1\"}, {\"rating\": ";
+        ReflectionTestUtils.setField(reviewService, "bulkChunkSize", 10);
+        when(reviewMapper.toReviewFromDtoInput(any(ReviewDtoInput.class))).thenAnswer(invocation -> Review.builder().build());
+
+        assertThrows(IllegalArgumentException.class, () -> reviewService.insertReviews(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        verify(reviewRepository, never()).insertUnordered(anyList());
+    }
+
+    @Test
+    void testUpdateReview_RatingChanged() {
+        String id = "review-id";
+        ReviewDtoUpdate updateDto = ReviewDtoUpdate.builder().rating(5).comment("Better").build();
+        Review existingReview = Review.builder().id(id).movieId("movie-id").rating(2).comment("Bad").build();
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movie.setId("movie-id");
+        stubMovieOfReview(id, "movie-id");
+        when(reviewMapper.toUpdateFromDtoUpdate(updateDto)).thenReturn(new Update());
+        when(reviewRepository.findAndModifyById(eq(id), any(Update.class), eq(false))).thenReturn(Optional.of(existingReview));
+        doCallRealMethod().when(reviewMapper).updateReviewFromDtoUpdate(updateDto, existingReview);
+        when(movieRepository.finishRatingStatsWrite("movie-id", Map.of(2, -1, 5, 1))).thenReturn(Optional.of(movie));
+        reviewService.updateReview(updateDto, id);
+        InOrder inOrder = inOrder(movieRepository, reviewRepository);
+        inOrder.verify(movieRepository).startRatingStatsWrite("movie-id");
+        inOrder.verify(reviewRepository).findAndModifyById(eq(id), any(Update.class), eq(false));
+        inOrder.verify(movieRepository).finishRatingStatsWrite("movie-id", Map.of(2, -1, 5, 1));
+        verify(movieRepository, never()).findById(anyString());
+        verify(reviewMapper).toReviewDto(reviewCaptor.capture(), eq(movie));
+        assertThat(reviewCaptor.getValue().getRating()).isEqualTo(5);
+        assertThat(reviewCaptor.getValue().getUpdateDate()).isNotNull();
+    }
+
+    @Test
+    void testInsertReviews_IncrementsRatingStats() throws Exception {
+        String json = """
+                [{"rating": 5, "comment": "Great", "movieId": "m1"},
+                 {"rating": 5, "comment": "Great again", "movieId": "m1"},
+                 {"rating": 2, "comment": "Meh", "movieId": "m2"}]
+                """;
+        ReflectionTestUtils.setField(reviewService, "bulkChunkSize", 10);
+        when(reviewMapper.toReviewFromDtoInput(any(ReviewDtoInput.class))).thenAnswer(invocation -> {
+            ReviewDtoInput input = invocation.getArgument(0);
+            return Review.builder().movieId(input.getMovieId()).rating(input.getRating()).build();
+        });
+        when(movieRepository.findIdsByIdIn(anyCollection()))
+                .thenReturn(List.of(Movie.builder().id("m1").build(), Movie.builder().id("m2").build()));
+        when(reviewRepository.insertUnordered(anyList())).thenReturn(Map.of(2, "duplicate key"));
+
+        reviewService.insertReviews(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        verify(movieRepository).startRatingStatsWrites(Set.of("m1", "m2"));
+        verify(movieRepository).finishRatingStatsWrites(Map.of("m1", Map.of(5, 2), "m2", Map.of()));
+    }
+
+    @Test
+    void testRatingDelta() {
+        assertThat(ReviewService.ratingDelta(0, 4)).isEqualTo(Map.of(4, 1));
+        assertThat(ReviewService.ratingDelta(4, 0)).isEqualTo(Map.of(4, -1));
+        assertThat(ReviewService.ratingDelta(2, 5)).isEqualTo(Map.of(2, -1, 5, 1));
+    }
+
+    @Test
+    void testSearchReviews() {
+        List<Review> reviews = easyRandom.objects(Review.class, 2).collect(Collectors.toList());
+        List<Movie> movies = easyRandom.objects(Movie.class, 2).collect(Collectors.toList());
+        List<ReviewDto> reviewsDto = easyRandom.objects(ReviewDto.class, 2).collect(Collectors.toList());
+        reviewMovies(reviews, movies);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by("score"));
+        when(reviewRepository.findAllBy(any(TextCriteria.class), eq(pageable))).thenReturn(new SliceImpl<>(reviews, pageable, false));
+        when(movieRepository.findAllById(anySet())).thenReturn(movies);
+        when(reviewMapper.listOfReviewsDto(eq(reviews), sameMovies(movies))).thenReturn(reviewsDto);
+
+        SearchPageDto<ReviewDto> result = reviewService.searchReviews("great acting", 0, 2);
+
+        assertThat(result.getItems()).isEqualTo(reviewsDto);
+        assertThat(result.isHasNext()).isFalse();
+        verify(movieRepository).findAllById(reviews.stream().map(Review::getMovieId).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testSearchReviews_NoMatch() {
+        Pageable pageable = PageRequest.of(0, 20, Sort.by("score"));
+        when(reviewRepository.findAllBy(any(TextCriteria.class), eq(pageable))).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        SearchPageDto<ReviewDto> result = reviewService.searchReviews("nothing", 0, 20);
+
+        assertThat(result.getItems()).isEmpty();
+        verify(movieRepository, never()).findAllById(anySet());
+    }
+
+
+    @Test
+    void testGetReviewById_MovieServedFromCache() {
+        Review review = easyRandom.nextObject(Review.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
+        when(movieRepository.findById(review.getMovieId())).thenReturn(Optional.of(movie));
+        when(reviewMapper.toReviewDto(review, movie)).thenReturn(easyRandom.nextObject(ReviewDto.class));
+        reviewService.getReviewById(review.getId());
+        reviewService.getReviewById(review.getId());
+        verify(movieRepository, times(1)).findById(review.getMovieId());
+    }
+
+    @Test
+    void testDeleteReview_RefreshesCachedMovie() {
+        Review review = easyRandom.nextObject(Review.class);
+        Movie updatedMovie = easyRandom.nextObject(Movie.class);
+        updatedMovie.setId(review.getMovieId());
+        stubMovieOfReview(review.getId(), review.getMovieId());
+        when(reviewRepository.findAndRemoveById(review.getId())).thenReturn(Optional.of(review));
+        when(movieRepository.finishRatingStatsWrite(eq(review.getMovieId()), anyMap())).thenReturn(Optional.of(updatedMovie));
+        reviewService.deleteReview(review.getId());
+        assertThat(movieCache.findById(review.getMovieId())).contains(updatedMovie);
+        verify(movieRepository, never()).findById(anyString());
+    }
+
+
+    private ReviewDto cachedReview(Review review, Movie movie) {
+        ReviewDto reviewDto = ReviewDto.builder().id(review.getId()).build();
+        when(reviewRepository.findById(review.getId())).thenReturn(Optional.of(review));
+        when(movieRepository.findById(review.getMovieId())).thenReturn(Optional.of(movie));
+        when(reviewMapper.toReviewDto(review, movie)).thenReturn(reviewDto);
+        reviewService.getReviewById(review.getId());
+        return reviewDto;
+    }
+
+    @Test
+    void testGetReviewById_ServedFromCache() {
+        Review review = easyRandom.nextObject(Review.class);
+        ReviewDto reviewDto = cachedReview(review, easyRandom.nextObject(Movie.class));
+
+        assertThat(reviewService.getReviewById(review.getId())).isSameAs(reviewDto);
+        verify(reviewRepository, times(1)).findById(review.getId());
+        verify(reviewMapper, times(1)).toReviewDto(any(Review.class), any(Movie.class));
+    }
+
+    @Test
+    void testUpdateReview_InvalidatesCachedReview() {
+        Review review = easyRandom.nextObject(Review.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movie.setId(review.getMovieId());
+        cachedReview(review, movie);
+        ReviewDtoUpdate updateDto = ReviewDtoUpdate.builder().rating(review.getRating()).comment("Updated").build();
+        stubMovieOfReview(review.getId(), review.getMovieId());
+        when(reviewMapper.toUpdateFromDtoUpdate(updateDto)).thenReturn(new Update());
+        when(reviewRepository.findAndModifyById(eq(review.getId()), any(Update.class), eq(false))).thenReturn(Optional.of(review));
+
+        reviewService.updateReview(updateDto, review.getId());
+        reviewService.getReviewById(review.getId());
+
+        verify(reviewRepository, times(2)).findById(review.getId());
+    }
+
+    @Test
+    void testRatingChange_InvalidatesReviewsOfSameMovie() {
+        Review cached = easyRandom.nextObject(Review.class);
+        Movie movie = easyRandom.nextObject(Movie.class);
+        movie.setId(cached.getMovieId());
+        cachedReview(cached, movie);
+        Review deleted = easyRandom.nextObject(Review.class);
+        deleted.setMovieId(cached.getMovieId());
+        stubMovieOfReview(deleted.getId(), deleted.getMovieId());
+        when(reviewRepository.findAndRemoveById(deleted.getId())).thenReturn(Optional.of(deleted));
+        when(movieRepository.finishRatingStatsWrite(eq(movie.getId()), anyMap())).thenReturn(Optional.of(movie));
+
+        reviewService.deleteReview(deleted.getId());
+        reviewService.getReviewById(cached.getId());
+
+        verify(reviewRepository, times(2)).findById(cached.getId());
+    }
 }
@@ -0,0 +1,23 @@
+package com.stage.mongodb.utils;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Explains every query and aggregation issued during each test of the class and fails the test on a collection
+// scan, an in-memory sort or more than maxDocsExaminedPerReturned documents read per document kept.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Import(QueryPlanRecorder.Configuration.class)
+@ExtendWith(ExplainQueriesExtension.class)
+public @interface ExplainQueries {
+
+    double maxDocsExaminedPerReturned() default 10;
+
+    // Commands named "<command> <collection>", e.g. "find Movie", that list the whole collection on purpose.
+    String[] wholeCollectionReads() default {};
+}
@@ -0,0 +1,47 @@
+package com.stage.mongodb.utils;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class ExplainQueriesExtension implements BeforeEachCallback, AfterEachCallback {
+
+    // Commands issued while seeding in @BeforeAll are discarded here.
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SpringExtension.getApplicationContext(context).getBean(QueryPlanRecorder.class).reset();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        ExplainQueries settings = AnnotationSupport.findAnnotation(context.getRequiredTestClass(), ExplainQueries.class)
+                .orElseThrow();
+        ApplicationContext applicationContext = SpringExtension.getApplicationContext(context);
+        MongoDatabaseFactory databaseFactory = applicationContext.getBean(MongoDatabaseFactory.class);
+        QueryPlanRecorder recorder = applicationContext.getBean(QueryPlanRecorder.class);
+        Set<String> wholeCollectionReads = Set.of(settings.wholeCollectionReads());
+
+        List<String> violations = new ArrayList<>();
+        for (QueryPlanRecorder.RecordedCommand recorded : recorder.commands()) {
+            List<String> problems = QueryPlanChecker.check(databaseFactory.getMongoDatabase(recorded.database()),
+                    recorded.command(), settings.maxDocsExaminedPerReturned(), wholeCollectionReads);
+            if (!problems.isEmpty()) {
+                violations.add(problems + ": " + recorded.command().toJson());
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Queries without a suitable index:\n" + String.join("\n", violations));
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.stage.mongodb.utils;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// On a test class it records the Mongo commands of every HTTP request served during its tests; on a test
+// method it also fails the test when one of those requests goes over the budget.
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Import(MongoCommandRecorder.Configuration.class)
+@ExtendWith(MongoCommandBudgetExtension.class)
+public @interface MongoCommandBudget {
+
+    int commands() default Integer.MAX_VALUE;
+
+    long documents() default Long.MAX_VALUE;
+
+    long bytes() default Long.MAX_VALUE;
+}
@@ -0,0 +1,55 @@
+package com.stage.mongodb.utils;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+public class MongoCommandBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        recorder(context).reset();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Optional<MongoCommandBudget> budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(),
+                MongoCommandBudget.class);
+        if (budget.isEmpty() || context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        List<MongoCommandRecorder.Request> requests = recorder(context).requests();
+        if (requests.isEmpty()) {
+            throw new AssertionError("A Mongo command budget is set but the test made no HTTP request");
+        }
+        List<String> violations = new ArrayList<>();
+        for (MongoCommandRecorder.Request request : requests) {
+            if (request.commands().size() > budget.get().commands()) {
+                violations.add(request + ": " + request.commands().size() + " commands, budget "
+                        + budget.get().commands());
+            }
+            if (request.documents() > budget.get().documents()) {
+                violations.add(request + ": " + request.documents() + " documents returned, budget "
+                        + budget.get().documents());
+            }
+            if (request.bytes() > budget.get().bytes()) {
+                violations.add(request + ": " + request.bytes() + " bytes exchanged, budget "
+                        + budget.get().bytes());
+            }
+        }
+        if (!violations.isEmpty()) {
+            throw new AssertionError("Mongo command budget exceeded:\n" + String.join("\n", violations));
+        }
+    }
+
+    private static MongoCommandRecorder recorder(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(MongoCommandRecorder.class);
+    }
+}
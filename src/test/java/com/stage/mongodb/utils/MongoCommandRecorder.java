@@ -0,0 +1,163 @@
+package com.stage.mongodb.utils;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Attributes the Mongo commands issued on a servlet request thread to that HTTP request. The sync driver
+// notifies listeners on the calling thread, so work handed to other threads (executors, schedulers) and
+// commands issued by the test itself are not counted.
+public class MongoCommandRecorder extends OncePerRequestFilter implements CommandListener {
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+
+    private final ThreadLocal<Request> current = new ThreadLocal<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Configuration {
+
+        @Bean
+        MongoCommandRecorder mongoCommandRecorder() {
+            return new MongoCommandRecorder();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer mongoCommandRecorderCustomizer(MongoCommandRecorder recorder) {
+            return settings -> settings.addCommandListener(recorder);
+        }
+    }
+
+    public static final class Request {
+
+        private final String name;
+        private final List<String> commands = new ArrayList<>();
+        private long documents;
+        private long bytes;
+
+        Request(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public synchronized List<String> commands() {
+            return List.copyOf(commands);
+        }
+
+        public synchronized long documents() {
+            return documents;
+        }
+
+        public synchronized long bytes() {
+            return bytes;
+        }
+
+        private synchronized void started(String command, long size) {
+            commands.add(command);
+            bytes += size;
+        }
+
+        private synchronized void succeeded(long returned, long size) {
+            documents += returned;
+            bytes += size;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return name + " " + commands + " documents=" + documents + " bytes=" + bytes;
+        }
+    }
+
+    public List<Request> requests() {
+        return List.copyOf(requests);
+    }
+
+    public Request lastRequest() {
+        if (requests.isEmpty()) {
+            throw new IllegalStateException("No HTTP request was recorded");
+        }
+        return requests.get(requests.size() - 1);
+    }
+
+    public void reset() {
+        requests.clear();
+    }
+
+    // The request is listed before the chain runs: the client may read the response before this filter
+    // returns, and every command has completed by then.
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String query = request.getQueryString();
+        Request recorded = new Request(request.getMethod() + " " + request.getRequestURI()
+                + (query == null ? "" : "?" + query));
+        requests.add(recorded);
+        current.set(recorded);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            current.remove();
+        }
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Request request = current.get();
+        if (request != null) {
+            BsonValue target = event.getCommand().get(event.getCommandName());
+            String command = target != null && target.isString()
+                    ? event.getCommandName() + " " + target.asString().getValue()
+                    : event.getCommandName();
+            request.started(command, size(event.getCommand()));
+        }
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        Request request = current.get();
+        if (request != null) {
+            request.succeeded(returnedDocuments(event.getResponse()), size(event.getResponse()));
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+    }
+
+    private static long returnedDocuments(BsonDocument response) {
+        BsonDocument cursor = response.getDocument("cursor", null);
+        if (cursor != null) {
+            BsonValue batch = cursor.containsKey("firstBatch") ? cursor.get("firstBatch") : cursor.get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : 0;
+        }
+        BsonValue value = response.get("value");
+        return value != null && value.isDocument() ? 1 : 0;
+    }
+
+    private static long size(BsonDocument document) {
+        return document instanceof RawBsonDocument raw
+                ? raw.getByteBuffer().remaining()
+                : new RawBsonDocument(document, CODEC).getByteBuffer().remaining();
+    }
+}
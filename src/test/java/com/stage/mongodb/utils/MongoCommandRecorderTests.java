@@ -0,0 +1,81 @@
+package com.stage.mongodb.utils;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonNull;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class MongoCommandRecorderTests {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final MongoCommandRecorder recorder = new MongoCommandRecorder();
+
+    @Test
+    void testRecordsCommandsIssuedWhileServingTheRequest() throws Exception {
+        BsonDocument find = new BsonDocument("find", new BsonString("movie"))
+                .append("filter", new BsonDocument("_id", new BsonString("1")));
+        BsonDocument findReply = new BsonDocument("cursor", new BsonDocument("firstBatch", new BsonArray(List.of(
+                new BsonDocument("_id", new BsonString("1")), new BsonDocument("_id", new BsonString("2"))))))
+                .append("ok", new BsonInt32(1));
+        BsonDocument findAndModify = new BsonDocument("findAndModify", new BsonString("review"));
+        BsonDocument findAndModifyReply = new BsonDocument("value", BsonNull.VALUE).append("ok", new BsonInt32(1));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/movie");
+        request.setQueryString("id=1");
+        recorder.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> {
+            run("find", find, findReply);
+            run("findAndModify", findAndModify, findAndModifyReply);
+        });
+
+        MongoCommandRecorder.Request recorded = recorder.lastRequest();
+        assertThat(recorded.name()).isEqualTo("GET /api/movie?id=1");
+        assertThat(recorded.commands()).containsExactly("find movie", "findAndModify review");
+        assertThat(recorded.documents()).isEqualTo(2);
+        assertThat(recorded.bytes()).isEqualTo(size(find) + size(findReply) + size(findAndModify)
+                + size(findAndModifyReply));
+    }
+
+    @Test
+    void testIgnoresCommandsOutsideARequest() throws Exception {
+        recorder.doFilter(new MockHttpServletRequest("DELETE", "/api/review"), new MockHttpServletResponse(),
+                (servletRequest, servletResponse) -> {
+                });
+        run("find", new BsonDocument("find", new BsonString("review")), new BsonDocument("ok", new BsonInt32(1)));
+
+        assertThat(recorder.requests()).hasSize(1);
+        assertThat(recorder.lastRequest().commands()).isEmpty();
+
+        recorder.reset();
+        assertThat(recorder.requests()).isEmpty();
+    }
+
+    private void run(String commandName, BsonDocument command, BsonDocument reply) {
+        recorder.commandStarted(new CommandStartedEvent(null, 1, 1, CONNECTION, "movies", commandName, command));
+        recorder.commandSucceeded(new CommandSucceededEvent(null, 1, 1, CONNECTION, "movies", commandName, reply,
+                1000));
+    }
+
+    private static long size(BsonDocument document) {
+        return new RawBsonDocument(document, new BsonDocumentCodec()).getByteBuffer().remaining();
+    }
+}
@@ -0,0 +1,182 @@
+package com.stage.mongodb.utils;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Runs explain on a captured command and reports collection scans, in-memory sorts and filters that read
+// many more documents than they keep.
+public final class QueryPlanChecker {
+
+    static final Set<String> EXPLAINABLE = Set.of("find", "aggregate", "count", "distinct", "findAndModify",
+            "update", "delete");
+
+    // Session, transaction and read/write concern fields are attached by the driver and rejected by explain.
+    private static final Set<String> GENERIC_FIELDS = Set.of("$db", "lsid", "$clusterTime", "txnNumber",
+            "autocommit", "startTransaction", "$readPreference", "readConcern", "writeConcern", "apiVersion",
+            "apiStrict", "apiDeprecationErrors", "ordered", "bypassDocumentValidation");
+    // Grouping, counting and text search read every matching document by design.
+    private static final Set<String> READ_ALL_MATCHES_STAGES = Set.of("GROUP", "COUNT", "COUNT_SCAN", "TEXT_MATCH",
+            "TEXT_OR");
+
+    private QueryPlanChecker() {
+    }
+
+    // Multi-statement update and delete commands are explained one statement at a time.
+    static List<BsonDocument> explainable(String commandName, BsonDocument command) {
+        if (!EXPLAINABLE.contains(commandName)) {
+            return List.of();
+        }
+        BsonDocument stripped = new BsonDocument();
+        for (Map.Entry<String, BsonValue> field : command.entrySet()) {
+            if (!GENERIC_FIELDS.contains(field.getKey())) {
+                stripped.put(field.getKey(), field.getValue());
+            }
+        }
+
+        String statementsField = switch (commandName) {
+            case "update" -> "updates";
+            case "delete" -> "deletes";
+            default -> null;
+        };
+        if (statementsField == null || !stripped.isArray(statementsField)) {
+            return List.of(stripped);
+        }
+        List<BsonDocument> statements = new ArrayList<>();
+        for (BsonValue statement : stripped.getArray(statementsField)) {
+            BsonDocument single = stripped.clone();
+            single.put(statementsField, new BsonArray(List.of(statement)));
+            statements.add(single);
+        }
+        return statements;
+    }
+
+    public static List<String> check(MongoDatabase database, BsonDocument command, double maxDocsExaminedPerReturned,
+                                     Set<String> wholeCollectionReads) {
+        // $out and $merge stages may not run with executionStats, their plans are still checked.
+        String verbosity = writesOutput(command) ? "queryPlanner" : "executionStats";
+        BsonDocument explain = database.runCommand(new BsonDocument("explain", command)
+                .append("verbosity", new BsonString(verbosity)), BsonDocument.class);
+        return problems(command, explain, maxDocsExaminedPerReturned, wholeCollectionReads);
+    }
+
+    static List<String> problems(BsonDocument command, BsonDocument explain, double maxDocsExaminedPerReturned,
+                                 Set<String> wholeCollectionReads) {
+        PlanSummary summary = new PlanSummary();
+        summary.visit(explain);
+
+        List<String> problems = new ArrayList<>();
+        if (summary.lookupScans > 0 || (summary.collectionScans > 0 && !readsWholeCollection(command, wholeCollectionReads))) {
+            problems.add("collection scan");
+        }
+        if (summary.inMemorySorts > 0) {
+            problems.add("in-memory sort");
+        }
+        long returned = Math.max(1, Math.max(summary.returned, summary.modified));
+        if (!summary.readsAllMatches && summary.examined > maxDocsExaminedPerReturned * returned) {
+            problems.add(summary.examined + " documents examined for " + returned + " returned");
+        }
+        return problems;
+    }
+
+    // Only the commands named "<command> <collection>" in the allowlist (exports, full lists) may scan the whole
+    // collection, and only when they have no filter or sort.
+    static boolean readsWholeCollection(BsonDocument command, Set<String> wholeCollectionReads) {
+        String commandName = command.getFirstKey();
+        BsonValue collection = command.get(commandName);
+        if (!collection.isString() || !wholeCollectionReads.contains(commandName + " " + collection.asString().getValue())) {
+            return false;
+        }
+        return switch (commandName) {
+            case "find" -> isEmpty(command, "filter") && isEmpty(command, "sort");
+            case "count", "distinct" -> isEmpty(command, "query");
+            case "aggregate" -> command.getArray("pipeline", new BsonArray()).stream()
+                    .noneMatch(stage -> stage.asDocument().containsKey("$match") || stage.asDocument().containsKey("$sort"));
+            default -> false;
+        };
+    }
+
+    private static boolean writesOutput(BsonDocument command) {
+        if (!command.isArray("pipeline")) {
+            return false;
+        }
+        for (BsonValue stage : command.getArray("pipeline")) {
+            if (stage.asDocument().containsKey("$out") || stage.asDocument().containsKey("$merge")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isEmpty(BsonDocument command, String field) {
+        return !command.isDocument(field) || command.getDocument(field).isEmpty();
+    }
+
+    private static final class PlanSummary {
+
+        private int collectionScans;
+        private int lookupScans;
+        private int inMemorySorts;
+        private boolean readsAllMatches;
+        private long examined;
+        private long returned;
+        private long modified;
+
+        private void visit(BsonValue value) {
+            if (value.isArray()) {
+                value.asArray().forEach(this::visit);
+            } else if (value.isDocument()) {
+                visit(value.asDocument());
+            }
+        }
+
+        private void visit(BsonDocument document) {
+            BsonValue stage = document.get("stage");
+            if (stage != null && stage.isString()) {
+                String name = stage.asString().getValue();
+                if (name.equals("COLLSCAN")) {
+                    collectionScans++;
+                } else if (name.equals("SORT") && !sortsByRelevance(document)) {
+                    inMemorySorts++;
+                } else if (name.equals("EQ_LOOKUP") && !document.getString("strategy", new BsonString(""))
+                        .getValue().equals("IndexedLoopJoin")) {
+                    lookupScans++;
+                }
+                readsAllMatches |= READ_ALL_MATCHES_STAGES.contains(name);
+            }
+            // $lookup stages report the scans of their sub-pipelines in the stage itself.
+            if (document.isNumber("collectionScans")) {
+                lookupScans += document.getNumber("collectionScans").intValue();
+            }
+            if (document.isNumber("totalDocsExamined") && document.isNumber("nReturned")) {
+                examined += document.getNumber("totalDocsExamined").longValue();
+                returned += document.getNumber("nReturned").longValue();
+            }
+            for (String field : List.of("nWouldModify", "nWouldDelete")) {
+                if (document.isNumber(field)) {
+                    modified = Math.max(modified, document.getNumber(field).longValue());
+                }
+            }
+            for (Map.Entry<String, BsonValue> field : document.entrySet()) {
+                // Rejected candidate plans never ran for the command.
+                if (!field.getKey().equals("rejectedPlans") && !field.getKey().equals("allPlansExecution")) {
+                    visit(field.getValue());
+                }
+            }
+        }
+
+        // No index can return text search results by score, the bounded top-k sort is expected.
+        private static boolean sortsByRelevance(BsonDocument sortStage) {
+            BsonDocument sortPattern = sortStage.getDocument("sortPattern", new BsonDocument());
+            return !sortPattern.isEmpty() && sortPattern.values().stream()
+                    .allMatch(direction -> direction.isDocument() && direction.asDocument().containsKey("$meta"));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.stage.mongodb.utils;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(SpacedDisplayNameGenerator.class)
+class QueryPlanCheckerTests {
+
+    private static final BsonDocument FIND_BY_MOVIE = BsonDocument.parse(
+            "{ 'find': 'review', 'filter': { 'movieId': 'm1' }, 'sort': { 'insertDate': 1 } }");
+
+    @Test
+    void testAcceptsAnIndexScanThatKeepsWhatItReads() {
+        BsonDocument explain = BsonDocument.parse("""
+                { 'queryPlanner': {
+                    'winningPlan': { 'stage': 'FETCH', 'inputStage': { 'stage': 'IXSCAN', 'indexName': 'movieId_insertDate' } },
+                    'rejectedPlans': [ { 'stage': 'SORT', 'inputStage': { 'stage': 'COLLSCAN' } } ] },
+                  'executionStats': { 'nReturned': 12, 'totalKeysExamined': 12, 'totalDocsExamined': 12 } }
+                """);
+
+        assertThat(QueryPlanChecker.problems(FIND_BY_MOVIE, explain, 10, Set.of())).isEmpty();
+    }
+
+    @Test
+    void testReportsCollectionScanInMemorySortAndWastedReads() {
+        BsonDocument explain = BsonDocument.parse("""
+                { 'queryPlanner': {
+                    'winningPlan': { 'stage': 'SORT', 'sortPattern': { 'insertDate': 1 },
+                                     'inputStage': { 'stage': 'COLLSCAN' } } },
+                  'executionStats': { 'nReturned': 12, 'totalKeysExamined': 0, 'totalDocsExamined': 20000 } }
+                """);
+
+        assertThat(QueryPlanChecker.problems(FIND_BY_MOVIE, explain, 10, Set.of()))
+                .containsExactly("collection scan", "in-memory sort", "20000 documents examined for 12 returned");
+    }
+
+    @Test
+    void testReportsCollectionScansInsideLookups() {
+        BsonDocument aggregate = BsonDocument.parse(
+                "{ 'aggregate': 'review', 'pipeline': [ { '$sort': { '_id': 1 } }, { '$limit': 21 } ] }");
+        BsonDocument explain = BsonDocument.parse("""
+                { 'stages': [
+                    { '$cursor': {
+                        'queryPlanner': { 'winningPlan': { 'stage': 'LIMIT', 'inputStage': { 'stage': 'IXSCAN' } } },
+                        'executionStats': { 'nReturned': 21, 'totalDocsExamined': 21 } } },
+                    { '$lookup': { 'from': 'movie' }, 'nReturned': 21, 'totalDocsExamined': 4200,
+                      'collectionScans': 21, 'indexesUsed': [] } ] }
+                """);
+
+        assertThat(QueryPlanChecker.problems(aggregate, explain, 10, Set.of()))
+                .containsExactly("collection scan", "4221 documents examined for 42 returned");
+    }
+
+    @Test
+    void testAllowsWholeCollectionReadsTextRelevanceSortsAndGroups() {
+        BsonDocument export = BsonDocument.parse("{ 'find': 'Movie', 'filter': {} }");
+        BsonDocument exportExplain = BsonDocument.parse("""
+                { 'queryPlanner': { 'winningPlan': { 'stage': 'COLLSCAN' } },
+                  'executionStats': { 'nReturned': 500, 'totalDocsExamined': 500 } }
+                """);
+        BsonDocument search = BsonDocument.parse("{ 'find': 'movie', 'filter': { '$text': { '$search': 'night' } } }");
+        BsonDocument searchExplain = BsonDocument.parse("""
+                { 'queryPlanner': { 'winningPlan': { 'stage': 'SORT', 'sortPattern': { 'score': { '$meta': 'textScore' } },
+                                                     'inputStage': { 'stage': 'TEXT_MATCH' } } },
+                  'executionStats': { 'nReturned': 21, 'totalDocsExamined': 900 } }
+                """);
+
+        assertThat(QueryPlanChecker.problems(export, exportExplain, 10, Set.of("find Movie"))).isEmpty();
+        assertThat(QueryPlanChecker.problems(search, searchExplain, 10, Set.of())).isEmpty();
+    }
+
+    @Test
+    void testReportsWholeCollectionReadsThatAreNotAllowed() {
+        BsonDocument groupAll = BsonDocument.parse(
+                "{ 'aggregate': 'Movie', 'pipeline': [ { '$match': {} }, { '$group': { '_id': 1, 'n': { '$sum': 1 } } } ] }");
+        BsonDocument groupAllExplain = BsonDocument.parse("""
+                { 'stages': [ { '$cursor': {
+                    'queryPlanner': { 'winningPlan': { 'stage': 'GROUP', 'inputStage': { 'stage': 'COLLSCAN' } } },
+                    'executionStats': { 'nReturned': 1, 'totalDocsExamined': 500 } } } ] }
+                """);
+        BsonDocument export = BsonDocument.parse("{ 'find': 'Movie', 'filter': {} }");
+        BsonDocument exportExplain = BsonDocument.parse("""
+                { 'queryPlanner': { 'winningPlan': { 'stage': 'COLLSCAN' } },
+                  'executionStats': { 'nReturned': 500, 'totalDocsExamined': 500 } }
+                """);
+
+        assertThat(QueryPlanChecker.problems(groupAll, groupAllExplain, 10, Set.of("aggregate Movie")))
+                .containsExactly("collection scan");
+        assertThat(QueryPlanChecker.problems(export, exportExplain, 10, Set.of("find Review")))
+                .containsExactly("collection scan");
+    }
+
+    @Test
+    void testCountsDocumentsAWriteWouldTouchAsReturned() {
+        BsonDocument delete = BsonDocument.parse("{ 'delete': 'review', 'deletes': [ { 'q': { 'movieId': 'm1' }, 'limit': 0 } ] }");
+        BsonDocument explain = BsonDocument.parse("""
+                { 'queryPlanner': { 'winningPlan': { 'stage': 'DELETE', 'inputStage': { 'stage': 'FETCH',
+                                                     'inputStage': { 'stage': 'IXSCAN' } } } },
+                  'executionStats': { 'nReturned': 0, 'totalDocsExamined': 40,
+                                      'executionStages': { 'stage': 'DELETE', 'nWouldDelete': 40 } } }
+                """);
+
+        assertThat(QueryPlanChecker.problems(delete, explain, 10, Set.of())).isEmpty();
+    }
+
+    @Test
+    void testSplitsBatchedWritesAndDropsSessionFields() {
+        BsonDocument update = BsonDocument.parse("""
+                { 'update': 'movie', 'ordered': false, 'lsid': { 'id': 1 }, '$db': 'test',
+                  'updates': [ { 'q': { '_id': 'a' }, 'u': { '$inc': { 'stats.reviewCount': 1 } } },
+                               { 'q': { '_id': 'b' }, 'u': { '$inc': { 'stats.reviewCount': 1 } } } ] }
+                """);
+
+        List<BsonDocument> statements = QueryPlanChecker.explainable("update", update);
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0).keySet()).containsExactly("update", "updates");
+        assertThat(statements.get(1).getArray("updates").get(0).asDocument().getDocument("q").getString("_id").getValue())
+                .isEqualTo("b");
+        assertThat(QueryPlanChecker.explainable("insert", BsonDocument.parse("{ 'insert': 'movie' }"))).isEmpty();
+    }
+
+    @Test
+    void testSameQueryWithOtherValuesHasTheSameShape() {
+        assertThat(QueryPlanRecorder.shape(BsonDocument.parse("{ 'filter': { '_id': { '$in': [ 'a', 'b', 'c' ] } } }")))
+                .isEqualTo(QueryPlanRecorder.shape(BsonDocument.parse("{ 'filter': { '_id': { '$in': [ 'd' ] } } }")))
+                .isNotEqualTo(QueryPlanRecorder.shape(BsonDocument.parse("{ 'filter': { 'movieId': 'd' } }")));
+    }
+}
@@ -0,0 +1,83 @@
+package com.stage.mongodb.utils;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Keeps one command per query shape issued through the client, from any thread, so repository methods and
+// MongoTemplate code are explained once however often they run. Work handed to executors is recorded too, so
+// tests using it run with scheduling.enabled=false to keep scheduled jobs out of their commands.
+public class QueryPlanRecorder implements CommandListener {
+
+    private static final BsonDocumentCodec CODEC = new BsonDocumentCodec();
+    private static final BsonString VALUE = new BsonString("?");
+
+    private final Map<BsonDocument, RecordedCommand> commands = new LinkedHashMap<>();
+
+    public record RecordedCommand(String database, BsonDocument command) {
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Configuration {
+
+        @Bean
+        QueryPlanRecorder queryPlanRecorder() {
+            return new QueryPlanRecorder();
+        }
+
+        @Bean
+        MongoClientSettingsBuilderCustomizer queryPlanRecorderCustomizer(QueryPlanRecorder recorder) {
+            return settings -> settings.addCommandListener(recorder);
+        }
+    }
+
+    public synchronized List<RecordedCommand> commands() {
+        return List.copyOf(commands.values());
+    }
+
+    public synchronized void reset() {
+        commands.clear();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (!QueryPlanChecker.EXPLAINABLE.contains(event.getCommandName())) {
+            return;
+        }
+        // The event document is only readable during the callback.
+        BsonDocument command = new RawBsonDocument(event.getCommand(), CODEC).decode(CODEC);
+        for (BsonDocument explainable : QueryPlanChecker.explainable(event.getCommandName(), command)) {
+            BsonDocument shape = new BsonDocument(explainable.getFirstKey(), explainable.get(explainable.getFirstKey()))
+                    .append("shape", shape(explainable));
+            synchronized (this) {
+                commands.putIfAbsent(shape, new RecordedCommand(event.getDatabaseName(), explainable));
+            }
+        }
+    }
+
+    // Field names and nesting are kept, values are not: the same query with other ids has the same plan.
+    static BsonValue shape(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            value.asDocument().forEach((name, field) -> shape.put(name, shape(field)));
+            return shape;
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            return array.isEmpty() ? new BsonArray() : new BsonArray(List.of(shape(array.get(0))));
+        }
+        return VALUE;
+    }
+}